@@ -0,0 +1,98 @@
+package com.fenix.fenix_mail_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.fenix_mail_service.component.FenixDkimSigner;
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import com.fenix.fenix_mail_service.component.FenixMailTenants;
+import com.fenix.fenix_mail_service.component.FenixSendTracer;
+import com.fenix.fenix_mail_service.configuration.FenixMailConfig;
+import com.fenix.fenix_mail_service.model.FenixEmailRequest;
+import com.fenix.fenix_mail_service.service.FenixMailService;
+import com.fenix.fenix_mail_service.transport.FenixSmtpSink;
+import com.fenix.fenix_mail_service.transport.FenixTransportEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a complete {@link FenixMailService#sendJson(FenixEmailRequest)} against an in-process {@link FenixSmtpSink},
+ * for each transport engine.
+ * <p>
+ * The mail sender is created by {@link FenixMailConfig}, exactly as in the application. Log entries are
+ * discarded so that the growing log file does not dominate the result; see {@link LogWriteBenchmark} for that cost.
+ * </p>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class EndToEndSendBenchmark {
+
+    @Param({"JAVAMAIL", "NIO"})
+    private FenixTransportEngine engine;
+
+    private Path directory;
+    private FenixSmtpSink sink;
+    private JavaMailSender mailSender;
+    private FenixMailService fenixMailService;
+    private FenixEmailRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("fenix-send-benchmark");
+        sink = new FenixSmtpSink();
+
+        ObjectMapper objectMapper = FenixBenchmarkSupport.objectMapper();
+        FenixMailProperties properties = FenixBenchmarkSupport.properties(directory.resolve("log.json").toString());
+        properties.setHost("127.0.0.1");
+        properties.setPort(sink.getPort());
+        properties.getTransport().setEngine(engine);
+
+        FenixMailConfig config = new FenixMailConfig(properties);
+        mailSender = config.javaMailSender(FenixMailMetrics.noop(), config.fenixMxResolver());
+        fenixMailService = new FenixMailService(mailSender, properties,
+                new FenixBenchmarkSupport.DiscardingLogService(properties, objectMapper), FenixMailMetrics.noop(),
+                new FenixSendTracer(properties, objectMapper), new FenixDkimSigner(properties), FenixMailTenants.none());
+        request = FenixBenchmarkSupport.request(true, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (mailSender instanceof DisposableBean disposable) {
+            disposable.destroy();
+        }
+        sink.close();
+        FenixBenchmarkSupport.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public boolean send() {
+        return fenixMailService.sendJson(request);
+    }
+}
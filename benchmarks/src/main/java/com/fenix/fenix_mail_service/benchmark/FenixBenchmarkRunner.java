@@ -0,0 +1,44 @@
+package com.fenix.fenix_mail_service.benchmark;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of the benchmark jar.
+ * <p>
+ * Runs JMH with the given command line and, unless a result format is given explicitly, writes the
+ * results as JSON to {@code jmh-result.json} in the working directory so that they can be compared
+ * between builds.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * java -jar benchmarks/target/benchmarks.jar                       # all benchmarks, JSON to jmh-result.json
+ * java -jar benchmarks/target/benchmarks.jar LogWrite -p entries=1000 -rff log-write.json
+ * }</pre>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+public final class FenixBenchmarkRunner {
+
+    private FenixBenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-rf")) {
+            arguments.add("-rf");
+            arguments.add("json");
+        }
+        if (!arguments.contains("-rff")) {
+            arguments.add("-rff");
+            arguments.add("jmh-result.json");
+        }
+        Main.main(arguments.toArray(new String[0]));
+    }
+}
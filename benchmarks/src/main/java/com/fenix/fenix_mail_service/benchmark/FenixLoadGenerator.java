@@ -0,0 +1,306 @@
+package com.fenix.fenix_mail_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.fenix_mail_service.component.FenixDkimSigner;
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import com.fenix.fenix_mail_service.component.FenixMailTenants;
+import com.fenix.fenix_mail_service.component.FenixSendTracer;
+import com.fenix.fenix_mail_service.configuration.FenixMailConfig;
+import com.fenix.fenix_mail_service.model.FenixEmailRequest;
+import com.fenix.fenix_mail_service.service.FenixMailService;
+import com.fenix.fenix_mail_service.transport.FenixSmtpSink;
+import com.fenix.fenix_mail_service.transport.FenixTransportEngine;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator that drives a {@link FenixMailService} at a target rate and reports throughput and latency percentiles.
+ * <p>
+ * With a positive {@code rate}, sends are started on a fixed schedule (open loop) regardless of how
+ * long earlier sends take, and each latency is measured from the moment the send was scheduled to
+ * start. Time spent waiting for a free sender thread therefore counts as latency, so a saturated
+ * service shows up as growing percentiles instead of a silently lower rate. With a {@code rate} of
+ * {@code 0}, {@code concurrency} senders run back to back (closed loop) to find the maximum throughput.
+ * </p>
+ *
+ * <p><b>Command Line:</b></p>
+ * <p>
+ * {@link #main(String[])} starts a {@link FenixSmtpSink}, sends through the service configured by
+ * {@link FenixMailConfig} and writes a JSON report:
+ * </p>
+ * <pre>{@code
+ * java -cp benchmarks/target/benchmarks.jar com.fenix.fenix_mail_service.benchmark.FenixLoadGenerator \
+ *     --messages=100000 --rate=2000 --concurrency=64 --engine=NIO \
+ *     --reply-latency-millis=2 --transient-failure-rate=0.01 --output=load-result.json
+ * }</pre>
+ * <p>
+ * Passing {@code --host} (and {@code --port}) sends to an existing relay instead of the embedded sink.
+ * </p>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+public class FenixLoadGenerator {
+
+    private final FenixMailService fenixMailService;
+    private final Settings settings;
+
+    public FenixLoadGenerator(FenixMailService fenixMailService, Settings settings) {
+        this.fenixMailService = fenixMailService;
+        this.settings = settings;
+    }
+
+    /**
+     * Sends {@code messages} copies of the given request and waits until all of them completed.
+     *
+     * @param request The request to send.
+     * @return The measured throughput and latencies.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public Report run(FenixEmailRequest request) throws InterruptedException {
+        int messages = settings.getMessages();
+        int concurrency = Math.max(1, settings.getConcurrency());
+        double rate = settings.getRate();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "fenix-load-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long[] latencies = new long[messages];
+        AtomicLong failed = new AtomicLong();
+        AtomicLong lastCompletion = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(messages);
+        Semaphore slots = rate > 0 ? null : new Semaphore(concurrency);
+
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < messages; i++) {
+                long scheduled;
+                if (slots == null) {
+                    scheduled = start + (long) (i * 1_000_000_000d / rate);
+                    long wait;
+                    while ((wait = scheduled - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                } else {
+                    slots.acquire();
+                    scheduled = System.nanoTime();
+                }
+
+                int index = i;
+                executor.execute(() -> {
+                    try {
+                        fenixMailService.sendJson(request);
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                    } finally {
+                        long end = System.nanoTime();
+                        latencies[index] = end - scheduled;
+                        lastCompletion.accumulateAndGet(end, Math::max);
+                        if (slots != null) {
+                            slots.release();
+                        }
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return Report.of(latencies, failed.get(), lastCompletion.get() - start);
+    }
+
+    /**
+     * Runs a load test from the command line. See the class documentation for the options.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        Settings settings = new Settings();
+        settings.setMessages(intOption(options, "messages", settings.getMessages()));
+        settings.setRate(doubleOption(options, "rate", settings.getRate()));
+        settings.setConcurrency(intOption(options, "concurrency", settings.getConcurrency()));
+
+        FenixSmtpSink.Settings sinkSettings = new FenixSmtpSink.Settings();
+        sinkSettings.setReplyLatencyMillis(intOption(options, "reply-latency-millis", 0));
+        sinkSettings.setDataLatencyMillis(intOption(options, "data-latency-millis", 0));
+        sinkSettings.setMaxConnections(intOption(options, "sink-max-connections", 0));
+        sinkSettings.setMaxMessagesPerSecond(intOption(options, "sink-max-rate", 0));
+        sinkSettings.setTransientFailureRate(doubleOption(options, "transient-failure-rate", 0.0));
+        sinkSettings.setPermanentFailureRate(doubleOption(options, "permanent-failure-rate", 0.0));
+        sinkSettings.setDropRate(doubleOption(options, "drop-rate", 0.0));
+        String host = options.remove("host");
+        int port = intOption(options, "port", 25);
+        boolean html = Boolean.parseBoolean(options.getOrDefault("html", "true"));
+        options.remove("html");
+        Path output = Path.of(options.getOrDefault("output", "load-result.json"));
+        options.remove("output");
+
+        ObjectMapper objectMapper = FenixBenchmarkSupport.objectMapper();
+        Path directory = Files.createTempDirectory("fenix-load");
+        FenixMailProperties properties = FenixBenchmarkSupport.properties(directory.resolve("log.json").toString());
+        FenixMailProperties.Transport transport = properties.getTransport();
+        transport.setEngine(FenixTransportEngine.valueOf(options.getOrDefault("engine", "JAVAMAIL").toUpperCase()));
+        options.remove("engine");
+        transport.setNioThreads(intOption(options, "nio-threads", transport.getNioThreads()));
+        transport.setMaxConnections(intOption(options, "max-connections", transport.getMaxConnections()));
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + options.keySet());
+        }
+
+        FenixSmtpSink sink = host == null ? new FenixSmtpSink(sinkSettings) : null;
+        properties.setHost(host == null ? "127.0.0.1" : host);
+        properties.setPort(sink == null ? port : sink.getPort());
+        FenixMailConfig config = new FenixMailConfig(properties);
+        JavaMailSender mailSender = config.javaMailSender(FenixMailMetrics.noop(), config.fenixMxResolver());
+        FenixMailService fenixMailService = new FenixMailService(mailSender, properties,
+                new FenixBenchmarkSupport.DiscardingLogService(properties, objectMapper), FenixMailMetrics.noop(),
+                new FenixSendTracer(properties, objectMapper), new FenixDkimSigner(properties), FenixMailTenants.none());
+
+        try {
+            Report report = new FenixLoadGenerator(fenixMailService, settings).run(FenixBenchmarkSupport.request(html, null));
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("engine", transport.getEngine());
+            result.put("settings", settings);
+            result.put("report", report);
+            if (sink != null) {
+                Map<String, Object> sinkResult = new LinkedHashMap<>();
+                sinkResult.put("settings", sinkSettings);
+                sinkResult.put("connections", sink.getConnections());
+                sinkResult.put("refusedConnections", sink.getRefusedConnections());
+                sinkResult.put("accepted", sink.getAccepted());
+                sinkResult.put("throttled", sink.getThrottled());
+                sinkResult.put("transientFailures", sink.getTransientFailures());
+                sinkResult.put("permanentFailures", sink.getPermanentFailures());
+                sinkResult.put("dropped", sink.getDropped());
+                result.put("sink", sinkResult);
+            }
+            String json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(result);
+            Files.writeString(output, json);
+            System.out.println(json);
+        } finally {
+            if (mailSender instanceof DisposableBean disposable) {
+                disposable.destroy();
+            }
+            if (sink != null) {
+                sink.close();
+            }
+            FenixBenchmarkSupport.deleteRecursively(directory);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.remove(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static double doubleOption(Map<String, String> options, String name, double defaultValue) {
+        String value = options.remove(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    /**
+     * Shape of a load run.
+     *
+     * <ul>
+     *     <li>{@code messages}: The number of emails to send.</li>
+     *     <li>{@code rate}: The target send rate per second ({@code 0} runs closed loop as fast as possible).</li>
+     *     <li>{@code concurrency}: The number of sender threads.</li>
+     * </ul>
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @ToString
+    public static class Settings {
+        private int messages = 100_000;
+        private double rate = 1000;
+        private int concurrency = 32;
+    }
+
+    /**
+     * Result of a load run. Latencies are in milliseconds.
+     */
+    @Getter
+    @ToString
+    public static class Report {
+        private long messages;
+        private long sent;
+        private long failed;
+        private long elapsedMillis;
+        private double throughputPerSecond;
+        private double latencyMeanMillis;
+        private double latencyP50Millis;
+        private double latencyP90Millis;
+        private double latencyP99Millis;
+        private double latencyP999Millis;
+        private double latencyMaxMillis;
+
+        private static Report of(long[] latencies, long failed, long elapsedNanos) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            Report report = new Report();
+            report.messages = sorted.length;
+            report.failed = failed;
+            report.sent = sorted.length - failed;
+            report.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            report.throughputPerSecond = elapsedNanos > 0 ? sorted.length * 1_000_000_000d / elapsedNanos : 0;
+            if (sorted.length > 0) {
+                report.latencyMeanMillis = millis((long) Arrays.stream(sorted).average().orElse(0));
+                report.latencyP50Millis = millis(percentile(sorted, 0.50));
+                report.latencyP90Millis = millis(percentile(sorted, 0.90));
+                report.latencyP99Millis = millis(percentile(sorted, 0.99));
+                report.latencyP999Millis = millis(percentile(sorted, 0.999));
+                report.latencyMaxMillis = millis(sorted[sorted.length - 1]);
+            }
+            return report;
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000d;
+        }
+    }
+}
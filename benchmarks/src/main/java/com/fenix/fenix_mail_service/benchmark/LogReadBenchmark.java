@@ -0,0 +1,80 @@
+package com.fenix.fenix_mail_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
+import com.fenix.fenix_mail_service.model.FenixEmailLog;
+import com.fenix.fenix_mail_service.model.FenixLogTail;
+import com.fenix.fenix_mail_service.service.FenixLogService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the parse cost of {@link FenixLogService#readEmailLogs()} for log files of different sizes.
+ * <p>
+ * {@code readEmailLogsFrom} reads only the last entry of the same files through the change feed, which
+ * shows the cost of a poll that finds one new entry.
+ * </p>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogReadBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int entries;
+
+    private Path directory;
+    private FenixLogService fenixLogService;
+    private long lastOffset;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("fenix-log-read-benchmark");
+        Path logFile = directory.resolve("log.json");
+        ObjectMapper objectMapper = FenixBenchmarkSupport.objectMapper();
+        FenixBenchmarkSupport.writeLogFile(objectMapper, logFile, entries - 1);
+        fenixLogService = new FenixLogService(FenixBenchmarkSupport.properties(logFile.toString()), objectMapper,
+                FenixMailMetrics.noop());
+        lastOffset = fenixLogService.readEmailLogsFrom(0).getNextOffset();
+        fenixLogService.saveEmailLog(FenixBenchmarkSupport.logEntry(entries - 1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FenixBenchmarkSupport.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<FenixEmailLog> readEmailLogs() {
+        return fenixLogService.readEmailLogs();
+    }
+
+    @Benchmark
+    public FenixLogTail readEmailLogsFrom() {
+        return fenixLogService.readEmailLogsFrom(lastOffset);
+    }
+}
@@ -0,0 +1,93 @@
+package com.fenix.fenix_mail_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import com.fenix.fenix_mail_service.model.FenixLogQuery;
+import com.fenix.fenix_mail_service.service.FenixLogService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures queries over the in-memory cache of recent email log entries in {@link FenixLogService}.
+ * <p>
+ * The cache is preloaded with {@code entries} entries one second apart. {@code countLastHour} counts
+ * the failures of the last hour, {@code scanAll} visits every cached row; neither reads the log file.
+ * </p>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogScanBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int entries;
+
+    private Path directory;
+    private FenixLogService fenixLogService;
+    private FenixLogQuery lastHourFailures;
+    private FenixLogQuery all;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("fenix-log-scan-benchmark");
+        Path logFile = directory.resolve("log.json");
+        ObjectMapper objectMapper = FenixBenchmarkSupport.objectMapper();
+        FenixBenchmarkSupport.writeLogFile(objectMapper, logFile, entries);
+        FenixMailProperties properties = FenixBenchmarkSupport.properties(logFile.toString());
+        properties.getLogCache().setCapacity(entries);
+        fenixLogService = new FenixLogService(properties, objectMapper, FenixMailMetrics.noop());
+        fenixLogService.preloadLogCache();
+
+        LocalDateTime newest = FenixBenchmarkSupport.logEntry(entries - 1).getSentAt();
+        lastHourFailures = new FenixLogQuery();
+        lastHourFailures.setFrom(newest.minusHours(1));
+        lastHourFailures.setSuccess(false);
+        all = new FenixLogQuery();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FenixBenchmarkSupport.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long countLastHour() {
+        return fenixLogService.countEmailLogs(lastHourFailures);
+    }
+
+    @Benchmark
+    public long scanAll() {
+        long[] failures = new long[1];
+        fenixLogService.scanEmailLogs(all, (sentAt, success, recipient, domain, subjectHash) -> {
+            if (!success) {
+                failures[0]++;
+            }
+        });
+        return failures[0];
+    }
+}
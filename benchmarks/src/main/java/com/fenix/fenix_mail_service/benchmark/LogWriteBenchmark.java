@@ -0,0 +1,80 @@
+package com.fenix.fenix_mail_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
+import com.fenix.fenix_mail_service.model.FenixEmailLog;
+import com.fenix.fenix_mail_service.service.FenixLogService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link FenixLogService#saveEmailLog(FenixEmailLog)} as the log file grows.
+ * <p>
+ * Before each iteration the log file is reset to {@code entries} entries, so every measured call
+ * appends to a file of roughly that size. Throughput and the latency distribution are both reported.
+ * </p>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogWriteBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int entries;
+
+    private Path directory;
+    private Path template;
+    private Path logFile;
+    private FenixLogService fenixLogService;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("fenix-log-write-benchmark");
+        template = directory.resolve("template.json");
+        logFile = directory.resolve("log.json");
+        ObjectMapper objectMapper = FenixBenchmarkSupport.objectMapper();
+        FenixBenchmarkSupport.writeLogFile(objectMapper, template, entries);
+        fenixLogService = new FenixLogService(FenixBenchmarkSupport.properties(logFile.toString()), objectMapper,
+                FenixMailMetrics.noop());
+    }
+
+    @Setup(Level.Iteration)
+    public void resetLog() throws IOException {
+        Files.copy(template, logFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FenixBenchmarkSupport.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void saveEmailLog() {
+        fenixLogService.saveEmailLog(FenixBenchmarkSupport.logEntry(entries + sequence++));
+    }
+}
@@ -0,0 +1,123 @@
+package com.fenix.fenix_mail_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.fenix_mail_service.component.FenixDkimSigner;
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import com.fenix.fenix_mail_service.component.FenixMailTenants;
+import com.fenix.fenix_mail_service.component.FenixSendTracer;
+import com.fenix.fenix_mail_service.model.FenixDkimAlgorithm;
+import com.fenix.fenix_mail_service.model.FenixEmailRequest;
+import com.fenix.fenix_mail_service.service.FenixMailService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of building and serializing a MIME message in {@link FenixMailService#sendJson(FenixEmailRequest)}.
+ * <p>
+ * The mail sender serializes every message to a null stream instead of opening an SMTP connection,
+ * and the log service discards entries, so only the {@code MimeMessageHelper} work and the MIME
+ * encoding are measured. With {@code dkim} set to an algorithm, every message is also DKIM-signed
+ * with a freshly generated key, which shows the signing cost per message.
+ * </p>
+ * <p>
+ * {@code resendWithAttachment} sends the message of {@code htmlWithAttachment} again with
+ * {@link FenixMailService#resend(String)}, from the bytes kept in the MIME cache, which shows what a
+ * retry or a resend costs compared to building the message.
+ * </p>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MimeBuildBenchmark {
+
+    @Param({"1024", "1048576"})
+    private int attachmentSize;
+
+    @Param({"NONE", "RSA_SHA256", "ED25519_SHA256"})
+    private String dkim;
+
+    private Path directory;
+    private FenixMailService fenixMailService;
+    private FenixMailService cachingMailService;
+    private String cachedMessageId;
+    private FenixEmailRequest plain;
+    private FenixEmailRequest html;
+    private FenixEmailRequest withAttachment;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, GeneralSecurityException {
+        directory = Files.createTempDirectory("fenix-mime-benchmark");
+        ObjectMapper objectMapper = FenixBenchmarkSupport.objectMapper();
+        FenixMailProperties properties = FenixBenchmarkSupport.properties(directory.resolve("log.json").toString());
+        if (!dkim.equals("NONE")) {
+            FenixBenchmarkSupport.enableDkim(properties, directory, FenixDkimAlgorithm.valueOf(dkim));
+        }
+        fenixMailService = new FenixMailService(new FenixBenchmarkSupport.SerializingMailSender(), properties,
+                new FenixBenchmarkSupport.DiscardingLogService(properties, objectMapper), FenixMailMetrics.noop(),
+                new FenixSendTracer(properties, objectMapper), new FenixDkimSigner(properties), FenixMailTenants.none());
+
+        plain = FenixBenchmarkSupport.request(false, null);
+        html = FenixBenchmarkSupport.request(true, null);
+        withAttachment = FenixBenchmarkSupport.request(true, FenixBenchmarkSupport.attachment(directory, attachmentSize));
+
+        FenixMailProperties caching = FenixBenchmarkSupport.properties(directory.resolve("log.json").toString());
+        caching.setDkim(properties.getDkim());
+        caching.getResend().setCacheBytes(64L << 20);
+        FenixBenchmarkSupport.DiscardingLogService cachingLog = new FenixBenchmarkSupport.DiscardingLogService(caching, objectMapper);
+        cachingMailService = new FenixMailService(new FenixBenchmarkSupport.SerializingMailSender(), caching,
+                cachingLog, FenixMailMetrics.noop(), new FenixSendTracer(caching, objectMapper),
+                new FenixDkimSigner(caching), FenixMailTenants.none());
+        cachingMailService.sendJson(withAttachment);
+        cachedMessageId = cachingLog.getLastMessageId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FenixBenchmarkSupport.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public boolean plainText() {
+        return fenixMailService.sendJson(plain);
+    }
+
+    @Benchmark
+    public boolean html() {
+        return fenixMailService.sendJson(html);
+    }
+
+    @Benchmark
+    public boolean htmlWithAttachment() {
+        return fenixMailService.sendJson(withAttachment);
+    }
+
+    @Benchmark
+    public boolean resendWithAttachment() {
+        return cachingMailService.resend(cachedMessageId);
+    }
+}
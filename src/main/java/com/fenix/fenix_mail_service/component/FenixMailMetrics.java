@@ -0,0 +1,225 @@
+package com.fenix.fenix_mail_service.component;
+
+import com.fenix.fenix_mail_service.model.FenixEmailOutcome;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Micrometer instrumentation of the Fenix Mail Service.
+ * <p>
+ * All meters are registered once, when this class is created, and the recording methods only take
+ * primitive values, so the send and log paths neither allocate tags nor look up meters per call.
+ * Failure counters per SMTP reply code are registered the first time a code is seen and then
+ * cached in an array indexed by the code.
+ * </p>
+ *
+ * <p><b>Meters:</b></p>
+ * <ul>
+ *     <li>{@code fenix.mail.send} (timer, tag {@code outcome=success|failure}): Time to build and send an email, with a percentile histogram.</li>
+ *     <li>{@code fenix.mail.send.failures} (counter, tag {@code reply.code}): Failed sends by SMTP reply code, {@code unknown} when no reply was received.</li>
+ *     <li>{@code fenix.mail.send.retries} (counter): Sends retried after a transient failure.</li>
+ *     <li>{@code fenix.mail.message.size} (distribution summary, bytes): Size of the transmitted messages.</li>
+ *     <li>{@code fenix.mail.smtp.connect} (timer): Time to open an SMTP connection, including greeting, {@code EHLO}, {@code STARTTLS} and authentication.</li>
+ *     <li>{@code fenix.mail.smtp.transmit} (timer): Time of one SMTP mail transaction, from {@code MAIL FROM} to the final reply.</li>
+ *     <li>{@code fenix.mail.log.write} (timer): Time to write log entries to the log file.</li>
+ *     <li>{@code fenix.mail.log.file.size} (gauge, bytes): Size of the log file after the last write.</li>
+ *     <li>{@code fenix.mail.queue.wait} (timer): Time emails waited in the scheduler lanes before a worker took them.</li>
+ *     <li>{@code fenix.mail.dropped} (counter, tag {@code outcome=expired|shed|throttled}): Emails dropped because
+ *         their deadline had passed, because they were shed under overload or because their tenant's quota was used up.</li>
+ * </ul>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>The bean is created by {@link com.fenix.fenix_mail_service.configuration.FenixMailConfig} with the
+ *         application's {@link MeterRegistry}, or with Micrometer's global registry if there is none.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+public class FenixMailMetrics {
+
+    private static final int MAX_REPLY_CODE = 599;
+
+    private final MeterRegistry registry;
+    private final Timer sendSuccess;
+    private final Timer sendFailure;
+    private final DistributionSummary messageSize;
+    private final Timer connect;
+    private final Timer transmit;
+    private final Timer logWrite;
+    private final Timer queueWait;
+    private final Counter expired;
+    private final Counter shed;
+    private final Counter throttled;
+    private final Counter retries;
+    private final AtomicLong logFileSize = new AtomicLong();
+    private final AtomicReferenceArray<Counter> failures = new AtomicReferenceArray<>(MAX_REPLY_CODE + 1);
+
+    public FenixMailMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.sendSuccess = Timer.builder("fenix.mail.send")
+                .description("Time to build and send an email")
+                .tag("outcome", "success")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.sendFailure = Timer.builder("fenix.mail.send")
+                .description("Time to build and send an email")
+                .tag("outcome", "failure")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.messageSize = DistributionSummary.builder("fenix.mail.message.size")
+                .description("Size of the transmitted messages")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.connect = Timer.builder("fenix.mail.smtp.connect")
+                .description("Time to open and set up an SMTP connection")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.transmit = Timer.builder("fenix.mail.smtp.transmit")
+                .description("Time of one SMTP mail transaction")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.logWrite = Timer.builder("fenix.mail.log.write")
+                .description("Time to write email log entries")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("fenix.mail.log.file.size", logFileSize, AtomicLong::get)
+                .description("Size of the email log file")
+                .baseUnit("bytes")
+                .register(registry);
+        this.queueWait = Timer.builder("fenix.mail.queue.wait")
+                .description("Time emails waited in the scheduler lanes")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.expired = Counter.builder("fenix.mail.dropped")
+                .description("Emails dropped without being sent")
+                .tag("outcome", "expired")
+                .register(registry);
+        this.shed = Counter.builder("fenix.mail.dropped")
+                .description("Emails dropped without being sent")
+                .tag("outcome", "shed")
+                .register(registry);
+        this.throttled = Counter.builder("fenix.mail.dropped")
+                .description("Emails dropped without being sent")
+                .tag("outcome", "throttled")
+                .register(registry);
+        this.retries = Counter.builder("fenix.mail.send.retries")
+                .description("Sends retried after a transient failure")
+                .register(registry);
+    }
+
+    /**
+     * Returns metrics that are recorded nowhere, for components created outside of Spring.
+     */
+    public static FenixMailMetrics noop() {
+        return new FenixMailMetrics(new CompositeMeterRegistry());
+    }
+
+    /**
+     * Records a completed send.
+     *
+     * @param nanos The duration of the send in nanoseconds.
+     * @param success Whether the email was sent.
+     */
+    public void recordSend(long nanos, boolean success) {
+        (success ? sendSuccess : sendFailure).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a failed send by its SMTP reply code.
+     *
+     * @param replyCode The SMTP reply code, or {@code 0} if no reply was received.
+     */
+    public void recordFailure(int replyCode) {
+        int code = replyCode > 0 && replyCode <= MAX_REPLY_CODE ? replyCode : 0;
+        Counter counter = failures.get(code);
+        if (counter == null) {
+            counter = Counter.builder("fenix.mail.send.failures")
+                    .description("Failed sends by SMTP reply code")
+                    .tag("reply.code", code == 0 ? "unknown" : Integer.toString(code))
+                    .register(registry);
+            failures.compareAndSet(code, null, counter);
+        }
+        counter.increment();
+    }
+
+    /**
+     * Records the size of a transmitted message.
+     *
+     * @param bytes The number of bytes sent as message data.
+     */
+    public void recordMessageSize(long bytes) {
+        messageSize.record(bytes);
+    }
+
+    /**
+     * Records the time taken to open an SMTP connection.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void recordConnect(long nanos) {
+        connect.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the time taken by one SMTP mail transaction.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void recordTransmit(long nanos) {
+        transmit.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a write to the log file.
+     *
+     * @param nanos The duration of the write in nanoseconds.
+     * @param fileSize The size of the log file after the write, in bytes.
+     */
+    public void recordLogWrite(long nanos, long fileSize) {
+        logWrite.record(nanos, TimeUnit.NANOSECONDS);
+        logFileSize.set(fileSize);
+    }
+
+    /**
+     * Records the time an email waited in a scheduler lane.
+     *
+     * @param nanos The wait in nanoseconds.
+     */
+    public void recordQueueWait(long nanos) {
+        queueWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts an email dropped without being sent.
+     *
+     * @param outcome {@code EXPIRED}, {@code SHED} or {@code THROTTLED}; other outcomes are ignored.
+     */
+    public void recordDropped(FenixEmailOutcome outcome) {
+        if (outcome == FenixEmailOutcome.EXPIRED) {
+            expired.increment();
+        } else if (outcome == FenixEmailOutcome.SHED) {
+            shed.increment();
+        } else if (outcome == FenixEmailOutcome.THROTTLED) {
+            throttled.increment();
+        }
+    }
+
+    /**
+     * Counts a send that is retried after a transient failure.
+     */
+    public void recordRetry() {
+        retries.increment();
+    }
+}
@@ -1,9 +1,14 @@
 package com.fenix.fenix_mail_service.component;
 
+import com.fenix.fenix_mail_service.model.FenixDkimAlgorithm;
+import com.fenix.fenix_mail_service.transport.FenixTransportEngine;
 import lombok.*;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Configuration properties for the Fenix Mail Service.
  * <p>
@@ -24,6 +29,18 @@ import org.springframework.stereotype.Component;
  *     <li>{@code starttlsEnable}: A flag indicating whether STARTTLS is enabled for secure connections.</li>
  *     <li>{@code fromAddress}: The default sender email address.</li>
  *     <li>{@code logPath}: The file path where email logs are stored.</li>
+ *     <li>{@code scheduler}: Settings of the priority lane scheduler (worker count, lane weights, starvation limit).</li>
+ *     <li>{@code schedule}: Settings of delayed and scheduled sends (journal path, tick length, release rate).</li>
+ *     <li>{@code bulk}: Settings of streaming bulk sends (in-flight limit, checkpoint interval).</li>
+ *     <li>{@code reactive}: Settings of the reactive facade (requests in flight, log batching).</li>
+ *     <li>{@code transport}: Selection and tuning of the SMTP client engine.</li>
+ *     <li>{@code tracing}: Settings of per-phase send tracing and slow-send capture.</li>
+ *     <li>{@code outbox}: Settings of the partitioned outbox shared by several nodes (spool path, partitions, leases).</li>
+ *     <li>{@code dkim}: Settings of DKIM signing (domain, selector, private key, signed headers).</li>
+ *     <li>{@code routing}: Settings of per-domain routing (routes by domain, parallelism, direct-to-MX delivery).</li>
+ *     <li>{@code logCache}: Settings of the in-memory cache of recent email log entries (capacity, preloading).</li>
+ *     <li>{@code resend}: Settings of the cache of serialized messages and of send retries (cache size, retention, attempts).</li>
+ *     <li>{@code tenants}: Per-tenant sender settings and bulkheads (from-address, relay, credentials, concurrency, quota).</li>
  * </ul>
  *
  * <p><b>Integration:</b></p>
@@ -44,6 +61,45 @@ import org.springframework.stereotype.Component;
  * fenix.spring.mail.starttls.enable=true
  * fenix.spring.mail.from-address=no-reply@example.com
  * fenix.spring.mail.log-path=/var/logs/mail_log.json
+ * fenix.spring.mail.scheduler.workers=4
+ * fenix.spring.mail.scheduler.critical-weight=8
+ * fenix.spring.mail.scheduler.transactional-weight=4
+ * fenix.spring.mail.scheduler.bulk-weight=1
+ * fenix.spring.mail.scheduler.starvation-threshold-millis=5000
+ * fenix.spring.mail.scheduler.bulk-shed-wait-millis=60000
+ * fenix.spring.mail.scheduler.transactional-shed-wait-millis=300000
+ * fenix.spring.mail.schedule.journal-path=/var/spool/fenix/schedule.ndjson
+ * fenix.spring.mail.schedule.tick-millis=100
+ * fenix.spring.mail.schedule.max-release-per-tick=200
+ * fenix.spring.mail.bulk.max-in-flight=1000
+ * fenix.spring.mail.bulk.checkpoint-interval=1000
+ * fenix.spring.mail.reactive.concurrency=16
+ * fenix.spring.mail.reactive.log-batch-size=100
+ * fenix.spring.mail.reactive.log-batch-millis=200
+ * fenix.spring.mail.transport.engine=NIO
+ * fenix.spring.mail.transport.nio-threads=2
+ * fenix.spring.mail.transport.max-connections=8
+ * fenix.spring.mail.tracing.slow-threshold-millis=1000
+ * fenix.spring.mail.tracing.dump-path=/var/logs/fenix_slow_sends.ndjson
+ * fenix.spring.mail.outbox.enabled=true
+ * fenix.spring.mail.outbox.spool-path=/mnt/shared/fenix/outbox
+ * fenix.spring.mail.outbox.partitions=16
+ * fenix.spring.mail.dkim.enabled=true
+ * fenix.spring.mail.dkim.domain=example.com
+ * fenix.spring.mail.dkim.selector=mail2026
+ * fenix.spring.mail.dkim.private-key-path=/etc/fenix/dkim/mail2026.pem
+ * fenix.spring.mail.routing.enabled=true
+ * fenix.spring.mail.routing.relays[partner.example]=relay.partner.example:2525
+ * fenix.spring.mail.routing.relays[example.org]=mx
+ * fenix.spring.mail.log-cache.capacity=1000000
+ * fenix.spring.mail.resend.cache-bytes=268435456
+ * fenix.spring.mail.resend.retry-attempts=2
+ * fenix.spring.mail.tenants.shop.from-address=orders@shop.example.com
+ * fenix.spring.mail.tenants.shop.host=smtp.shop.example.com
+ * fenix.spring.mail.tenants.shop.max-concurrent=8
+ * fenix.spring.mail.tenants.newsletter.max-concurrent=2
+ * fenix.spring.mail.tenants.newsletter.quota=10000
+ * fenix.spring.mail.tenants.newsletter.quota-period-millis=3600000
  * }</pre>
  *
  * <p><b>Author:</b> Fenix</p>
@@ -68,4 +124,296 @@ public class FenixMailProperties {
     private boolean starttlsEnable = false;
     private String fromAddress = "";
     private String logPath = "";
+    private Scheduler scheduler = new Scheduler();
+    private Schedule schedule = new Schedule();
+    private Bulk bulk = new Bulk();
+    private Reactive reactive = new Reactive();
+    private Transport transport = new Transport();
+    private Tracing tracing = new Tracing();
+    private Outbox outbox = new Outbox();
+    private Dkim dkim = new Dkim();
+    private Routing routing = new Routing();
+    private LogCache logCache = new LogCache();
+    private Resend resend = new Resend();
+    private Map<String, Tenant> tenants = new HashMap<>();
+
+    /**
+     * Settings of the {@link com.fenix.fenix_mail_service.service.FenixMailScheduler}.
+     * <p>
+     * {@code workers} bounds how many emails are handed to the SMTP transport concurrently.
+     * The lane weights control how that capacity is shared between the priority lanes, and
+     * {@code starvationThresholdMillis} is the longest time a lane with queued emails may go
+     * unserved before it is served once regardless of its weight.
+     * </p>
+     * <p>
+     * {@code bulkShedWaitMillis} and {@code transactionalShedWaitMillis} enable load shedding: while the
+     * expected wait of the lane is longer, new emails for it are rejected instead of queued. {@code 0}
+     * (the default) never sheds the lane.
+     * </p>
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @ToString
+    public static class Scheduler {
+        private int workers = 4;
+        private int criticalWeight = 8;
+        private int transactionalWeight = 4;
+        private int bulkWeight = 1;
+        private long starvationThresholdMillis = 5000;
+        private long bulkShedWaitMillis = 0;
+        private long transactionalShedWaitMillis = 0;
+    }
+
+    /**
+     * Settings of the {@link com.fenix.fenix_mail_service.service.FenixScheduledMailService}.
+     * <p>
+     * {@code journalPath} is the file where pending scheduled emails are persisted; when empty,
+     * scheduled emails are kept in memory only. {@code tickMillis} is the resolution of the timing
+     * wheel, {@code maxReleasePerTick} limits how many due emails are handed to the scheduler per
+     * tick, and {@code compactionThreshold} is the number of obsolete journal records after which
+     * the journal is rewritten.
+     * </p>
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @ToString
+    public static class Schedule {
+        private String journalPath = "";
+        private long tickMillis = 100;
+        private int maxReleasePerTick = 200;
+        private long compactionThreshold = 100_000;
+    }
+
+    /**
+     * Settings of the {@link com.fenix.fenix_mail_service.service.FenixBulkMailService}.
+     * <p>
+     * {@code maxInFlight} is the largest number of records read ahead of the checkpoint, which bounds
+     * the memory used by a bulk send. {@code checkpointInterval} is the number of completed records
+     * between two checkpoint writes.
+     * </p>
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @ToString
+    public static class Bulk {
+        private int maxInFlight = 1000;
+        private int checkpointInterval = 1000;
+    }
+
+    /**
+     * Settings of the {@link com.fenix.fenix_mail_service.service.FenixReactiveMailService}.
+     * <p>
+     * {@code concurrency} is the number of requests of one subscription submitted to the
+     * {@link com.fenix.fenix_mail_service.service.FenixMailScheduler} and not completed yet.
+     * Log entries are written in batches of at most {@code logBatchSize} entries, and a batch is
+     * written at the latest {@code logBatchMillis} after its first entry.
+     * </p>
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @ToString
+    public static class Reactive {
+        private int concurrency = 16;
+        private int logBatchSize = 100;
+        private long logBatchMillis = 200;
+    }
+
+    /**
+     * Settings of the SMTP client engine.
+     * <p>
+     * {@code engine} selects between the blocking Jakarta Mail transport and the
+     * {@link com.fenix.fenix_mail_service.transport.FenixNioSmtpClient}. The remaining settings apply to
+     * the NIO engine: {@code nioThreads} selector threads serve up to {@code maxConnections} pooled
+     * connections, which are closed after {@code idleTimeoutMillis} without use. The connect and read
+     * timeouts bound how long the client waits for the server.
+     * </p>
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @ToString
+    public static class Transport {
+        private FenixTransportEngine engine = FenixTransportEngine.JAVAMAIL;
+        private int nioThreads = 2;
+        private int maxConnections = 8;
+        private long connectTimeoutMillis = 10_000;
+        private long readTimeoutMillis = 60_000;
+        private long idleTimeoutMillis = 30_000;
+    }
+
+    /**
+     * Settings of the {@link FenixSendTracer}.
+     * <p>
+     * When {@code enabled}, every send is timed per phase and kept in a ring of the last {@code ringSize}
+     * traces. Sends taking at least {@code slowThresholdMillis} are also kept with their subject and
+     * recipient count, up to {@code slowCapacity} of them, and appended as JSON lines to
+     * {@code dumpPath} if it is set.
+     * </p>
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @ToString
+    public static class Tracing {
+        private boolean enabled = true;
+        private long slowThresholdMillis = 1000;
+        private int ringSize = 1024;
+        private int slowCapacity = 100;
+        private String dumpPath = "";
+    }
+
+    /**
+     * Settings of the {@link com.fenix.fenix_mail_service.service.FenixOutboxService}.
+     * <p>
+     * When {@code enabled}, queued emails are spooled under {@code spoolPath}, a directory shared by all
+     * nodes, and hashed into {@code partitions} partitions. Every node must use the same number of partitions.
+     * A node identifies itself with {@code nodeId} (host name and process id by default), holds each of its
+     * partitions for {@code leaseMillis} and renews the leases every {@code heartbeatMillis}; the lease should
+     * be at least three heartbeats long. Pending emails are picked up every {@code pollMillis}, with at most
+     * {@code batchSize} emails of a node in flight.
+     * </p>
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @ToString
+    public static class Outbox {
+        private boolean enabled = false;
+        private String spoolPath = "";
+        private int partitions = 16;
+        private String nodeId = "";
+        private long leaseMillis = 15_000;
+        private long heartbeatMillis = 5_000;
+        private long pollMillis = 500;
+        private int batchSize = 100;
+    }
+
+    /**
+     * Settings of the {@link FenixDkimSigner}.
+     * <p>
+     * When {@code enabled}, every message is signed for {@code domain} with the key published under
+     * {@code selector}. {@code privateKeyPath} points to an unencrypted PKCS#8 PEM file whose key type matches
+     * {@code algorithm}. {@code signedHeaders} is the colon-separated list of headers covered by the signature,
+     * and up to {@code bodyHashCacheSize} body hashes are kept for bodies sent more than once.
+     * </p>
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @ToString
+    public static class Dkim {
+        private boolean enabled = false;
+        private String domain = "";
+        private String selector = "";
+        private String privateKeyPath = "";
+        private FenixDkimAlgorithm algorithm = FenixDkimAlgorithm.RSA_SHA256;
+        private String signedHeaders = "from:to:cc:reply-to:subject:date:message-id:mime-version:content-type:content-transfer-encoding";
+        private int bodyHashCacheSize = 1024;
+    }
+
+    /**
+     * Settings of the {@link com.fenix.fenix_mail_service.transport.FenixRoutingMailSender}.
+     * <p>
+     * When {@code enabled}, every message is sent in one SMTP transaction per recipient domain. {@code relays}
+     * maps a domain to its route, and all other domains use {@code defaultRoute}. A route is {@code relay} (the
+     * configured {@code host}/{@code port}), {@code mx} (the domain's mail exchangers on {@code mxPort}) or a
+     * {@code host:port}. Up to {@code parallelism} domains are sent at the same time by the {@code JAVAMAIL}
+     * engine, and as many {@code MX} lookups run at the same time with either engine. Lookups are cached for
+     * {@code mxCacheMillis}.
+     * </p>
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @ToString
+    public static class Routing {
+        private boolean enabled = false;
+        private String defaultRoute = "relay";
+        private Map<String, String> relays = new HashMap<>();
+        private int parallelism = 16;
+        private int mxPort = 25;
+        private long mxCacheMillis = 300_000;
+    }
+
+    /**
+     * Settings of the in-memory cache of recent entries in the {@link com.fenix.fenix_mail_service.service.FenixLogService}.
+     * <p>
+     * The cache keeps one row for each of the last {@code capacity} recipients logged, at about 20 bytes per row,
+     * and answers {@code countEmailLogs} and {@code scanEmailLogs} without reading the log file. A capacity of
+     * {@code 0} disables it. With {@code preload}, the newest entries of the log file are loaded at startup.
+     * </p>
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @ToString
+    public static class LogCache {
+        private int capacity = 100_000;
+        private boolean preload = true;
+    }
+
+    /**
+     * Settings of the cache of serialized messages kept for retries and resends.
+     * <p>
+     * With {@code cacheBytes} above {@code 0}, every built message is serialized once and its bytes are kept
+     * on the heap, up to {@code cacheBytes} in total and for {@code cacheRetentionMillis} after they were stored;
+     * the oldest messages are evicted first. {@code 0} (the default) disables the cache.
+     * </p>
+     * <p>
+     * An email of the {@link com.fenix.fenix_mail_service.service.FenixMailScheduler} failing with an SMTP {@code 4xx}
+     * reply, or without reply before its data was sent, is queued again up to {@code retryAttempts} times, after
+     * {@code retryBackoffMillis}, doubled for every further attempt. An email that some recipient received, or may
+     * have received, is never sent again.
+     * {@code 0} (the default) never retries.
+     * </p>
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @ToString
+    public static class Resend {
+        private long cacheBytes = 0;
+        private long cacheRetentionMillis = 600_000;
+        private int retryAttempts = 0;
+        private long retryBackoffMillis = 1_000;
+    }
+
+    /**
+     * Settings of one tenant in {@code tenants}, applied by the {@link com.fenix.fenix_mail_service.component.FenixMailTenants}.
+     * <p>
+     * Emails whose request names the tenant are sent with its own {@code JavaMailSender}, built from the
+     * global settings with every non-null field of the tenant applied on top: {@code fromAddress}, the relay
+     * ({@code host}, {@code port}), the credentials ({@code username}, {@code password}, {@code auth},
+     * {@code starttlsEnable}) and {@code maxConnections}, the size of the connection pool of the {@code NIO} engine.
+     * </p>
+     * <p>
+     * Each tenant is a bulkhead: at most {@code maxConcurrent} of its emails are built and sent at a time. With a
+     * {@code quota} above {@code 0}, at most {@code quota} emails are sent per {@code quotaPeriodMillis}. Emails of
+     * the {@link com.fenix.fenix_mail_service.service.FenixMailScheduler} over these limits wait in the tenant's
+     * lanes until a slot or the next period is free. A direct send waits up to {@code acquireTimeoutMillis} for a
+     * free slot before it is shed, and is throttled while the quota is used up.
+     * </p>
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @ToString
+    public static class Tenant {
+        private String fromAddress;
+        private String host;
+        private Integer port;
+        private String username;
+        private String password;
+        private Boolean auth;
+        private Boolean starttlsEnable;
+        private Integer maxConnections;
+        private int maxConcurrent = 4;
+        private long acquireTimeoutMillis = 5_000;
+        private int quota = 0;
+        private long quotaPeriodMillis = 60_000;
+    }
 }
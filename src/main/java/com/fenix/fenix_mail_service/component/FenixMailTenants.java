@@ -0,0 +1,224 @@
+package com.fenix.fenix_mail_service.component;
+
+import lombok.Getter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the senders and bulkheads of the tenants configured in {@code fenix.spring.mail.tenants}.
+ * <p>
+ * Every tenant has its own {@link JavaMailSender}, so its relay, credentials and connection pool are
+ * separate from those of the other tenants. Every tenant also has a {@link Bulkhead} that limits how
+ * many of its emails are in progress and how many it may send per quota period. A campaign of one tenant
+ * therefore uses up only that tenant's connections, slots and quota.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * FenixMailTenants.Bulkhead bulkhead = fenixMailTenants.get("shop");
+ * if (bulkhead.tryAcquire()) {
+ *     try {
+ *         bulkhead.getMailSender().send(message);
+ *     } finally {
+ *         bulkhead.release();
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>The bean is created by {@link com.fenix.fenix_mail_service.configuration.FenixMailConfig}, which builds
+ *         the senders of the tenants the same way as the default {@code JavaMailSender}.</li>
+ *     <li>Emails without a tenant use the default sender and no bulkhead.</li>
+ *     <li>The {@link com.fenix.fenix_mail_service.service.FenixMailScheduler} gives every tenant its own lanes and
+ *         hands at most {@code maxConcurrent} emails of a tenant, and none while its quota is used up, to its
+ *         workers, so one tenant's backlog cannot occupy the workers of the others.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+public class FenixMailTenants implements DisposableBean {
+
+    private final Map<String, Bulkhead> bulkheads = new HashMap<>();
+
+    /**
+     * Creates the bulkheads of the configured tenants.
+     *
+     * @param fenixMailProperties The properties holding the tenant settings.
+     * @param mailSenders The sender of each configured tenant, by tenant name.
+     */
+    public FenixMailTenants(FenixMailProperties fenixMailProperties, Map<String, JavaMailSender> mailSenders) {
+        fenixMailProperties.getTenants().forEach((name, tenant) -> {
+            String fromAddress = tenant.getFromAddress() != null ? tenant.getFromAddress() : fenixMailProperties.getFromAddress();
+            bulkheads.put(name, new Bulkhead(name, fromAddress, mailSenders.get(name), tenant));
+        });
+    }
+
+    /**
+     * Returns tenants that hold no bulkhead, for components created outside of Spring without tenants.
+     */
+    public static FenixMailTenants none() {
+        return new FenixMailTenants(new FenixMailProperties(), Map.of());
+    }
+
+    /**
+     * Returns the bulkhead of a tenant.
+     *
+     * @param name The tenant name, as configured under {@code fenix.spring.mail.tenants}.
+     * @return The bulkhead of the tenant.
+     * @throws IllegalArgumentException If no tenant of that name is configured.
+     */
+    public Bulkhead get(String name) {
+        Bulkhead bulkhead = bulkheads.get(name);
+        if (bulkhead == null) {
+            throw new IllegalArgumentException("Unknown tenant: " + name);
+        }
+        return bulkhead;
+    }
+
+    /**
+     * Checks the tenant named by a request before it is logged or queued.
+     *
+     * @param name The tenant name, or {@code null} for the default sender.
+     * @throws IllegalArgumentException If a name is given and no tenant of that name is configured.
+     */
+    public void check(String name) {
+        if (name != null) {
+            get(name);
+        }
+    }
+
+    /**
+     * Returns the names of the configured tenants.
+     */
+    public Set<String> getNames() {
+        return Set.copyOf(bulkheads.keySet());
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            if (bulkhead.mailSender instanceof DisposableBean disposable) {
+                disposable.destroy();
+            }
+        }
+    }
+
+    /**
+     * Sender and limits of one tenant.
+     * <p>
+     * A send takes a slot with {@link #tryAcquire()} or {@link #tryAcquireNow()}, then a unit of quota with
+     * {@link #tryConsumeQuota()}, and gives the slot back with {@link #release()} when it is done. The quota is
+     * counted in fixed windows of {@code quotaPeriodMillis}.
+     * </p>
+     */
+    public static final class Bulkhead {
+        @Getter
+        private final String name;
+        @Getter
+        private final String fromAddress;
+        @Getter
+        private final JavaMailSender mailSender;
+        @Getter
+        private final int maxConcurrent;
+        @Getter
+        private final int quota;
+        private final long quotaPeriodMillis;
+        private final long acquireTimeoutMillis;
+        private final Semaphore permits;
+        private long windowStart;
+        private int windowSent;
+
+        private Bulkhead(String name, String fromAddress, JavaMailSender mailSender, FenixMailProperties.Tenant tenant) {
+            this.name = name;
+            this.fromAddress = fromAddress;
+            this.mailSender = mailSender;
+            this.maxConcurrent = Math.max(1, tenant.getMaxConcurrent());
+            this.quota = Math.max(0, tenant.getQuota());
+            this.quotaPeriodMillis = Math.max(1, tenant.getQuotaPeriodMillis());
+            this.acquireTimeoutMillis = Math.max(0, tenant.getAcquireTimeoutMillis());
+            this.permits = new Semaphore(maxConcurrent);
+        }
+
+        /**
+         * Takes a send slot, waiting up to {@code acquireTimeoutMillis} for one to be released.
+         *
+         * @return {@code false} if all {@code maxConcurrent} slots stayed taken, or if the thread was interrupted.
+         */
+        public boolean tryAcquire() {
+            try {
+                return permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        /**
+         * Takes a send slot if one is free, without waiting.
+         *
+         * @return {@code false} if all {@code maxConcurrent} slots are taken.
+         */
+        public boolean tryAcquireNow() {
+            return permits.tryAcquire();
+        }
+
+        /**
+         * Gives back a slot taken with {@link #tryAcquire()} or {@link #tryAcquireNow()}.
+         */
+        public void release() {
+            permits.release();
+        }
+
+        /**
+         * Counts one email against the quota of the current period.
+         *
+         * @return {@code false} if the quota of the current period is used up; nothing is counted then.
+         */
+        public synchronized boolean tryConsumeQuota() {
+            if (quota == 0) {
+                return true;
+            }
+            long now = System.currentTimeMillis();
+            if (now - windowStart >= quotaPeriodMillis) {
+                windowStart = now - (now % quotaPeriodMillis);
+                windowSent = 0;
+            }
+            if (windowSent >= quota) {
+                return false;
+            }
+            windowSent++;
+            return true;
+        }
+
+        /**
+         * Returns whether the quota of the current period is used up, without counting anything.
+         */
+        public synchronized boolean isThrottled() {
+            return quota > 0 && System.currentTimeMillis() - windowStart < quotaPeriodMillis && windowSent >= quota;
+        }
+
+        /**
+         * Returns the time left until the current quota period ends and the quota is available again.
+         */
+        public long getMillisUntilQuotaReset() {
+            long now = System.currentTimeMillis();
+            return quotaPeriodMillis - (now % quotaPeriodMillis);
+        }
+
+        /**
+         * Returns the number of send slots currently free.
+         */
+        public int getAvailableSlots() {
+            return permits.availablePermits();
+        }
+    }
+}
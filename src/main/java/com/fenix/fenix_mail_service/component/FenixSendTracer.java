@@ -0,0 +1,287 @@
+package com.fenix.fenix_mail_service.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.fenix_mail_service.model.FenixEmailRequest;
+import com.fenix.fenix_mail_service.model.FenixSendPhase;
+import com.fenix.fenix_mail_service.model.FenixSendTrace;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-phase tracing of sends with capture of slow sends.
+ * <p>
+ * A send is traced between {@link #begin()} and {@link #end(boolean, FenixEmailRequest)}. In between,
+ * the code of every phase calls {@link #mark(FenixSendPhase)} when the phase is done, which adds the
+ * time since the previous mark to that phase. The state of the current send lives in a reusable
+ * per-thread object, so tracing costs a few {@code System.nanoTime} calls and array writes per send
+ * and allocates nothing. Marks on a thread without a traced send (for example from the transports
+ * when they are used directly) do nothing.
+ * </p>
+ *
+ * <p><b>Storage:</b></p>
+ * <ul>
+ *     <li>Every finished trace is written into a fixed ring of the last {@code ringSize} traces. Writers claim
+ *         a slot with an atomic counter and guard it with a version stamp, so recording never takes a lock.</li>
+ *     <li>Sends taking at least {@code slowThresholdMillis} are also captured with their subject and recipient
+ *         count, kept in memory (the last {@code slowCapacity} of them) and appended as JSON lines to
+ *         {@code dumpPath} when it is set.</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * @Autowired
+ * private FenixSendTracer sendTracer;
+ *
+ * public void printSlowSends() {
+ *     for (FenixSendTrace trace : sendTracer.getSlowTraces()) {
+ *         System.out.println(trace.getSubject() + " " + trace.getPhaseNanos());
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>A ring slot that is overwritten while it is read is skipped, so {@link #getRecentTraces()} may return
+ *         fewer traces than the ring holds under heavy load.</li>
+ *     <li>A dump file that cannot be written does not fail the send; the trace is still available from
+ *         {@link #getSlowTraces()}.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@Component
+public class FenixSendTracer {
+
+    private static final FenixSendPhase[] PHASES = FenixSendPhase.values();
+    private static final ThreadLocal<Trace> CURRENT = ThreadLocal.withInitial(Trace::new);
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long slowThresholdNanos;
+    private final int slowCapacity;
+    private final Path dumpPath;
+
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicLongArray versions;
+    private final long[] startedAt;
+    private final long[] totals;
+    private final long[] phases;
+    private final boolean[] successes;
+    private final ArrayDeque<FenixSendTrace> slowTraces = new ArrayDeque<>();
+
+    public FenixSendTracer(FenixMailProperties fenixMailProperties, ObjectMapper objectMapper) {
+        FenixMailProperties.Tracing settings = fenixMailProperties.getTracing();
+        this.objectMapper = objectMapper;
+        this.enabled = settings.isEnabled();
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(settings.getSlowThresholdMillis());
+        this.slowCapacity = Math.max(0, settings.getSlowCapacity());
+        this.dumpPath = settings.getDumpPath() == null || settings.getDumpPath().isBlank() ? null : Path.of(settings.getDumpPath());
+
+        int size = Integer.highestOneBit(Math.max(1, settings.getRingSize() - 1)) << 1;
+        this.mask = size - 1;
+        this.versions = new AtomicLongArray(size);
+        this.startedAt = new long[size];
+        this.totals = new long[size];
+        this.phases = new long[size * PHASES.length];
+        this.successes = new boolean[size];
+    }
+
+    /**
+     * Starts tracing a send on the current thread. Nested calls are counted and only the outermost
+     * {@code begin}/{@code end} pair is traced.
+     */
+    public void begin() {
+        if (!enabled) {
+            return;
+        }
+        Trace trace = CURRENT.get();
+        if (trace.depth++ > 0) {
+            return;
+        }
+        trace.wallStart = System.currentTimeMillis();
+        trace.start = System.nanoTime();
+        trace.last = trace.start;
+        trace.excluded = 0;
+        Arrays.fill(trace.phases, 0);
+    }
+
+    /**
+     * Ends the phase of the send traced on the current thread, attributing the time since the previous mark to it.
+     *
+     * @param phase The phase that just finished.
+     */
+    public static void mark(FenixSendPhase phase) {
+        Trace trace = CURRENT.get();
+        if (trace.depth == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        trace.phases[phase.ordinal()] += Math.max(0, now - trace.last - trace.excluded);
+        trace.last = now;
+        trace.excluded = 0;
+    }
+
+    /**
+     * Adds time spent on a phase inside another phase, such as reading an attachment while the message is
+     * transmitted. The time is not counted again by the next {@link #mark(FenixSendPhase)}.
+     *
+     * @param phase The phase the time belongs to.
+     * @param nanos The time spent in nanoseconds.
+     */
+    public static void addNested(FenixSendPhase phase, long nanos) {
+        Trace trace = CURRENT.get();
+        if (trace.depth == 0) {
+            return;
+        }
+        trace.phases[phase.ordinal()] += nanos;
+        trace.excluded += nanos;
+    }
+
+    /**
+     * Returns whether a send is being traced on the current thread.
+     */
+    public static boolean isTracing() {
+        return CURRENT.get().depth > 0;
+    }
+
+    /**
+     * Ends the send traced on the current thread and records it.
+     *
+     * @param success Whether the email was sent.
+     * @param request The request that was sent, used to describe slow sends (may be null if it was never built).
+     */
+    public void end(boolean success, FenixEmailRequest request) {
+        if (!enabled) {
+            return;
+        }
+        Trace trace = CURRENT.get();
+        if (trace.depth == 0 || --trace.depth > 0) {
+            return;
+        }
+        long total = System.nanoTime() - trace.start;
+
+        long sequence = cursor.getAndIncrement();
+        int slot = (int) (sequence & mask);
+        versions.set(slot, 2 * sequence + 1);
+        VarHandle.storeStoreFence();
+        startedAt[slot] = trace.wallStart;
+        totals[slot] = total;
+        successes[slot] = success;
+        System.arraycopy(trace.phases, 0, phases, slot * PHASES.length, PHASES.length);
+        versions.set(slot, 2 * sequence + 2);
+
+        if (total >= slowThresholdNanos) {
+            FenixSendTrace slow = snapshot(trace.wallStart, total, trace.phases, success);
+            if (request != null) {
+                slow.setSubject(request.getSubject());
+                slow.setRecipients(request.getTo() == null ? 0 : request.getTo().size());
+            }
+            captureSlow(slow);
+        }
+    }
+
+    /**
+     * Returns the traces of the most recent sends, newest first.
+     *
+     * @return Up to {@code ringSize} traces, without subject and recipients.
+     */
+    public List<FenixSendTrace> getRecentTraces() {
+        long end = cursor.get();
+        long start = Math.max(0, end - (mask + 1));
+        List<FenixSendTrace> traces = new ArrayList<>((int) (end - start));
+        long[] copy = new long[PHASES.length];
+        for (long sequence = end - 1; sequence >= start; sequence--) {
+            int slot = (int) (sequence & mask);
+            long version = versions.get(slot);
+            if (version != 2 * sequence + 2) {
+                continue;
+            }
+            long wallStart = startedAt[slot];
+            long total = totals[slot];
+            boolean success = successes[slot];
+            System.arraycopy(phases, slot * PHASES.length, copy, 0, PHASES.length);
+            VarHandle.loadLoadFence();
+            if (versions.get(slot) == version) {
+                traces.add(snapshot(wallStart, total, copy, success));
+            }
+        }
+        return traces;
+    }
+
+    /**
+     * Returns the captured slow sends, oldest first.
+     *
+     * @return Up to {@code slowCapacity} traces of sends that took at least {@code slowThresholdMillis}.
+     */
+    public List<FenixSendTrace> getSlowTraces() {
+        synchronized (slowTraces) {
+            return new ArrayList<>(slowTraces);
+        }
+    }
+
+    private void captureSlow(FenixSendTrace trace) {
+        synchronized (slowTraces) {
+            if (slowCapacity > 0) {
+                if (slowTraces.size() == slowCapacity) {
+                    slowTraces.pollFirst();
+                }
+                slowTraces.addLast(trace);
+            }
+            if (dumpPath != null) {
+                try {
+                    byte[] line = objectMapper.writeValueAsBytes(trace);
+                    byte[] record = Arrays.copyOf(line, line.length + 1);
+                    record[line.length] = '\n';
+                    Files.write(dumpPath, record, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                } catch (IOException e) {
+                    // the trace stays available in memory
+                }
+            }
+        }
+    }
+
+    private static FenixSendTrace snapshot(long wallStart, long total, long[] source, boolean success) {
+        Map<FenixSendPhase, Long> phaseNanos = new EnumMap<>(FenixSendPhase.class);
+        for (FenixSendPhase phase : PHASES) {
+            phaseNanos.put(phase, source[phase.ordinal()]);
+        }
+        FenixSendTrace trace = new FenixSendTrace();
+        trace.setStartedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(wallStart), ZoneId.systemDefault()));
+        trace.setTotalNanos(total);
+        trace.setPhaseNanos(phaseNanos);
+        trace.setSuccess(success);
+        return trace;
+    }
+
+    /**
+     * State of the send traced on one thread.
+     */
+    private static final class Trace {
+        private final long[] phases = new long[PHASES.length];
+        private int depth;
+        private long wallStart;
+        private long start;
+        private long last;
+        private long excluded;
+    }
+}
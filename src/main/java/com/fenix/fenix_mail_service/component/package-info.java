@@ -7,9 +7,13 @@
  * and components required for the proper functioning of the email service.
  * </p>
  *
- * <p><b>Key Class:</b></p>
+ * <p><b>Key Classes:</b></p>
  * <ul>
  *     <li>{@link com.fenix.fenix_mail_service.component.FenixMailProperties}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.component.FenixMailMetrics}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.component.FenixSendTracer}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.component.FenixDkimSigner}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.component.FenixMailTenants}</li>
  * </ul>
  *
  * <p><b>FenixMailProperties:</b></p>
@@ -21,6 +25,23 @@
  *     <li><b>Logging:</b> Path to the file where email logs are stored.</li>
  * </ul>
  *
+ * <p><b>FenixMailMetrics:</b></p>
+ * Micrometer instrumentation shared by the services and transports: send latency by outcome,
+ * failures by SMTP reply code, message size, SMTP connect and transaction timings, log write
+ * latency and log file size.
+ *
+ * <p><b>FenixSendTracer:</b></p>
+ * Times each phase of a send into a lock-free ring of recent traces and captures sends slower than
+ * a threshold with their full phase breakdown.
+ *
+ * <p><b>FenixDkimSigner:</b></p>
+ * Adds a {@code DKIM-Signature} header to built messages with a parsed, cached private key, streamed
+ * body hashing and a cache of body hashes for bodies sent more than once.
+ *
+ * <p><b>FenixMailTenants:</b></p>
+ * The sender of every configured tenant together with its bulkhead: a limit of concurrent sends and a
+ * send quota per period, so that one tenant cannot use up the capacity of the others.
+ *
  * <p><b>Integration:</b></p>
  * <p>
  * The {@link FenixMailProperties} class is annotated with {@code @ConfigurationProperties},
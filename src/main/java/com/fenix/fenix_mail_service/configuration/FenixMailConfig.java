@@ -1,13 +1,27 @@
 package com.fenix.fenix_mail_service.configuration;
 
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
 import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import com.fenix.fenix_mail_service.component.FenixMailTenants;
+import com.fenix.fenix_mail_service.transport.FenixDnsMxResolver;
+import com.fenix.fenix_mail_service.transport.FenixJavaMailSender;
+import com.fenix.fenix_mail_service.transport.FenixMxResolver;
+import com.fenix.fenix_mail_service.transport.FenixNioMailSender;
+import com.fenix.fenix_mail_service.transport.FenixNioSmtpClient;
+import com.fenix.fenix_mail_service.transport.FenixRoutingMailSender;
+import com.fenix.fenix_mail_service.transport.FenixTransportEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -23,6 +37,9 @@ import java.util.Properties;
  *     <li>Reads email-related configuration properties from the application configuration file.</li>
  *     <li>Configures a {@link JavaMailSender} bean to handle email-sending functionality.</li>
  *     <li>Supports additional SMTP settings such as authentication and STARTTLS.</li>
+ *     <li>Selects the SMTP client engine (blocking Jakarta Mail or non-blocking NIO with pipelining).</li>
+ *     <li>Provides the {@link FenixMailMetrics} bean, bound to the application's Micrometer registry.</li>
+ *     <li>Provides the {@link FenixMailTenants} bean with a separate sender for every configured tenant.</li>
  * </ul>
  *
  * <p><b>Dependencies:</b></p>
@@ -77,6 +94,39 @@ public class FenixMailConfig {
 
     private final FenixMailProperties fenixMailProperties;
 
+    /**
+     * Provides the Micrometer instrumentation of the mail service.
+     * <p>
+     * The meters are registered in the application's {@link MeterRegistry} (for example the one
+     * created by Spring Boot Actuator). Without one, Micrometer's global registry is used, which
+     * discards measurements unless registries are added to it.
+     * </p>
+     *
+     * @param meterRegistry The application's meter registry, if any.
+     * @return The {@link FenixMailMetrics} used by the services and transports.
+     */
+    @Bean
+    public FenixMailMetrics fenixMailMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new FenixMailMetrics(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    /**
+     * Provides the resolver of mail exchangers used by direct-to-MX routes.
+     * <p>
+     * The default resolver queries DNS. To replace it, for example with a stub that sends every domain to
+     * a local SMTP server in tests, declare another {@link FenixMxResolver} bean annotated with
+     * {@link org.springframework.context.annotation.Primary @Primary}. This configuration is picked up by
+     * component scanning, so bean conditions such as {@code @ConditionalOnMissingBean} would depend on the
+     * order in which configurations are read and are not used here.
+     * </p>
+     *
+     * @return A {@link FenixDnsMxResolver} caching lookups for {@code fenix.spring.mail.routing.mx-cache-millis}.
+     */
+    @Bean
+    public FenixMxResolver fenixMxResolver() {
+        return new FenixDnsMxResolver(fenixMailProperties.getRouting().getMxCacheMillis());
+    }
+
     /**
      * Configures and provides a JavaMailSender bean for the application.
      * <p>
@@ -88,7 +138,10 @@ public class FenixMailConfig {
      * <p>
      * The method performs the following steps:
      * <ul>
-     *   <li>Instantiates a {@link JavaMailSenderImpl} object.</li>
+     *   <li>Instantiates a {@link FenixJavaMailSender} object, or a {@link FenixNioMailSender} backed by a
+     *       {@link FenixNioSmtpClient} when {@code fenix.spring.mail.transport.engine} is {@code NIO}.
+     *       With {@code fenix.spring.mail.routing.enabled}, a {@link FenixRoutingMailSender} is created instead,
+     *       which sends one transaction per recipient domain with the selected engine.</li>
      *   <li>Sets the SMTP server host, port, username, and password based on the properties
      *       defined in {@link FenixMailProperties}.</li>
      *   <li>Sets the default encoding for email messages.</li>
@@ -118,11 +171,71 @@ public class FenixMailConfig {
      * be injected into other components or services for sending emails.
      * </p>
      *
+     * @param fenixMailMetrics The metrics receiving SMTP connection and transaction measurements.
+     * @param fenixMxResolver The resolver used for domains routed directly to their mail exchangers.
      * @return A fully configured {@link JavaMailSender} instance ready for sending emails.
      */
     @Bean
-    public JavaMailSender javaMailSender() {
-        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+    public JavaMailSender javaMailSender(FenixMailMetrics fenixMailMetrics, FenixMxResolver fenixMxResolver) {
+        return createMailSender(fenixMailProperties, fenixMailMetrics, fenixMxResolver);
+    }
+
+    /**
+     * Provides the senders and bulkheads of the tenants configured in {@code fenix.spring.mail.tenants}.
+     * <p>
+     * The sender of each tenant is built like the default {@link JavaMailSender}, from a copy of the global
+     * properties with the tenant's relay, credentials and connection pool size applied. Tenants therefore
+     * never share SMTP connections with each other or with the default sender.
+     * </p>
+     *
+     * @param fenixMailMetrics The metrics receiving SMTP connection and transaction measurements.
+     * @param fenixMxResolver The resolver used for domains routed directly to their mail exchangers.
+     * @return The {@link FenixMailTenants}, empty if no tenant is configured.
+     */
+    @Bean
+    public FenixMailTenants fenixMailTenants(FenixMailMetrics fenixMailMetrics, FenixMxResolver fenixMxResolver) {
+        Map<String, JavaMailSender> mailSenders = new HashMap<>();
+        fenixMailProperties.getTenants().forEach((name, tenant) ->
+                mailSenders.put(name, createMailSender(tenantProperties(tenant), fenixMailMetrics, fenixMxResolver)));
+        return new FenixMailTenants(fenixMailProperties, mailSenders);
+    }
+
+    /**
+     * Returns the properties of a tenant's sender: the global connection settings with the tenant's applied.
+     */
+    private FenixMailProperties tenantProperties(FenixMailProperties.Tenant tenant) {
+        FenixMailProperties properties = new FenixMailProperties();
+        properties.setHost(tenant.getHost() != null ? tenant.getHost() : fenixMailProperties.getHost());
+        properties.setPort(tenant.getPort() != null ? tenant.getPort() : fenixMailProperties.getPort());
+        properties.setUsername(tenant.getUsername() != null ? tenant.getUsername() : fenixMailProperties.getUsername());
+        properties.setPassword(tenant.getPassword() != null ? tenant.getPassword() : fenixMailProperties.getPassword());
+        properties.setAuth(tenant.getAuth() != null ? tenant.getAuth() : fenixMailProperties.isAuth());
+        properties.setStarttlsEnable(tenant.getStarttlsEnable() != null ? tenant.getStarttlsEnable() : fenixMailProperties.isStarttlsEnable());
+        properties.setFromAddress(tenant.getFromAddress() != null ? tenant.getFromAddress() : fenixMailProperties.getFromAddress());
+        properties.setDefaultEncoding(fenixMailProperties.getDefaultEncoding());
+        properties.setLogPath(fenixMailProperties.getLogPath());
+        properties.setRouting(fenixMailProperties.getRouting());
+
+        FenixMailProperties.Transport shared = fenixMailProperties.getTransport();
+        FenixMailProperties.Transport transport = properties.getTransport();
+        transport.setEngine(shared.getEngine());
+        transport.setNioThreads(shared.getNioThreads());
+        transport.setMaxConnections(tenant.getMaxConnections() != null ? tenant.getMaxConnections() : shared.getMaxConnections());
+        transport.setConnectTimeoutMillis(shared.getConnectTimeoutMillis());
+        transport.setReadTimeoutMillis(shared.getReadTimeoutMillis());
+        transport.setIdleTimeoutMillis(shared.getIdleTimeoutMillis());
+        return properties;
+    }
+
+    private static JavaMailSender createMailSender(FenixMailProperties fenixMailProperties, FenixMailMetrics fenixMailMetrics,
+                                                   FenixMxResolver fenixMxResolver) {
+        JavaMailSenderImpl mailSender = fenixMailProperties.getRouting().isEnabled()
+                ? new FenixRoutingMailSender(fenixMailProperties, fenixMxResolver, fenixMailMetrics)
+                : fenixMailProperties.getTransport().getEngine() == FenixTransportEngine.NIO
+                ? new FenixNioMailSender(new FenixNioSmtpClient(fenixMailProperties.getHost(), fenixMailProperties.getPort(),
+                        fenixMailProperties.getUsername(), fenixMailProperties.getPassword(), fenixMailProperties.isAuth(),
+                        fenixMailProperties.isStarttlsEnable(), fenixMailProperties.getTransport(), fenixMailMetrics).start())
+                : new FenixJavaMailSender(fenixMailMetrics);
 
         mailSender.setHost(fenixMailProperties.getHost());
         mailSender.setPort(fenixMailProperties.getPort());
@@ -20,6 +20,7 @@
  *     <li>Configures the SMTP server details, including host, port, username, and password.</li>
  *     <li>Enables optional features like STARTTLS and authentication.</li>
  *     <li>Sets default email properties such as encoding and sender address.</li>
+ *     <li>Builds a separate sender for every tenant in {@code fenix.spring.mail.tenants}.</li>
  * </ul>
  *
  * <p><b>Integration:</b></p>
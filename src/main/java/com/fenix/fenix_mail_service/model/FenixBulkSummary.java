@@ -0,0 +1,36 @@
+package com.fenix.fenix_mail_service.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Summarizes a bulk send of email requests read from a stream.
+ * <p>
+ * This class is returned by {@code FenixBulkMailService.sendFromStream} once every record of the
+ * input has been processed.
+ * </p>
+ *
+ * <p><b>Fields:</b></p>
+ * <ul>
+ *     <li>{@code skipped}: Records skipped because they were already processed according to the checkpoint.</li>
+ *     <li>{@code sent}: Records that were successfully sent.</li>
+ *     <li>{@code failed}: Records that were valid but could not be sent.</li>
+ *     <li>{@code invalid}: Records that could not be read, failed validation or named an unknown tenant.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class FenixBulkSummary {
+    private long skipped;
+    private long sent;
+    private long failed;
+    private long invalid;
+}
@@ -0,0 +1,25 @@
+package com.fenix.fenix_mail_service.model;
+
+/**
+ * Defines the signing algorithms supported by the {@link com.fenix.fenix_mail_service.component.FenixDkimSigner}.
+ * <p>
+ * The algorithm is selected with {@code fenix.spring.mail.dkim.algorithm} and must match the type of
+ * the configured private key and of the public key published in DNS for the selector.
+ * </p>
+ *
+ * <p><b>Algorithms:</b></p>
+ * <ul>
+ *     <li>{@code RSA_SHA256}: {@code rsa-sha256} from RFC 6376, signed with an RSA key. This is the default and is
+ *         understood by every verifier.</li>
+ *     <li>{@code ED25519_SHA256}: {@code ed25519-sha256} from RFC 8463. Much cheaper to sign, but not yet verified
+ *         everywhere, so it is usually published next to an RSA selector.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+public enum FenixDkimAlgorithm {
+    RSA_SHA256,
+    ED25519_SHA256
+}
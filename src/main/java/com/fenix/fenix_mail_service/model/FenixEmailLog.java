@@ -23,6 +23,11 @@ import java.util.List;
  *     <li>{@code body}: The body content of the email.</li>
  *     <li>{@code sentAt}: The timestamp when the email was sent.</li>
  *     <li>{@code success}: A flag indicating whether the email was successfully sent.</li>
+ *     <li>{@code outcome}: How the handling of the email ended ({@code SENT}, {@code FAILED}, {@code EXPIRED},
+ *         {@code SHED} or {@code THROTTLED}); {@code null} in entries written before outcomes were recorded.</li>
+ *     <li>{@code tenant}: The tenant that sent the email, or {@code null} for the global sender.</li>
+ *     <li>{@code messageId}: The {@code Message-ID} of the sent message, which identifies it for a resend; {@code null}
+ *         if the email was not sent and its message was not cached.</li>
  * </ul>
  *
  * <p><b>Usage:</b></p>
@@ -33,6 +38,7 @@ import java.util.List;
  * log.setBody("This is the email content.");
  * log.setSentAt(LocalDateTime.now());
  * log.setSuccess(true);
+ * log.setOutcome(FenixEmailOutcome.SENT);
  *
  * System.out.println(log);
  * }</pre>
@@ -44,7 +50,8 @@ import java.util.List;
  *     "subject": "Test Subject",
  *     "body": "This is the email content.",
  *     "sentAt": "2025-01-12T10:15:30",
- *     "success": true
+ *     "success": true,
+ *     "outcome": "SENT"
  * }
  * </pre>
  *
@@ -62,4 +69,7 @@ public class FenixEmailLog {
     private String body;
     private LocalDateTime sentAt;
     private boolean success;
+    private FenixEmailOutcome outcome;
+    private String tenant;
+    private String messageId;
 }
@@ -0,0 +1,31 @@
+package com.fenix.fenix_mail_service.model;
+
+/**
+ * Defines how the handling of an email ended, as recorded in its {@link FenixEmailLog}.
+ * <p>
+ * Besides sent and failed emails, the service drops emails that can no longer be useful before any
+ * work is spent on them, and records why they were dropped.
+ * </p>
+ *
+ * <p><b>Outcomes:</b></p>
+ * <ul>
+ *     <li>{@code SENT}: The email was accepted by the mail server.</li>
+ *     <li>{@code FAILED}: Building or sending the email failed.</li>
+ *     <li>{@code EXPIRED}: The {@code deadline} of the request had passed, so the email was dropped before it was
+ *         built or sent.</li>
+ *     <li>{@code SHED}: The email was rejected because of overload, by the scheduler before it was queued or
+ *         because all send slots of its tenant stayed taken.</li>
+ *     <li>{@code THROTTLED}: The send quota of the email's tenant for the current period was used up.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+public enum FenixEmailOutcome {
+    SENT,
+    FAILED,
+    EXPIRED,
+    SHED,
+    THROTTLED
+}
@@ -0,0 +1,32 @@
+package com.fenix.fenix_mail_service.model;
+
+/**
+ * Defines the priority lanes used when scheduling emails for delivery.
+ * <p>
+ * Every {@link FenixEmailRequest} is placed into exactly one lane. Lanes share the available
+ * SMTP capacity using weighted fair queuing, so that high-priority mail (for example password
+ * resets or one-time codes) is not delayed by large bulk campaigns.
+ * </p>
+ *
+ * <p><b>Lanes:</b></p>
+ * <ul>
+ *     <li>{@code CRITICAL}: Security-sensitive mail that must go out immediately (OTP codes, password resets).</li>
+ *     <li>{@code TRANSACTIONAL}: Mail triggered by a user action (receipts, notifications). This is the default.</li>
+ *     <li>{@code BULK}: Newsletters, campaigns and other high-volume, latency-tolerant mail.</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * FenixEmailRequest request = new FenixEmailRequest();
+ * request.setPriority(FenixEmailPriority.CRITICAL);
+ * }</pre>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+public enum FenixEmailPriority {
+    CRITICAL,
+    TRANSACTIONAL,
+    BULK
+}
@@ -8,6 +8,7 @@ import lombok.Setter;
 import lombok.ToString;
 
 import java.io.File;
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -25,6 +26,11 @@ import java.util.List;
  *     <li>{@code content}: The body content of the email (required, must not be null).</li>
  *     <li>{@code isHtml}: A flag indicating whether the email content is HTML or plain text (default is false).</li>
  *     <li>{@code attachment}: An optional file to attach to the email.</li>
+ *     <li>{@code priority}: The scheduling lane of the email (default is {@link FenixEmailPriority#TRANSACTIONAL}).</li>
+ *     <li>{@code deadline}: An optional instant after which the email is no longer useful and is dropped
+ *         instead of sent, for example for one-time codes and login links.</li>
+ *     <li>{@code tenant}: The optional tenant sending the email, one of {@code fenix.spring.mail.tenants}; its
+ *         sender, from-address and limits are used instead of the global ones.</li>
  * </ul>
  *
  * <p><b>Validation:</b></p>
@@ -41,6 +47,7 @@ import java.util.List;
  * request.setContent("<p>This is a test email.</p>");
  * request.setHtml(true);
  * request.setAttachment(new File("/path/to/file.pdf"));
+ * request.setDeadline(Instant.now().plus(Duration.ofMinutes(5)));
  *
  * System.out.println(request);
  * }</pre>
@@ -52,7 +59,10 @@ import java.util.List;
  *     "subject": "Test Email",
  *     "content": "This is the email content.",
  *     "isHtml": true,
- *     "attachment": "/path/to/file.pdf"
+ *     "attachment": "/path/to/file.pdf",
+ *     "priority": "TRANSACTIONAL",
+ *     "deadline": "2026-10-18T10:20:30Z",
+ *     "tenant": "shop"
  * }
  * </pre>
  *
@@ -83,4 +93,11 @@ public class FenixEmailRequest {
 
     private boolean isHtml;
     private File attachment;
+
+    @NotNull
+    private FenixEmailPriority priority = FenixEmailPriority.TRANSACTIONAL;
+
+    private Instant deadline;
+
+    private String tenant;
 }
@@ -0,0 +1,51 @@
+package com.fenix.fenix_mail_service.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a filter over the recent email log entries held in memory.
+ * <p>
+ * This class is passed to the count and scan methods of the {@code FenixLogService}. Every field is
+ * optional; a field left {@code null} does not restrict the result, so an empty query matches every
+ * row in the cache.
+ * </p>
+ *
+ * <p><b>Fields:</b></p>
+ * <ul>
+ *     <li>{@code from}: The earliest send time to include (inclusive).</li>
+ *     <li>{@code to}: The send time at which to stop (exclusive).</li>
+ *     <li>{@code success}: Only successful ({@code true}) or only failed ({@code false}) sends.</li>
+ *     <li>{@code recipient}: A recipient address, compared ignoring case.</li>
+ *     <li>{@code domain}: A recipient domain, compared ignoring case.</li>
+ *     <li>{@code subject}: An exact subject, compared by hash.</li>
+ * </ul>
+ *
+ * <p><b>Example Usage:</b></p>
+ * <pre>{@code
+ * FenixLogQuery query = new FenixLogQuery();
+ * query.setFrom(LocalDateTime.now().minusHours(1));
+ * query.setDomain("example.com");
+ * query.setSuccess(false);
+ * }</pre>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class FenixLogQuery {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Boolean success;
+    private String recipient;
+    private String domain;
+    private String subject;
+}
@@ -0,0 +1,53 @@
+package com.fenix.fenix_mail_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Represents the email log entries appended after a given offset of the log file.
+ * <p>
+ * This class is returned by the change feed of the Fenix Mail Service. A consumer keeps the
+ * {@code nextOffset} of the last tail it processed and passes it back on the next poll, so that only
+ * the entries written in between are read and parsed.
+ * </p>
+ *
+ * <p><b>Fields:</b></p>
+ * <ul>
+ *     <li>{@code entries}: The log entries appended after the requested offset, in file order.</li>
+ *     <li>{@code nextOffset}: The byte offset to resume from on the next poll.</li>
+ * </ul>
+ *
+ * <p><b>Example JSON Representation:</b></p>
+ * <pre>
+ * {
+ *     "entries": [
+ *         {
+ *             "recipients": ["example@example.com"],
+ *             "subject": "Welcome",
+ *             "body": "Hello!",
+ *             "sentAt": "2026-10-18T10:15:30",
+ *             "success": true
+ *         }
+ *     ],
+ *     "nextOffset": 48213
+ * }
+ * </pre>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class FenixLogTail {
+    private List<FenixEmailLog> entries;
+    private long nextOffset;
+}
@@ -0,0 +1,30 @@
+package com.fenix.fenix_mail_service.model;
+
+/**
+ * Defines the phases of a send that are timed by the {@link com.fenix.fenix_mail_service.component.FenixSendTracer}.
+ *
+ * <p><b>Phases:</b></p>
+ * <ul>
+ *     <li>{@code VALIDATION}: Checking the arguments of {@code send}.</li>
+ *     <li>{@code MIME_BUILD}: Building the MIME message, and encoding it before it is transmitted.</li>
+ *     <li>{@code ATTACHMENT}: Reading the attachment file, including reads made while the message is encoded or transmitted.</li>
+ *     <li>{@code DKIM_SIGN}: Hashing the body and signing the message, when DKIM signing is enabled.</li>
+ *     <li>{@code SMTP_CONNECT}: Opening the SMTP connection (greeting, {@code EHLO}, {@code STARTTLS}, authentication).
+ *         Only measured by the {@code JAVAMAIL} engine; the {@code NIO} engine reuses pooled connections.</li>
+ *     <li>{@code SMTP_DATA}: The SMTP mail transaction, from {@code MAIL FROM} to the final reply, and closing the connection.</li>
+ *     <li>{@code LOG_WRITE}: Writing the log entry with {@code saveEmailLog}.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+public enum FenixSendPhase {
+    VALIDATION,
+    MIME_BUILD,
+    ATTACHMENT,
+    DKIM_SIGN,
+    SMTP_CONNECT,
+    SMTP_DATA,
+    LOG_WRITE
+}
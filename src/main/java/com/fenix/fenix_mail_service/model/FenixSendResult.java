@@ -0,0 +1,46 @@
+package com.fenix.fenix_mail_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Represents the outcome of sending a single email from a batch or stream of requests.
+ * <p>
+ * This class is emitted once per input record by the bulk and streaming APIs of the Fenix Mail
+ * Service, so that callers can correlate every request with its result without holding the whole
+ * batch in memory.
+ * </p>
+ *
+ * <p><b>Fields:</b></p>
+ * <ul>
+ *     <li>{@code record}: The zero-based position of the request in its input.</li>
+ *     <li>{@code success}: A flag indicating whether the email was successfully sent.</li>
+ *     <li>{@code error}: The reason of the failure, or {@code null} if the email was sent.</li>
+ * </ul>
+ *
+ * <p><b>Example JSON Representation:</b></p>
+ * <pre>
+ * {
+ *     "record": 41,
+ *     "success": false,
+ *     "error": "to: must not be empty"
+ * }
+ * </pre>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class FenixSendResult {
+    private long record;
+    private boolean success;
+    private String error;
+}
@@ -0,0 +1,57 @@
+package com.fenix.fenix_mail_service.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Represents the timing of a single send, broken down by {@link FenixSendPhase}.
+ * <p>
+ * Instances are snapshots created by the {@link com.fenix.fenix_mail_service.component.FenixSendTracer}
+ * when traces are read or when a slow send is captured; recording a send does not create them.
+ * </p>
+ *
+ * <p><b>Fields:</b></p>
+ * <ul>
+ *     <li>{@code startedAt}: The time the send started.</li>
+ *     <li>{@code totalNanos}: The duration of the whole send in nanoseconds.</li>
+ *     <li>{@code phaseNanos}: The time spent in each phase in nanoseconds. Time outside of the listed phases
+ *         (for example creating the log entry) is only part of {@code totalNanos}.</li>
+ *     <li>{@code success}: A flag indicating whether the email was successfully sent.</li>
+ *     <li>{@code subject}: The subject of the email, only set for captured slow sends.</li>
+ *     <li>{@code recipients}: The number of recipients, only set for captured slow sends.</li>
+ * </ul>
+ *
+ * <p><b>Example JSON Representation:</b></p>
+ * <pre>
+ * {
+ *     "startedAt": "2026-10-18T10:15:30.123",
+ *     "totalNanos": 3120450000,
+ *     "phaseNanos": {"VALIDATION": 1200, "MIME_BUILD": 850000, "ATTACHMENT": 2400000,
+ *                    "SMTP_CONNECT": 3050000000, "SMTP_DATA": 61000000, "LOG_WRITE": 5100000},
+ *     "success": true,
+ *     "subject": "Monthly statement",
+ *     "recipients": 1
+ * }
+ * </pre>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class FenixSendTrace {
+    private LocalDateTime startedAt;
+    private long totalNanos;
+    private Map<FenixSendPhase, Long> phaseNanos;
+    private boolean success;
+    private String subject;
+    private int recipients;
+}
@@ -10,6 +10,15 @@
  * <ul>
  *     <li>{@link com.fenix.fenix_mail_service.model.FenixEmailRequest}</li>
  *     <li>{@link com.fenix.fenix_mail_service.model.FenixEmailLog}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.model.FenixEmailPriority}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.model.FenixSendResult}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.model.FenixBulkSummary}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.model.FenixSendPhase}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.model.FenixSendTrace}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.model.FenixDkimAlgorithm}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.model.FenixLogTail}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.model.FenixLogQuery}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.model.FenixEmailOutcome}</li>
  * </ul>
  *
  * <p><b>Class Descriptions:</b></p>
@@ -22,6 +31,7 @@
  *     <li>{@code content}: The body of the email (required).</li>
  *     <li>{@code isHtml}: Indicates whether the content is HTML or plain text.</li>
  *     <li>{@code attachment}: An optional file to attach to the email.</li>
+ *     <li>{@code priority}: The {@code FenixEmailPriority} lane used for scheduling.</li>
  * </ul>
  *
  * <p>Example usage:</p>
@@ -53,5 +63,30 @@
  * log.setSentAt(LocalDateTime.now());
  * log.setSuccess(true);
  * }</pre>
+ *
+ * <p><b>FenixEmailPriority:</b></p>
+ * Defines the delivery lanes ({@code CRITICAL}, {@code TRANSACTIONAL}, {@code BULK}) used by the
+ * mail scheduler to share SMTP capacity between urgent and high-volume mail.
+ *
+ * <p><b>FenixSendResult:</b></p>
+ * Represents the outcome of one record of a bulk or streaming send ({@code record}, {@code success}, {@code error}).
+ *
+ * <p><b>FenixBulkSummary:</b></p>
+ * Summarizes a bulk send with the number of skipped, sent, failed and invalid records.
+ *
+ * <p><b>FenixSendPhase / FenixSendTrace:</b></p>
+ * The timed phases of a send and a snapshot of one traced send with the time spent in each phase.
+ *
+ * <p><b>FenixDkimAlgorithm:</b></p>
+ * The DKIM signing algorithms ({@code RSA_SHA256}, {@code ED25519_SHA256}).
+ *
+ * <p><b>FenixLogTail:</b></p>
+ * The email log entries appended after a byte offset of the log file, with the offset to resume from.
+ *
+ * <p><b>FenixLogQuery:</b></p>
+ * A filter over the recent email log entries held in memory (time window, success, recipient, domain, subject).
+ *
+ * <p><b>FenixEmailOutcome:</b></p>
+ * How the handling of an email ended ({@code SENT}, {@code FAILED}, {@code EXPIRED}, {@code SHED}), recorded in its log entry.
  */
 package com.fenix.fenix_mail_service.model;
\ No newline at end of file
@@ -9,6 +9,7 @@
  *     <li>Adding optional attachments to emails.</li>
  *     <li>Logging email transactions into a JSON file for auditing and analysis.</li>
  *     <li>Configurable properties for SMTP server settings and email behavior.</li>
+ *     <li>Micrometer metrics for send latency, SMTP timings, failures by reply code and log writes.</li>
  * </ul>
  *
  * <p><b>Package Structure:</b></p>
@@ -17,6 +18,7 @@
  *     <li>{@link com.fenix.fenix_mail_service.configuration}: Provides Spring configuration classes, such as the {@code JavaMailSender} bean.</li>
  *     <li>{@link com.fenix.fenix_mail_service.model}: Includes data models for email requests and logs.</li>
  *     <li>{@link com.fenix.fenix_mail_service.service}: Implements core service functionality, including email sending and log management.</li>
+ *     <li>{@link com.fenix.fenix_mail_service.transport}: Provides the SMTP transport engines, including the non-blocking NIO client.</li>
  * </ul>
  *
  * <p><b>Integration Steps:</b></p>
@@ -0,0 +1,337 @@
+package com.fenix.fenix_mail_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import com.fenix.fenix_mail_service.model.FenixBulkSummary;
+import com.fenix.fenix_mail_service.model.FenixEmailRequest;
+import com.fenix.fenix_mail_service.model.FenixSendResult;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for sending large batches of emails from a stream of JSON records.
+ * <p>
+ * This class reads {@link FenixEmailRequest} records one line at a time from an NDJSON (newline-delimited
+ * JSON) input, parses each line with Jackson, validates the record as it arrives and submits it to
+ * the {@link FenixMailScheduler}. Memory use is bounded by {@code fenix.spring.mail.bulk.max-in-flight}
+ * regardless of the size of the input, because reading pauses whenever that many records are waiting
+ * to be sent.
+ * </p>
+ *
+ * <p><b>Results and Checkpoints:</b></p>
+ * <ul>
+ *     <li>Every non-blank line is one record, numbered from 0.</li>
+ *     <li>Every record produces one {@link FenixSendResult}, written as a JSON line to the optional
+ *         results stream as soon as the record is done.</li>
+ *     <li>If a checkpoint file is given, the number of leading records that are completely processed
+ *         is written to it every {@code fenix.spring.mail.bulk.checkpoint-interval} records and at the end.
+ *         Passing the same checkpoint file again skips those records, so a partially processed file
+ *         can be resumed.</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * @Autowired
+ * private FenixBulkMailService bulkMailService;
+ *
+ * public void sendCampaign() throws IOException {
+ *     try (InputStream in = Files.newInputStream(Path.of("/data/campaign.ndjson"));
+ *          OutputStream results = Files.newOutputStream(Path.of("/data/campaign.results.ndjson"))) {
+ *         FenixBulkSummary summary = bulkMailService.sendFromStream(in, results, Path.of("/data/campaign.checkpoint"));
+ *         System.out.println(summary);
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>Lines that are not a single valid JSON object, fail validation or name an unknown tenant are reported as
+ *         invalid and do not stop the batch. Reading resumes at the next line, so a malformed line never hides the
+ *         records after it.</li>
+ *     <li>If the input cannot be read, the batch stops with a {@link RuntimeException} once the records already
+ *         submitted are done; the checkpoint reflects the records processed up to that point.</li>
+ *     <li>The input stream is not closed; it belongs to the caller.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class FenixBulkMailService {
+
+    private final FenixMailScheduler fenixMailScheduler;
+    private final FenixMailProperties fenixMailProperties;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    /**
+     * Sends every email request read from the given NDJSON stream.
+     *
+     * @param in The stream of {@link FenixEmailRequest} JSON records (must not be null).
+     * @return A summary of the processed records.
+     * @throws RuntimeException If the stream cannot be read.
+     */
+    public FenixBulkSummary sendFromStream(InputStream in) {
+        return sendFromStream(in, null, null);
+    }
+
+    /**
+     * Sends every email request read from the given NDJSON stream, reporting per-record results and
+     * maintaining a resumable checkpoint.
+     *
+     * @param in The stream of {@link FenixEmailRequest} JSON records (must not be null).
+     * @param results An optional stream receiving one {@link FenixSendResult} JSON line per record.
+     * @param checkpoint An optional file holding the number of records already processed.
+     * @return A summary of the processed records.
+     * @throws RuntimeException If the stream, the results stream or the checkpoint cannot be read or written.
+     */
+    public FenixBulkSummary sendFromStream(InputStream in, OutputStream results, Path checkpoint) {
+        if (in == null) {
+            throw new IllegalArgumentException("Input stream must not be null.");
+        }
+
+        FenixMailProperties.Bulk settings = fenixMailProperties.getBulk();
+        long resumeFrom = readCheckpoint(checkpoint);
+        Progress progress = new Progress(Math.max(1, settings.getMaxInFlight()), resumeFrom, results, checkpoint,
+                Math.max(1, settings.getCheckpointInterval()));
+        progress.summary.setSkipped(resumeFrom);
+
+        ObjectReader reader = objectMapper.reader().with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        try {
+            InputStream input = new BufferedInputStream(in, 65536);
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long record = 0;
+            while (readLine(input, line)) {
+                if (isBlank(line)) {
+                    continue;
+                }
+                if (record < resumeFrom) {
+                    record++;
+                    continue;
+                }
+
+                progress.acquire();
+                JsonNode node;
+                try {
+                    node = reader.readTree(line.toByteArray());
+                } catch (JsonProcessingException e) {
+                    progress.complete(record++, Outcome.INVALID, e.getOriginalMessage());
+                    continue;
+                }
+                if (node == null || !node.isObject()) {
+                    progress.complete(record++, Outcome.INVALID, "Record is not a JSON object");
+                    continue;
+                }
+
+                FenixEmailRequest request;
+                try {
+                    request = objectMapper.treeToValue(node, FenixEmailRequest.class);
+                } catch (JsonProcessingException e) {
+                    progress.complete(record++, Outcome.INVALID, e.getOriginalMessage());
+                    continue;
+                }
+
+                Set<ConstraintViolation<FenixEmailRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    String error = violations.stream()
+                            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining(", "));
+                    progress.complete(record++, Outcome.INVALID, error);
+                    continue;
+                }
+
+                long current = record++;
+                CompletableFuture<Boolean> future;
+                try {
+                    future = fenixMailScheduler.submit(request);
+                } catch (IllegalArgumentException e) {
+                    progress.complete(current, Outcome.INVALID, e.getMessage());
+                    continue;
+                }
+                future.whenComplete((sent, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        progress.complete(current, Outcome.FAILED, cause.getMessage());
+                    } else {
+                        progress.complete(current, Boolean.TRUE.equals(sent) ? Outcome.SENT : Outcome.FAILED, null);
+                    }
+                });
+            }
+            progress.awaitAll();
+        } catch (IOException e) {
+            progress.awaitAll();
+            throw new RuntimeException("Failed to read email requests from stream", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while sending email requests from stream", e);
+        } finally {
+            progress.flush();
+        }
+        return progress.summary;
+    }
+
+    /**
+     * Reads the next line into {@code line}, without its line terminator.
+     *
+     * @return {@code false} at the end of the input.
+     */
+    private static boolean readLine(InputStream in, ByteArrayOutputStream line) throws IOException {
+        line.reset();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                return true;
+            }
+            line.write(b);
+        }
+        return line.size() > 0;
+    }
+
+    private static boolean isBlank(ByteArrayOutputStream line) {
+        for (byte b : line.toByteArray()) {
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long readCheckpoint(Path checkpoint) {
+        if (checkpoint == null || !Files.exists(checkpoint)) {
+            return 0;
+        }
+        try {
+            String value = Files.readString(checkpoint, StandardCharsets.UTF_8).trim();
+            return value.isEmpty() ? 0 : Long.parseLong(value);
+        } catch (IOException | NumberFormatException e) {
+            throw new RuntimeException("Failed to read checkpoint file", e);
+        }
+    }
+
+    private enum Outcome {
+        SENT,
+        FAILED,
+        INVALID
+    }
+
+    /**
+     * Tracks records between submission and completion.
+     * <p>
+     * A permit is taken for every record and only returned once all earlier records are done as well,
+     * so at most {@code window} records are ahead of the checkpoint at any time and their completion
+     * flags fit into a fixed ring.
+     * </p>
+     */
+    private final class Progress {
+        private final int window;
+        private final Semaphore permits;
+        private final boolean[] done;
+        private final OutputStream results;
+        private final Path checkpoint;
+        private final int checkpointInterval;
+        private final FenixBulkSummary summary = new FenixBulkSummary();
+        private long watermark;
+        private long lastCheckpoint;
+        private IOException writeFailure;
+
+        private Progress(int window, long watermark, OutputStream results, Path checkpoint, int checkpointInterval) {
+            this.window = window;
+            this.permits = new Semaphore(window);
+            this.done = new boolean[window];
+            this.watermark = watermark;
+            this.lastCheckpoint = watermark;
+            this.results = results;
+            this.checkpoint = checkpoint;
+            this.checkpointInterval = checkpointInterval;
+        }
+
+        private void acquire() throws InterruptedException {
+            permits.acquire();
+        }
+
+        private void awaitAll() {
+            permits.acquireUninterruptibly(window);
+            permits.release(window);
+        }
+
+        private synchronized void complete(long record, Outcome outcome, String error) {
+            switch (outcome) {
+                case SENT -> summary.setSent(summary.getSent() + 1);
+                case FAILED -> summary.setFailed(summary.getFailed() + 1);
+                case INVALID -> summary.setInvalid(summary.getInvalid() + 1);
+            }
+            if (results != null && writeFailure == null) {
+                try {
+                    results.write(objectMapper.writeValueAsBytes(new FenixSendResult(record, outcome == Outcome.SENT, error)));
+                    results.write('\n');
+                } catch (IOException e) {
+                    writeFailure = e;
+                }
+            }
+
+            done[(int) (record % window)] = true;
+            int advanced = 0;
+            while (done[(int) (watermark % window)]) {
+                done[(int) (watermark % window)] = false;
+                watermark++;
+                advanced++;
+            }
+            permits.release(advanced);
+            if (watermark - lastCheckpoint >= checkpointInterval) {
+                writeCheckpoint();
+            }
+        }
+
+        private synchronized void flush() {
+            writeCheckpoint();
+            try {
+                if (results != null && writeFailure == null) {
+                    results.flush();
+                }
+            } catch (IOException e) {
+                writeFailure = e;
+            }
+            if (writeFailure != null) {
+                throw new RuntimeException("Failed to write send results or checkpoint", writeFailure);
+            }
+        }
+
+        private void writeCheckpoint() {
+            if (checkpoint == null) {
+                return;
+            }
+            try {
+                Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+                Files.writeString(temp, Long.toString(watermark), StandardCharsets.UTF_8);
+                Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                lastCheckpoint = watermark;
+            } catch (IOException e) {
+                writeFailure = e;
+            }
+        }
+    }
+}
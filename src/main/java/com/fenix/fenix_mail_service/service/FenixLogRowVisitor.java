@@ -0,0 +1,43 @@
+package com.fenix.fenix_mail_service.service;
+
+/**
+ * Receives the rows of the in-memory email log cache that match a query.
+ * <p>
+ * A visitor is passed to {@link FenixLogService#scanEmailLogs(com.fenix.fenix_mail_service.model.FenixLogQuery,
+ * FenixLogRowVisitor)} and is called once per row, with the columns of the row as arguments, so that a scan
+ * creates no object per row. Every recipient of a logged email is a separate row.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * Map<String, Integer> failuresByDomain = new HashMap<>();
+ * logService.scanEmailLogs(query, (sentAt, success, recipient, domain, subjectHash) -> {
+ *     if (!success) {
+ *         failuresByDomain.merge(domain, 1, Integer::sum);
+ *     }
+ * });
+ * }</pre>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>The visitor is called while the cache is locked against writers and should return quickly.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@FunctionalInterface
+public interface FenixLogRowVisitor {
+
+    /**
+     * Receives one matching row.
+     *
+     * @param sentAt      The send time in epoch milliseconds, in the system time zone of the service.
+     * @param success     Whether the email was sent successfully.
+     * @param recipient   The recipient address in lower case, or {@code null} if the entry had no recipients.
+     * @param domain      The domain of the recipient, or {@code null} if the entry had no recipients.
+     * @param subjectHash The {@link String#hashCode()} of the subject, or {@code 0} if it had none.
+     */
+    void visit(long sentAt, boolean success, String recipient, String domain, int subjectHash);
+}
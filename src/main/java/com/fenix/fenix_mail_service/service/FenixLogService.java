@@ -1,18 +1,32 @@
 package com.fenix.fenix_mail_service.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
 import com.fenix.fenix_mail_service.component.FenixMailProperties;
 import com.fenix.fenix_mail_service.model.FenixEmailLog;
-import lombok.RequiredArgsConstructor;
+import com.fenix.fenix_mail_service.model.FenixLogQuery;
+import com.fenix.fenix_mail_service.model.FenixLogTail;
+import jakarta.annotation.PostConstruct;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Service class for managing email logs in the Fenix Mail Service.
@@ -27,19 +41,29 @@ import java.util.List;
  * <ul>
  *     <li>Logs email transactions into a JSON file.</li>
  *     <li>Reads email logs from the JSON file.</li>
+ *     <li>Publishes a change feed of new entries, by file offset and to in-process listeners.</li>
+ *     <li>Keeps the most recent entries in a columnar in-memory cache for fast recent-window queries.</li>
  *     <li>Handles JSON file creation and structured logging.</li>
  * </ul>
  *
  * <p><b>Key Methods:</b></p>
  * <ul>
  *     <li>{@link #saveEmailLog(FenixEmailLog)}: Saves a new email log entry into the log file.</li>
+ *     <li>{@link #saveEmailLogs(List)}: Saves a batch of email log entries with a single file write.</li>
  *     <li>{@link #readEmailLogs()}: Reads and returns all email log entries from the log file.</li>
+ *     <li>{@link #readEmailLogsFrom(long)}: Reads only the entries appended after a byte offset.</li>
+ *     <li>{@link #subscribe(long, FenixLogListener)}: Replays the entries after an offset to a listener and
+ *         then calls it for every new batch.</li>
+ *     <li>{@link #unsubscribe(FenixLogListener)}: Removes a listener.</li>
+ *     <li>{@link #countEmailLogs(FenixLogQuery)}: Counts the cached entries matching a query without touching disk.</li>
+ *     <li>{@link #scanEmailLogs(FenixLogQuery, FenixLogRowVisitor)}: Visits the cached entries matching a query.</li>
  * </ul>
  *
  * <p><b>Dependencies:</b></p>
  * <ul>
  *     <li>{@link FenixMailProperties}: Provides configuration for the log file path.</li>
  *     <li>{@link ObjectMapper}: Handles JSON serialization and deserialization.</li>
+ *     <li>{@link FenixMailMetrics}: Records the write latency and the size of the log file.</li>
  * </ul>
  *
  * <p><b>Usage Example:</b></p>
@@ -55,11 +79,27 @@ import java.util.List;
  *     List<FenixEmailLog> logs = logService.readEmailLogs();
  *     logs.forEach(System.out::println);
  * }
+ *
+ * public long exportNewEmailLogs(long offset) {
+ *     FenixLogTail tail = logService.readEmailLogsFrom(offset);
+ *     tail.getEntries().forEach(analytics::accept);
+ *     return tail.getNextOffset();
+ * }
  * }</pre>
  *
  * <p><b>Notes:</b></p>
  * <ul>
  *     <li>If the log file does not exist, {@link #readEmailLogs()} returns an empty list.</li>
+ *     <li>New entries are appended in place before the closing bracket of the JSON array, so the file stays
+ *         a valid array and the byte offset of an entry never changes. Existing log files are continued as they are.</li>
+ *     <li>Every append is forced to disk. Its start position is recorded in {@code <logPath>.lock} first, so an append
+ *         torn by a crash is rolled back by the next reader or writer instead of leaving the file unreadable.</li>
+ *     <li>Writers take an exclusive and readers a shared {@link FileChannel} lock on {@code <logPath>.lock}, so
+ *         several nodes can share one {@code logPath} and readers never see a partially written entry.</li>
+ *     <li>Offsets are only valid for the file they were read from; after the log file is deleted or replaced,
+ *         consumers start again from offset {@code 0}.</li>
+ *     <li>The cache holds the last {@code logCache.capacity} recipients saved by this process, preloaded from the
+ *         log file at startup. Entries written by other nodes sharing the {@code logPath} are not cached.</li>
  *     <li>Any errors during file operations throw a {@link RuntimeException} with the error details.</li>
  * </ul>
  *
@@ -68,30 +108,72 @@ import java.util.List;
  * <p><b>Since:</b> 2025-01-12</p>
  */
 @Service
-@RequiredArgsConstructor
 public class FenixLogService {
 
+    private static final TypeReference<List<FenixEmailLog>> LOG_TYPE = new TypeReference<>() {
+    };
+    private static final long NO_APPEND = -1;
+
     private final FenixMailProperties fenixMailProperties;
     private final ObjectMapper objectMapper;
+    private final FenixMailMetrics fenixMailMetrics;
+    private final List<FenixLogListener> listeners = new CopyOnWriteArrayList<>();
+    private final FenixLogCache logCache;
+
+    public FenixLogService(FenixMailProperties fenixMailProperties, ObjectMapper objectMapper,
+                           FenixMailMetrics fenixMailMetrics) {
+        this.fenixMailProperties = fenixMailProperties;
+        this.objectMapper = objectMapper;
+        this.fenixMailMetrics = fenixMailMetrics;
+        int capacity = fenixMailProperties.getLogCache().getCapacity();
+        this.logCache = capacity > 0 ? new FenixLogCache(capacity) : null;
+    }
+
+    /**
+     * Fills the in-memory cache with the newest entries of the log file.
+     * <p>
+     * Called once at startup when {@code logCache.preload} is set. The whole log file is read once, and
+     * only the last entries are kept. Call it directly when the service is created outside of Spring.
+     * </p>
+     *
+     * @throws RuntimeException If an {@link IOException} occurs while reading from the JSON file.
+     */
+    @PostConstruct
+    public void preloadLogCache() {
+        if (logCache == null || !fenixMailProperties.getLogCache().isPreload() || logCache.size() > 0) {
+            return;
+        }
+        List<FenixEmailLog> fenixEmailLogs = readEmailLogs();
+        int first = Math.max(0, fenixEmailLogs.size() - fenixMailProperties.getLogCache().getCapacity());
+        for (FenixEmailLog fenixEmailLog : fenixEmailLogs.subList(first, fenixEmailLogs.size())) {
+            logCache.add(fenixEmailLog);
+        }
+    }
 
     /**
      * Saves an email log to the JSON file specified in the application configuration.
      * <p>
-     * This method reads the current email logs from the JSON file, appends the new
-     * {@link FenixEmailLog} entry to the list, and writes the updated list back to the file.
+     * This method appends the new {@link FenixEmailLog} entry to the JSON array in the file, without
+     * reading or rewriting the entries already logged.
      * </p>
      *
      * <p><b>Steps performed:</b></p>
      * <ul>
-     *     <li>Reads the existing email logs from the JSON file using {@code readEmailLogs()}.</li>
-     *     <li>Adds the new email log entry to the list.</li>
-     *     <li>Writes the updated list to the JSON file located at the path specified
-     *         by {@code fenixMailProperties.getLogPath()}.</li>
+     *     <li>Locates the closing bracket of the JSON array at the end of the file located at the path
+     *         specified by {@code fenixMailProperties.getLogPath()}.</li>
+     *     <li>Records the position of the append in {@code <logPath>.lock} and forces it to disk.</li>
+     *     <li>Writes the new email log entry and a new closing bracket in its place, and forces them to disk.</li>
+     *     <li>Clears the recorded position, which marks the append as complete.</li>
+     *     <li>Adds the entry to the in-memory cache of recent entries.</li>
+     *     <li>Passes the entry to the listeners registered with {@link #subscribe(long, FenixLogListener)}.</li>
      * </ul>
      *
      * <p><b>Important Notes:</b></p>
      * <ul>
      *     <li>If the JSON file does not exist, it will be created.</li>
+     *     <li>Other processes writing to the same log file are excluded with a file lock for the whole update.</li>
+     *     <li>An append interrupted by a crash is rolled back by the next reader or writer, which cuts the file at
+     *         the recorded position and closes the array again; entries written completely are kept.</li>
      *     <li>If an error occurs during the write operation, a {@link RuntimeException} is thrown.</li>
      * </ul>
      *
@@ -105,16 +187,79 @@ public class FenixLogService {
      * @throws RuntimeException If an {@link IOException} occurs while writing to the JSON file.
      */
 
-    public void saveEmailLog(FenixEmailLog fenixEmailLog) {
-        List<FenixEmailLog> fenixEmailLogs = readEmailLogs();
+    public synchronized void saveEmailLog(FenixEmailLog fenixEmailLog) {
+        saveEmailLogs(List.of(fenixEmailLog));
+    }
 
-        fenixEmailLogs.add(fenixEmailLog);
+    /**
+     * Saves a batch of email logs to the JSON file specified in the application configuration.
+     * <p>
+     * This method behaves like {@link #saveEmailLog(FenixEmailLog)}, but appends the whole batch with
+     * a single file write. It is used by callers that complete many emails at a time.
+     * </p>
+     *
+     * @param batch The email log entries to be saved, in order (must not be null).
+     * @throws RuntimeException If an {@link IOException} occurs while writing to the JSON file.
+     */
+    public synchronized void saveEmailLogs(List<FenixEmailLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long nextOffset;
 
-        try {
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(fenixMailProperties.getLogPath()), fenixEmailLogs);
+        // the lock is taken on a separate file, closing any stream of a locked file would release the lock
+        try (FileChannel lockChannel = openLockChannel();
+             FileLock ignored = lockChannel.lock();
+             FileChannel channel = FileChannel.open(Paths.get(fenixMailProperties.getLogPath()),
+                     StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            repair(channel, lockChannel);
+            long end = closingBracket(channel);
+            long position = end < 0 ? 0 : lastNonWhitespace(channel, end) + 1;
+            boolean empty = end < 0 || byteAt(channel, position - 1) == '[';
+
+            // the entries are laid out like the default pretty printer does: "[ {...}, {...} ]"
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            if (end < 0) {
+                out.write('[');
+            }
+            for (FenixEmailLog fenixEmailLog : batch) {
+                if (!empty) {
+                    out.write(',');
+                }
+                out.write(' ');
+                out.write(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(fenixEmailLog));
+                empty = false;
+            }
+            out.write(' ');
+            out.write(']');
+
+            // the append overwrites the closing bracket, so its position is made durable first to roll a torn write back
+            writeAppendPosition(lockChannel, position, true);
+            ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+            channel.truncate(position + out.size());
+            channel.force(false);
+            writeAppendPosition(lockChannel, NO_APPEND, false);
+            nextOffset = position + out.size() - 2;
+            fenixMailMetrics.recordLogWrite(System.nanoTime() - start, position + out.size());
         } catch (IOException e) {
             throw new RuntimeException("Failed to write to JSON file", e);
         }
+
+        if (logCache != null) {
+            batch.forEach(logCache::add);
+        }
+        List<FenixEmailLog> entries = List.copyOf(batch);
+        for (FenixLogListener listener : listeners) {
+            try {
+                listener.onEntries(entries, nextOffset);
+            } catch (RuntimeException ignored) {
+                // a failing subscriber must not fail the send that produced the entry
+            }
+        }
     }
 
     /**
@@ -150,18 +295,322 @@ public class FenixLogService {
      * @throws RuntimeException If an {@link IOException} occurs while reading from the JSON file.
      */
 
-    public List<FenixEmailLog> readEmailLogs() {
+    public synchronized List<FenixEmailLog> readEmailLogs() {
         if (!Files.exists(Paths.get(fenixMailProperties.getLogPath()))) {
             return new ArrayList<>();
         }
 
-        try {
-            return objectMapper.readValue(
-                    new File(fenixMailProperties.getLogPath()), new TypeReference<>() {
-                    }
-            );
+        try (FileChannel lockChannel = openLockChannel();
+             FileLock ignored = lockForRead(lockChannel)) {
+            return objectMapper.readValue(new File(fenixMailProperties.getLogPath()), LOG_TYPE);
         } catch (IOException e) {
             throw new RuntimeException("Failed to read from JSON file", e);
         }
     }
+
+    /**
+     * Reads the email logs appended to the JSON file after the given byte offset.
+     * <p>
+     * This is the tail reader of the change feed, meant for consumers that poll the log from another
+     * process. Only the bytes between {@code offset} and the end of the array are read and parsed, so a
+     * poll costs time proportional to the new entries rather than to the whole history.
+     * </p>
+     *
+     * <p><b>Steps performed:</b></p>
+     * <ul>
+     *     <li>Locates the closing bracket of the JSON array at the end of the file.</li>
+     *     <li>Reads the bytes from {@code offset} up to the bracket and deserializes the entries in them.</li>
+     *     <li>Returns the entries together with the offset just after the last entry, which is where
+     *         the next appended entry will start.</li>
+     * </ul>
+     *
+     * <p><b>Important Notes:</b></p>
+     * <ul>
+     *     <li>Start with offset {@code 0}; afterwards only pass offsets returned by this service, since an
+     *         offset inside an entry cannot be parsed.</li>
+     *     <li>If the file does not exist, an empty tail with offset {@code 0} is returned.</li>
+     * </ul>
+     *
+     * @param offset The {@code nextOffset} of the previous tail, or {@code 0} to read from the beginning.
+     * @return The entries appended after {@code offset} and the offset to resume from.
+     * @throws IllegalArgumentException If {@code offset} lies outside of the JSON array in the file.
+     * @throws RuntimeException         If an {@link IOException} occurs while reading from the JSON file.
+     */
+    public synchronized FenixLogTail readEmailLogsFrom(long offset) {
+        Path logFile = Paths.get(fenixMailProperties.getLogPath());
+        if (!Files.exists(logFile)) {
+            if (offset != 0) {
+                throw new IllegalArgumentException("Offset " + offset + " is outside of the email log");
+            }
+            return new FenixLogTail(new ArrayList<>(), 0);
+        }
+
+        try (FileChannel lockChannel = openLockChannel();
+             FileLock ignored = lockForRead(lockChannel);
+             FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            return tail(offset, closingBracket(channel), channel);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read from JSON file", e);
+        }
+    }
+
+    /**
+     * Registers a listener for the email logs saved by this service.
+     * <p>
+     * The entries already in the file after {@code fromOffset} are passed to the listener first, then
+     * it is called after every {@link #saveEmailLog(FenixEmailLog)} and {@link #saveEmailLogs(List)}.
+     * Both steps happen while the service is locked, so no entry is missed or delivered twice.
+     * </p>
+     *
+     * <p><b>Important Notes:</b></p>
+     * <ul>
+     *     <li>Only entries saved by this process are delivered live. When several nodes share one
+     *         {@code logPath}, their entries are seen through {@link #readEmailLogsFrom(long)}.</li>
+     *     <li>Exceptions thrown by the listener during the replay are propagated to the caller and the listener
+     *         is not registered.</li>
+     * </ul>
+     *
+     * @param fromOffset The offset to replay from: {@code 0} for the whole log, a stored {@code nextOffset} to
+     *                   resume, or the {@code nextOffset} of {@code readEmailLogsFrom} for new entries only.
+     * @param listener   The listener to register (must not be null).
+     * @throws IllegalArgumentException If {@code fromOffset} lies outside of the JSON array in the file.
+     * @throws RuntimeException         If an {@link IOException} occurs while reading from the JSON file.
+     */
+    public synchronized void subscribe(long fromOffset, FenixLogListener listener) {
+        FenixLogTail tail = readEmailLogsFrom(fromOffset);
+        if (!tail.getEntries().isEmpty()) {
+            listener.onEntries(tail.getEntries(), tail.getNextOffset());
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener registered with {@link #subscribe(long, FenixLogListener)}.
+     *
+     * @param listener The listener to remove.
+     */
+    public void unsubscribe(FenixLogListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Counts the recent email logs matching a query.
+     * <p>
+     * The count is computed from the in-memory cache of the most recent entries, without reading the
+     * log file or deserializing any {@link FenixEmailLog}. Each recipient of an email is counted once,
+     * so the result is a number of deliveries.
+     * </p>
+     *
+     * <p><b>Important Notes:</b></p>
+     * <ul>
+     *     <li>Only the last {@code logCache.capacity} recipients are covered; older entries are only available
+     *         through {@link #readEmailLogs()}.</li>
+     *     <li>If the cache is disabled, {@code 0} is returned.</li>
+     * </ul>
+     *
+     * @param query The filter to apply (must not be null; an empty query matches every cached row).
+     * @return The number of cached rows matching the query.
+     */
+    public long countEmailLogs(FenixLogQuery query) {
+        return logCache == null ? 0 : logCache.count(query);
+    }
+
+    /**
+     * Passes every recent email log row matching a query to a visitor.
+     * <p>
+     * Like {@link #countEmailLogs(FenixLogQuery)}, this works on the in-memory cache only. The columns of
+     * each row are passed to the visitor as arguments, oldest row first, so that dashboards can aggregate
+     * millions of rows without creating an object per row.
+     * </p>
+     *
+     * @param query   The filter to apply (must not be null; an empty query matches every cached row).
+     * @param visitor The visitor called for each matching row (must not be null).
+     */
+    public void scanEmailLogs(FenixLogQuery query, FenixLogRowVisitor visitor) {
+        if (logCache != null) {
+            logCache.scan(query, visitor);
+        }
+    }
+
+    private FileChannel openLockChannel() throws IOException {
+        // a shared lock needs a readable channel, an exclusive one a writable channel
+        return FileChannel.open(Paths.get(fenixMailProperties.getLogPath() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private FenixLogTail tail(long offset, long end, FileChannel channel) throws IOException {
+        long next = end < 0 ? 0 : lastNonWhitespace(channel, end) + 1;
+        if (offset < 0 || offset > next) {
+            throw new IllegalArgumentException("Offset " + offset + " is outside of the email log");
+        }
+        if (offset == next) {
+            return new FenixLogTail(new ArrayList<>(), next);
+        }
+
+        // the range is wrapped in brackets after its leading separator, so it parses as an array of its own
+        int length = Math.toIntExact(next - offset);
+        byte[] bytes = new byte[length + 2];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, length);
+        while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position() - 1) >= 0) {
+            // read until the range is complete
+        }
+        int first = 1;
+        while (first <= length && (Character.isWhitespace(bytes[first]) || bytes[first] == '[' || bytes[first] == ',')) {
+            first++;
+        }
+        if (first > length) {
+            return new FenixLogTail(new ArrayList<>(), next);
+        }
+        bytes[first - 1] = '[';
+        bytes[length + 1] = ']';
+        return new FenixLogTail(objectMapper.readValue(bytes, first - 1, length + 3 - first, LOG_TYPE), next);
+    }
+
+    /**
+     * Takes the shared lock for a read, or the exclusive lock if an interrupted append has to be rolled back first.
+     */
+    private FileLock lockForRead(FileChannel lockChannel) throws IOException {
+        FileLock lock = lockChannel.lock(0, Long.MAX_VALUE, true);
+        if (readAppendPosition(lockChannel) == NO_APPEND) {
+            return lock;
+        }
+        lock.release();
+        lock = lockChannel.lock();
+        try (FileChannel channel = FileChannel.open(Paths.get(fenixMailProperties.getLogPath()),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            repair(channel, lockChannel);
+        } catch (IOException | RuntimeException e) {
+            lock.release();
+            throw e;
+        }
+        return lock;
+    }
+
+    /**
+     * Restores a log file left behind by an interrupted append. Must be called under the exclusive lock.
+     * <p>
+     * If an append position is recorded and the bytes after it are not a complete tail, the file is cut at that
+     * position and the array is closed again. A file that does not end with a closing bracket without a recorded
+     * position (for example one written by an older version) is cut after its last complete top-level entry.
+     * </p>
+     */
+    private void repair(FileChannel channel, FileChannel lockChannel) throws IOException {
+        long position = readAppendPosition(lockChannel);
+        long last = lastNonWhitespace(channel, channel.size());
+        if (position != NO_APPEND) {
+            if (!completeFrom(channel, position, last)) {
+                closeArrayAt(channel, position);
+            }
+            writeAppendPosition(lockChannel, NO_APPEND, true);
+        } else if (last >= 0 && byteAt(channel, last) != ']') {
+            closeArrayAt(channel, lastCompleteEntryEnd(channel));
+        }
+    }
+
+    /**
+     * Returns the position just after the last complete entry of the array, or {@code 0} if there is none.
+     * <p>
+     * The file is read with the JSON tokenizer, so a brace inside a string value of the torn entry is not
+     * mistaken for the end of an entry.
+     * </p>
+     */
+    private long lastCompleteEntryEnd(FileChannel channel) throws IOException {
+        long end = 0;
+        // the channel stays open for the repair, so the parser must not close it
+        try (JsonParser parser = objectMapper.getFactory().createParser(Channels.newInputStream(channel.position(0)))
+                .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return 0;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                end = parser.currentLocation().getByteOffset();
+            }
+        } catch (JsonProcessingException e) {
+            // the torn entry ends the array, the entries before it are kept
+        }
+        return end;
+    }
+
+    private boolean completeFrom(FileChannel channel, long position, long last) throws IOException {
+        if (position > channel.size() || last < 0 || byteAt(channel, last) != ']') {
+            return false;
+        }
+        try {
+            tail(position, last, channel);
+            return true;
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Cuts the file at {@code position}, the end of the last complete entry, and closes the array there.
+     */
+    private static void closeArrayAt(FileChannel channel, long position) throws IOException {
+        channel.truncate(position);
+        if (position > 0) {
+            ByteBuffer bracket = ByteBuffer.wrap(new byte[]{' ', ']'});
+            while (bracket.hasRemaining()) {
+                channel.write(bracket, position + bracket.position());
+            }
+        }
+        channel.force(false);
+    }
+
+    private static long readAppendPosition(FileChannel lockChannel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        while (buffer.hasRemaining() && lockChannel.read(buffer, buffer.position()) >= 0) {
+            // read until the position is complete
+        }
+        return buffer.hasRemaining() ? NO_APPEND : buffer.getLong(0);
+    }
+
+    private static void writeAppendPosition(FileChannel lockChannel, long position, boolean force) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, position);
+        while (buffer.hasRemaining()) {
+            lockChannel.write(buffer, buffer.position());
+        }
+        if (force) {
+            lockChannel.force(false);
+        }
+    }
+
+    /**
+     * Returns the position of the closing bracket of the JSON array, or {@code -1} for an empty file.
+     */
+    private static long closingBracket(FileChannel channel) throws IOException {
+        long position = lastNonWhitespace(channel, channel.size());
+        if (position >= 0 && byteAt(channel, position) != ']') {
+            throw new IOException("Log file does not end with a JSON array");
+        }
+        return position;
+    }
+
+    private static long lastNonWhitespace(FileChannel channel, long before) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        long end = before;
+        while (end > 0) {
+            long from = Math.max(0, end - buffer.capacity());
+            buffer.clear().limit((int) (end - from));
+            while (buffer.hasRemaining() && channel.read(buffer, from + buffer.position()) >= 0) {
+                // read until the block is complete
+            }
+            for (int i = buffer.position() - 1; i >= 0; i--) {
+                if (!Character.isWhitespace(buffer.get(i))) {
+                    return from + i;
+                }
+            }
+            end = from;
+        }
+        return -1;
+    }
+
+    private static byte byteAt(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        if (position < 0 || channel.read(buffer, position) != 1) {
+            return 0;
+        }
+        return buffer.get(0);
+    }
 }
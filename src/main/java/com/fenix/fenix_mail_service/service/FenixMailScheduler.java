@@ -0,0 +1,528 @@
+package com.fenix.fenix_mail_service.service;
+
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import com.fenix.fenix_mail_service.component.FenixMailTenants;
+import com.fenix.fenix_mail_service.model.FenixEmailLog;
+import com.fenix.fenix_mail_service.model.FenixEmailOutcome;
+import com.fenix.fenix_mail_service.model.FenixEmailPriority;
+import com.fenix.fenix_mail_service.model.FenixEmailRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Service class for scheduling emails through prioritized delivery lanes.
+ * <p>
+ * Every submitted {@link FenixEmailRequest} is placed into the lane matching its tenant and its
+ * {@link FenixEmailPriority}. A fixed pool of worker threads takes requests from the lanes
+ * and hands them to {@link FenixMailService#sendJson(FenixEmailRequest)}, so the number of
+ * workers bounds the SMTP capacity used by the scheduler.
+ * </p>
+ *
+ * <p><b>Scheduling Rules:</b></p>
+ * <ul>
+ *     <li>Lanes share the workers using smooth weighted round-robin, based on the weights
+ *         configured in {@link FenixMailProperties.Scheduler}. Empty lanes do not consume a share.</li>
+ *     <li>A queued lane that has not been served for longer than the configured starvation threshold jumps
+ *         the round-robin once, so even the lowest weight makes progress. Serving it resets its clock, so a
+ *         backlogged lane cannot turn the scheduler into one global FIFO queue.</li>
+ *     <li>Within one lane, emails are delivered in submission order.</li>
+ * </ul>
+ *
+ * <p><b>Tenants:</b></p>
+ * <ul>
+ *     <li>Every tenant configured in {@link FenixMailTenants} has its own three lanes, and emails without a
+ *         tenant share another three, so the lanes of each priority share the workers equally between tenants.</li>
+ *     <li>The lanes of a tenant are skipped while {@code maxConcurrent} of its emails are being sent or while its
+ *         quota is used up. Its emails wait in its lanes instead of being shed or throttled, and do not hold
+ *         workers that the other tenants could use.</li>
+ *     <li>A send that still misses a slot or the quota, because direct sends of the tenant took them, is held in a
+ *         {@link FenixTimingWheel} and then queued again at the back of its lane: after one
+ *         {@code schedule.tickMillis} for a slot, or at the start of the next quota period.</li>
+ *     <li>A request naming a tenant that is not configured is rejected by {@link #submit(FenixEmailRequest)}
+ *         with an {@link IllegalArgumentException}.</li>
+ * </ul>
+ *
+ * <p><b>Load Shedding:</b></p>
+ * <ul>
+ *     <li>Each lane keeps a moving average of the time its emails waited for a worker. While the expected wait of
+ *         the {@code BULK} or {@code TRANSACTIONAL} lane is above its configured shed threshold, new emails for that
+ *         lane are rejected at once instead of being queued. {@code CRITICAL} emails are never shed this way.</li>
+ *     <li>An email whose {@code deadline} has already passed is dropped as {@code EXPIRED}, and one that would expire
+ *         before the expected wait is over is shed, whatever its lane.</li>
+ *     <li>Dropped emails are logged with their {@link FenixEmailOutcome} and their future completes exceptionally
+ *         with a {@link FenixEmailDroppedException}.</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * @Autowired
+ * private FenixMailScheduler mailScheduler;
+ *
+ * public void sendPasswordReset(FenixEmailRequest request) {
+ *     request.setPriority(FenixEmailPriority.CRITICAL);
+ *     mailScheduler.submit(request).join();
+ * }
+ * }</pre>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>The returned {@link CompletableFuture} completes with the result of {@code sendJson}, or
+ *         exceptionally with the {@link RuntimeException} thrown while sending.</li>
+ *     <li>Requests still queued or deferred when the application shuts down complete exceptionally.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class FenixMailScheduler {
+
+    private final FenixMailService fenixMailService;
+    private final FenixMailProperties fenixMailProperties;
+    private final FenixMailMetrics fenixMailMetrics;
+    private final FenixMailTenants fenixMailTenants;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final List<Lane> lanes = new ArrayList<>();
+    private final Map<String, Map<FenixEmailPriority, Lane>> tenantLanes = new LinkedHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final Set<Task> deferred = new HashSet<>();
+    private FenixTimingWheel<Task> retryWheel;
+    private ScheduledExecutorService ticker;
+    private long tickNanos;
+    private int queued;
+    private volatile boolean running;
+
+    /**
+     * Creates the lanes and starts the worker threads and the ticker of deferred emails.
+     */
+    @PostConstruct
+    public void start() {
+        addLanes(null, new Share(null));
+        for (String name : fenixMailTenants.getNames()) {
+            addLanes(name, new Share(fenixMailTenants.get(name)));
+        }
+        FenixMailProperties.Scheduler settings = fenixMailProperties.getScheduler();
+
+        long tickMillis = Math.max(1, fenixMailProperties.getSchedule().getTickMillis());
+        tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        retryWheel = new FenixTimingWheel<>(System.nanoTime() / tickNanos);
+
+        running = true;
+        for (int i = 0; i < Math.max(1, settings.getWorkers()); i++) {
+            Thread worker = new Thread(this::work, "fenix-mail-lane-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fenix-mail-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::requeueDue, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the worker threads and fails every request that is still queued or deferred.
+     */
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        List<Task> abandoned = new ArrayList<>();
+        lock.lock();
+        try {
+            running = false;
+            for (Lane lane : lanes) {
+                abandoned.addAll(lane.tasks);
+                lane.tasks.clear();
+            }
+            abandoned.addAll(deferred);
+            deferred.clear();
+            queued = 0;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        for (Task task : abandoned) {
+            task.future.completeExceptionally(new RuntimeException("Mail scheduler was shut down before the email was sent"));
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Queues an email in the lane matching its tenant and priority, unless it is expired or shed.
+     *
+     * @param request The {@link FenixEmailRequest} to send (must not be null).
+     * @return A future completed with the result of {@link FenixMailService#sendJson(FenixEmailRequest)}, or
+     *         completed exceptionally with a {@link FenixEmailDroppedException} if the email was dropped.
+     * @throws IllegalArgumentException If the request names a tenant that is not configured.
+     * @throws IllegalStateException If the scheduler is not running.
+     */
+    public CompletableFuture<Boolean> submit(FenixEmailRequest request) {
+        return submit(request, null);
+    }
+
+    /**
+     * Queues an email like {@link #submit(FenixEmailRequest)}, handing its log entry to {@code logSink}
+     * instead of writing it.
+     *
+     * @param request The {@link FenixEmailRequest} to send (must not be null).
+     * @param logSink Receives the log entry of the email, or {@code null} to write it to the email log.
+     * @return A future completed with the result of the send.
+     * @throws IllegalArgumentException If the request names a tenant that is not configured.
+     * @throws IllegalStateException If the scheduler is not running.
+     */
+    CompletableFuture<Boolean> submit(FenixEmailRequest request, Consumer<FenixEmailLog> logSink) {
+        if (request == null) {
+            throw new IllegalArgumentException("Request must not be null.");
+        }
+        fenixMailTenants.check(request.getTenant());
+        FenixEmailPriority priority = priorityOf(request);
+        Task task = new Task(request, logSink, System.nanoTime());
+        Instant now = Instant.now();
+        FenixEmailOutcome dropped = null;
+        String reason = null;
+
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Mail scheduler is not running.");
+            }
+            Lane lane = laneOf(request);
+            long expectedWait = lane.expectedWait(task.enqueuedAt);
+            if (request.getDeadline() != null && !now.isBefore(request.getDeadline())) {
+                dropped = FenixEmailOutcome.EXPIRED;
+                reason = "Email expired at " + request.getDeadline();
+            } else if (lane.shedAfter > 0 && expectedWait > lane.shedAfter) {
+                dropped = FenixEmailOutcome.SHED;
+                reason = "Email shed: the " + priority + " lane is " + TimeUnit.NANOSECONDS.toMillis(expectedWait) + " ms behind";
+            } else if (request.getDeadline() != null && request.getDeadline().isBefore(now.plusNanos(expectedWait))) {
+                dropped = FenixEmailOutcome.SHED;
+                reason = "Email shed: it would expire before the " + priority + " lane reaches it";
+            } else {
+                lane.tasks.addLast(task);
+                queued++;
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (dropped != null) {
+            try {
+                task.future.completeExceptionally(fenixMailService.drop(request, dropped, reason, logSink));
+            } catch (RuntimeException e) {
+                task.future.completeExceptionally(e);
+            }
+        }
+        return task.future;
+    }
+
+    /**
+     * Returns the number of emails waiting in the lanes of the given priority, over all tenants.
+     *
+     * @param priority The lanes to inspect.
+     * @return The number of queued emails.
+     */
+    public int getQueueSize(FenixEmailPriority priority) {
+        lock.lock();
+        try {
+            int size = 0;
+            for (Lane lane : lanes) {
+                if (lane.priority == priority) {
+                    size += lane.tasks.size();
+                }
+            }
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Creates the lanes of one tenant, or of the emails without a tenant.
+     */
+    private void addLanes(String tenant, Share share) {
+        FenixMailProperties.Scheduler settings = fenixMailProperties.getScheduler();
+        Map<FenixEmailPriority, Lane> byPriority = new EnumMap<>(FenixEmailPriority.class);
+        byPriority.put(FenixEmailPriority.CRITICAL, new Lane(FenixEmailPriority.CRITICAL, share,
+                settings.getCriticalWeight(), 0));
+        byPriority.put(FenixEmailPriority.TRANSACTIONAL, new Lane(FenixEmailPriority.TRANSACTIONAL, share,
+                settings.getTransactionalWeight(), settings.getTransactionalShedWaitMillis()));
+        byPriority.put(FenixEmailPriority.BULK, new Lane(FenixEmailPriority.BULK, share,
+                settings.getBulkWeight(), settings.getBulkShedWaitMillis()));
+        tenantLanes.put(tenant, byPriority);
+        lanes.addAll(byPriority.values());
+    }
+
+    private void work() {
+        while (true) {
+            Task task;
+            try {
+                task = take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (task == null) {
+                return;
+            }
+
+            fenixMailMetrics.recordQueueWait(System.nanoTime() - task.enqueuedAt);
+            try {
+                task.future.complete(fenixMailService.sendJson(task.request, task.logSink, task.attempts));
+            } catch (FenixEmailDeferredException e) {
+                defer(task, e.getDelayMillis());
+            } catch (RuntimeException e) {
+                task.future.completeExceptionally(e);
+            } finally {
+                lock.lock();
+                try {
+                    laneOf(task.request).share.inFlight--;
+                    notEmpty.signal();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Holds a task in the retry wheel until its delay is over.
+     */
+    private void defer(Task task, long delayMillis) {
+        lock.lock();
+        try {
+            if (running) {
+                long dueTick = Math.ceilDiv(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis), tickNanos);
+                if (retryWheel.schedule(dueTick, task) == null) {
+                    requeue(task);
+                } else {
+                    deferred.add(task);
+                }
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        task.future.completeExceptionally(new RuntimeException("Mail scheduler was shut down before the email was sent"));
+    }
+
+    /**
+     * Queues the deferred tasks whose delay is over again. Runs on the ticker thread.
+     */
+    private void requeueDue() {
+        lock.lock();
+        try {
+            if (running) {
+                retryWheel.advance(System.nanoTime() / tickNanos, task -> {
+                    deferred.remove(task);
+                    requeue(task);
+                });
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts a task back at the end of its lane. Must be called while holding {@link #lock}.
+     */
+    private void requeue(Task task) {
+        task.enqueuedAt = System.nanoTime();
+        laneOf(task.request).tasks.addLast(task);
+        queued++;
+        notEmpty.signal();
+    }
+
+    /**
+     * Returns the lane of a request, whose tenant was checked when it was submitted.
+     */
+    private Lane laneOf(FenixEmailRequest request) {
+        return tenantLanes.get(request.getTenant()).get(priorityOf(request));
+    }
+
+    private static FenixEmailPriority priorityOf(FenixEmailRequest request) {
+        return request.getPriority() != null ? request.getPriority() : FenixEmailPriority.TRANSACTIONAL;
+    }
+
+    private Task take() throws InterruptedException {
+        lock.lock();
+        try {
+            Lane lane = null;
+            long now = 0;
+            while (running && lane == null) {
+                if (queued == 0) {
+                    notEmpty.await();
+                    continue;
+                }
+                now = System.nanoTime();
+                lane = select(now);
+                if (lane == null) {
+                    // every queued lane belongs to a tenant at its limits; a quota frees up without a signal
+                    notEmpty.awaitNanos(tickNanos);
+                }
+            }
+            if (!running) {
+                return null;
+            }
+            queued--;
+            lane.servedAt = now;
+            Task task = lane.tasks.pollFirst();
+            lane.share.inFlight++;
+            // an emptied lane has no backlog left, so its history must not shed the next email
+            lane.averageWait = lane.tasks.isEmpty() ? 0 : lane.averageWait + (now - task.enqueuedAt - lane.averageWait) / 8;
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Picks the lane to serve next. Must be called while holding {@link #lock}.
+     *
+     * @return The lane, or {@code null} if no lane with queued emails may be served.
+     */
+    private Lane select(long now) {
+        long starvationNanos = TimeUnit.MILLISECONDS.toNanos(fenixMailProperties.getScheduler().getStarvationThresholdMillis());
+        Lane starved = null;
+        long longestUnserved = starvationNanos;
+        for (Lane lane : lanes) {
+            if (!lane.share.isAvailable()) {
+                continue;
+            }
+            long unserved = lane.unservedFor(now);
+            if (unserved >= longestUnserved) {
+                starved = lane;
+                longestUnserved = unserved;
+            }
+        }
+        if (starved != null) {
+            return starved;
+        }
+
+        Lane selected = null;
+        int totalWeight = 0;
+        for (Lane lane : lanes) {
+            if (lane.tasks.isEmpty() || !lane.share.isAvailable()) {
+                continue;
+            }
+            lane.currentWeight += lane.weight;
+            totalWeight += lane.weight;
+            if (selected == null || lane.currentWeight > selected.currentWeight) {
+                selected = lane;
+            }
+        }
+        if (selected != null) {
+            selected.currentWeight -= totalWeight;
+        }
+        return selected;
+    }
+
+    /**
+     * The share of the workers of one tenant, or of the emails without a tenant.
+     */
+    private static final class Share {
+        private final FenixMailTenants.Bulkhead bulkhead;
+        private int inFlight;
+
+        private Share(FenixMailTenants.Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        /**
+         * Returns whether another email may be handed to a worker: fewer than {@code maxConcurrent} are being sent
+         * and the quota is not used up.
+         */
+        private boolean isAvailable() {
+            return bulkhead == null || (inFlight < bulkhead.getMaxConcurrent() && !bulkhead.isThrottled());
+        }
+    }
+
+    private static final class Lane {
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+        private final FenixEmailPriority priority;
+        private final Share share;
+        private final int weight;
+        private final long shedAfter;
+        private int currentWeight;
+        private long servedAt = System.nanoTime();
+        private long averageWait;
+
+        private Lane(FenixEmailPriority priority, Share share, int weight, long shedAfterMillis) {
+            this.priority = priority;
+            this.share = share;
+            this.weight = Math.max(1, weight);
+            this.shedAfter = TimeUnit.MILLISECONDS.toNanos(Math.max(0, shedAfterMillis));
+        }
+
+        /**
+         * Estimates how long an email queued now will wait: the moving average of recent waits, or the age
+         * of the oldest queued email if that is longer.
+         */
+        private long expectedWait(long now) {
+            Task head = tasks.peekFirst();
+            return head == null ? 0 : Math.max(averageWait, now - head.enqueuedAt);
+        }
+
+        /**
+         * Returns how long the lane has had queued emails without being served, or {@code -1} if it is empty.
+         */
+        private long unservedFor(long now) {
+            Task head = tasks.peekFirst();
+            if (head == null) {
+                return -1;
+            }
+            // the clock starts at the later of the last service and the arrival of the oldest queued email
+            return now - (head.enqueuedAt - servedAt > 0 ? head.enqueuedAt : servedAt);
+        }
+    }
+
+    private static final class Task {
+        private final FenixEmailRequest request;
+        private final Consumer<FenixEmailLog> logSink;
+        private final FenixMailService.Attempts attempts = new FenixMailService.Attempts();
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        private long enqueuedAt;
+
+        private Task(FenixEmailRequest request, Consumer<FenixEmailLog> logSink, long enqueuedAt) {
+            this.request = request;
+            this.logSink = logSink;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -1,19 +1,33 @@
 package com.fenix.fenix_mail_service.service;
 
+import com.fenix.fenix_mail_service.component.FenixDkimSigner;
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
 import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import com.fenix.fenix_mail_service.component.FenixMailTenants;
+import com.fenix.fenix_mail_service.component.FenixSendTracer;
 import com.fenix.fenix_mail_service.model.FenixEmailLog;
+import com.fenix.fenix_mail_service.model.FenixEmailOutcome;
 import com.fenix.fenix_mail_service.model.FenixEmailRequest;
+import com.fenix.fenix_mail_service.model.FenixSendPhase;
+import com.fenix.fenix_mail_service.transport.FenixPartialDeliveryException;
+import com.fenix.fenix_mail_service.transport.FenixSmtpException;
+import jakarta.activation.FileDataSource;
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MailDateFormat;
 import jakarta.mail.internet.MimeMessage;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service class for managing email operations in the Fenix Mail Service.
@@ -28,12 +42,18 @@ import java.util.List;
  *     <li>Send plain text or HTML emails to multiple recipients.</li>
  *     <li>Support for optional attachments.</li>
  *     <li>Logs email transactions into a JSON file.</li>
+ *     <li>Records Micrometer metrics and per-phase traces of every send.</li>
+ *     <li>Optional DKIM signing of every message.</li>
+ *     <li>Drops requests whose {@code deadline} has passed instead of sending them.</li>
+ *     <li>Sends the emails of each tenant with its own sender, behind its own concurrency limit and quota.</li>
+ *     <li>Optionally keeps the serialized bytes of sent messages, to retry and resend them without building them again.</li>
  * </ul>
  *
  * <p><b>Key Methods:</b></p>
  * <ul>
  *     <li>{@link #send(List, String, String, boolean, File)}: Sends an email with detailed parameters.</li>
  *     <li>{@link #sendJson(FenixEmailRequest)}: Sends an email using a validated {@link FenixEmailRequest} object.</li>
+ *     <li>{@link #resend(String)}: Sends a recently sent message again, from its cached bytes.</li>
  * </ul>
  *
  * <p><b>Dependencies:</b></p>
@@ -41,6 +61,7 @@ import java.util.List;
  *     <li>{@link JavaMailSender}: Sends the constructed email messages.</li>
  *     <li>{@link FenixMailProperties}: Provides SMTP server details and email configuration.</li>
  *     <li>{@link FenixLogService}: Handles email logging functionality.</li>
+ *     <li>{@link FenixMailTenants}: Provides the sender and bulkhead of each configured tenant.</li>
  * </ul>
  *
  * <p><b>Usage Example:</b></p>
@@ -70,8 +91,14 @@ import java.util.List;
  *
  * <p><b>Notes:</b></p>
  * <ul>
- *     <li>Emails are logged for both successful and failed transactions.</li>
+ *     <li>Emails are logged for both successful and failed transactions, with their {@link FenixEmailOutcome}.
+ *         An email that reached only some of its recipients is logged twice, as sent to the accepted recipients
+ *         and as failed for the others.</li>
+ *     <li>Expired requests are logged as {@code EXPIRED} and throw a {@link FenixEmailDroppedException}.</li>
  *     <li>Attachments are optional and validated before being included in the email.</li>
+ *     <li>Sends of the {@link FenixMailScheduler} failing with a {@code 4xx} reply, or without reply before the
+ *         message data was sent, are queued again up to {@code resend.retryAttempts} times, unless some recipient
+ *         may already have received the message.</li>
  *     <li>Throws a {@link RuntimeException} if email sending fails due to a {@link MessagingException}.</li>
  * </ul>
  *
@@ -80,12 +107,32 @@ import java.util.List;
  * <p><b>Since:</b> 2025-01-12</p>
  */
 @Service
-@RequiredArgsConstructor
 public class FenixMailService {
 
     private final JavaMailSender mailSender;
     private final FenixMailProperties fenixMailProperties;
     private final FenixLogService fenixLogService;
+    private final FenixMailMetrics fenixMailMetrics;
+    private final FenixSendTracer fenixSendTracer;
+    private final FenixDkimSigner fenixDkimSigner;
+    private final FenixMailTenants fenixMailTenants;
+    private final FenixMimeCache mimeCache;
+
+    public FenixMailService(JavaMailSender mailSender, FenixMailProperties fenixMailProperties,
+                            FenixLogService fenixLogService, FenixMailMetrics fenixMailMetrics,
+                            FenixSendTracer fenixSendTracer, FenixDkimSigner fenixDkimSigner,
+                            FenixMailTenants fenixMailTenants) {
+        this.mailSender = mailSender;
+        this.fenixMailProperties = fenixMailProperties;
+        this.fenixLogService = fenixLogService;
+        this.fenixMailMetrics = fenixMailMetrics;
+        this.fenixSendTracer = fenixSendTracer;
+        this.fenixDkimSigner = fenixDkimSigner;
+        this.fenixMailTenants = fenixMailTenants;
+        FenixMailProperties.Resend settings = fenixMailProperties.getResend();
+        this.mimeCache = settings.getCacheBytes() > 0
+                ? new FenixMimeCache(settings.getCacheBytes(), settings.getCacheRetentionMillis()) : null;
+    }
 
     /**
      * Sends an email to the specified recipients.
@@ -116,41 +163,31 @@ public class FenixMailService {
      * @throws RuntimeException If the email could not be sent due to a {@link MessagingException}.
      */
     public boolean send(List<String> to, String subject, String content, boolean isHtml, File attachment) {
-        if (to == null || to.isEmpty()) {
-            throw new IllegalArgumentException("Recipient list 'to' must not be null or empty.");
-        }
-        if (subject == null || subject.isBlank()) {
-            throw new IllegalArgumentException("Subject must not be null or empty.");
-        }
-        if (content == null || content.isBlank()) {
-            throw new IllegalArgumentException("Content must not be null or empty.");
-        }
-
-        FenixEmailLog fenixEmailLog = new FenixEmailLog();
-        fenixEmailLog.setRecipients(to);
-        fenixEmailLog.setSubject(subject);
-        fenixEmailLog.setBody(content);
-        fenixEmailLog.setSentAt(LocalDateTime.now());
+        fenixSendTracer.begin();
+        FenixEmailRequest request = null;
+        boolean sent = false;
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, attachment != null, "UTF-8");
-            helper.setFrom(fenixMailProperties.getFromAddress());
-            helper.setTo(to.toArray(new String[0]));
-            helper.setSubject(subject);
-            helper.setText(content, isHtml);
-
-            if (attachment != null && attachment.exists()) {
-                helper.addAttachment(attachment.getName(), attachment);
+            if (to == null || to.isEmpty()) {
+                throw new IllegalArgumentException("Recipient list 'to' must not be null or empty.");
+            }
+            if (subject == null || subject.isBlank()) {
+                throw new IllegalArgumentException("Subject must not be null or empty.");
+            }
+            if (content == null || content.isBlank()) {
+                throw new IllegalArgumentException("Content must not be null or empty.");
             }
 
-            mailSender.send(message);
-            fenixEmailLog.setSuccess(true);
-            fenixLogService.saveEmailLog(fenixEmailLog);
-            return true;
-        } catch (MessagingException e) {
-            fenixEmailLog.setSuccess(false);
-            fenixLogService.saveEmailLog(fenixEmailLog);
-            throw new RuntimeException("Failed to send email: " + e.getMessage(), e);
+            request = new FenixEmailRequest();
+            request.setTo(to);
+            request.setSubject(subject);
+            request.setContent(content);
+            request.setHtml(isHtml);
+            request.setAttachment(attachment);
+            FenixSendTracer.mark(FenixSendPhase.VALIDATION);
+            sent = sendJson(request);
+            return sent;
+        } finally {
+            fenixSendTracer.end(sent, request);
         }
     }
 
@@ -166,8 +203,9 @@ public class FenixMailService {
      * <ul>
      *     <li>Validates the {@link FenixEmailRequest} object using {@link jakarta.validation.Valid}.</li>
      *     <li>Creates a new {@link FenixEmailLog} instance and populates it with email details.</li>
+     *     <li>Drops the request if its {@code deadline} has passed, before and again after the message is built.</li>
      *     <li>Constructs a MIME message using {@link MimeMessageHelper}, including optional attachments.</li>
-     *     <li>Sends the email using {@code JavaMailSender}.</li>
+     *     <li>Sends the email using {@code JavaMailSender}, retrying it after a transient failure.</li>
      *     <li>Saves the email log (success or failure) using {@code fenixLogService}.</li>
      * </ul>
      *
@@ -180,6 +218,8 @@ public class FenixMailService {
      *             <li>{@code content}: The body of the email (required, must not be null).</li>
      *             <li>{@code isHtml}: A boolean flag indicating whether the content is in HTML format.</li>
      *             <li>{@code attachment}: An optional file to be attached to the email.</li>
+     *             <li>{@code deadline}: An optional instant after which the email is dropped instead of sent.</li>
+     *             <li>{@code tenant}: An optional tenant whose sender, from-address and limits are used.</li>
      *         </ul>
      *     </li>
      * </ul>
@@ -192,8 +232,11 @@ public class FenixMailService {
      *
      * <p><b>Exception Handling:</b></p>
      * <ul>
-     *     <li>If a {@link MessagingException} occurs, the method logs the failure and throws a
-     *         {@link RuntimeException} with the error details.</li>
+     *     <li>If a {@link MessagingException} or a {@link MailException} occurs, the method logs the failure
+     *         and throws a {@link RuntimeException} with the error details.</li>
+     *     <li>If the request has expired, or its tenant has no free send slot or no quota left, the method logs it
+     *         with the {@code EXPIRED}, {@code SHED} or {@code THROTTLED} outcome and throws a
+     *         {@link FenixEmailDroppedException}.</li>
      * </ul>
      *
      * <p><b>Dependencies:</b></p>
@@ -201,39 +244,426 @@ public class FenixMailService {
      *     <li>{@code mailSender}: Sends the constructed MIME email.</li>
      *     <li>{@code fenixMailProperties}: Provides email configuration details such as the sender address.</li>
      *     <li>{@code fenixLogService}: Persists the email log details.</li>
+     *     <li>{@code fenixMailMetrics}: Records the send latency and failures by SMTP reply code.</li>
+     *     <li>{@code fenixSendTracer}: Times each phase of the send and captures slow sends.</li>
+     *     <li>{@code fenixDkimSigner}: Signs the built message when DKIM signing is enabled.</li>
+     *     <li>{@code fenixMailTenants}: Provides the sender and bulkhead of the request's tenant.</li>
      * </ul>
      *
      * @param request The {@link FenixEmailRequest} object containing email details (must be valid).
      * @return {@code true} if the email is successfully sent.
-     * @throws RuntimeException If a {@link MessagingException} occurs during email sending.
+     * @throws RuntimeException If a {@link MessagingException} or {@link MailException} occurs during email sending.
+     * @throws FenixEmailDroppedException If the request expired, was shed or was throttled by its tenant's limits.
+     * @throws IllegalArgumentException If the request names a tenant that is not configured; it is not logged then.
      */
 
     public boolean sendJson(@Valid FenixEmailRequest request) {
+        return sendJson(request, null, null);
+    }
+
+    /**
+     * Sends an email like {@link #sendJson(FenixEmailRequest)}, as one attempt of the {@link FenixMailScheduler}.
+     * <p>
+     * The log entry is handed to {@code logSink} instead of being written, so that callers completing many emails
+     * can write their log entries in batches. With {@code attempts}, a send over the limits of its tenant is not
+     * logged but deferred, and the state of the request is kept in {@code attempts} for the next attempt.
+     * </p>
+     *
+     * @param request The {@link FenixEmailRequest} object containing email details (must be valid).
+     * @param logSink Receives the log entry of the email, whether it was sent or not, or {@code null} to write it
+     *                to the email log.
+     * @param attempts The state kept between the attempts of the request, or {@code null} to send it only once.
+     * @return {@code true} if the email is successfully sent.
+     * @throws RuntimeException If a {@link MessagingException} occurs during email sending.
+     * @throws IllegalArgumentException If the request names a tenant that is not configured.
+     * @throws FenixEmailDeferredException If the email must be sent again later.
+     */
+    boolean sendJson(FenixEmailRequest request, Consumer<FenixEmailLog> logSink, Attempts attempts) {
+        fenixMailTenants.check(request.getTenant());
+        Consumer<FenixEmailLog> sink = logSink != null ? logSink : fenixLogService::saveEmailLog;
+        fenixSendTracer.begin();
+        boolean sent = false;
+        try {
+            FenixEmailLog fenixEmailLog = createLog(request);
+            try {
+                transmit(request, fenixEmailLog, attempts);
+                fenixEmailLog.setSuccess(true);
+                fenixEmailLog.setOutcome(FenixEmailOutcome.SENT);
+                sink.accept(fenixEmailLog);
+                FenixSendTracer.mark(FenixSendPhase.LOG_WRITE);
+                sent = true;
+                return true;
+            } catch (FenixEmailDroppedException e) {
+                fenixEmailLog.setOutcome(e.getOutcome());
+                sink.accept(fenixEmailLog);
+                FenixSendTracer.mark(FenixSendPhase.LOG_WRITE);
+                throw e;
+            } catch (MessagingException | MailException e) {
+                failed(fenixEmailLog, e).forEach(sink);
+                FenixSendTracer.mark(FenixSendPhase.LOG_WRITE);
+                throw new RuntimeException("Failed to send email: " + e.getMessage(), e);
+            }
+        } finally {
+            fenixSendTracer.end(sent, request);
+        }
+    }
+
+    /**
+     * Creates the log entry describing the given request, timestamped with the current time.
+     * The success flag is left for the caller to set once the outcome is known.
+     *
+     * @param request The request being sent.
+     * @return A new {@link FenixEmailLog} for the request.
+     */
+    FenixEmailLog createLog(FenixEmailRequest request) {
         FenixEmailLog fenixEmailLog = new FenixEmailLog();
         fenixEmailLog.setRecipients(request.getTo());
         fenixEmailLog.setSubject(request.getSubject());
         fenixEmailLog.setBody(request.getContent());
         fenixEmailLog.setSentAt(LocalDateTime.now());
+        fenixEmailLog.setTenant(request.getTenant());
+        return fenixEmailLog;
+    }
+
+    /**
+     * Marks the log entry of a failed send as failed and returns the entries to save for it.
+     * <p>
+     * If the message was still delivered to some of its recipients, as reported by a
+     * {@link FenixPartialDeliveryException}, the entry keeps only the failed recipients and a successful
+     * entry for the accepted recipients is returned before it.
+     * </p>
+     *
+     * @param fenixEmailLog The log entry of the failed send.
+     * @param error The failure thrown by the send.
+     * @return The log entries describing the send.
+     */
+    List<FenixEmailLog> failed(FenixEmailLog fenixEmailLog, Exception error) {
+        fenixEmailLog.setSuccess(false);
+        fenixEmailLog.setOutcome(FenixEmailOutcome.FAILED);
+        FenixPartialDeliveryException partial = FenixPartialDeliveryException.of(error);
+        if (partial == null) {
+            return List.of(fenixEmailLog);
+        }
+        FenixEmailLog delivered = new FenixEmailLog();
+        delivered.setRecipients(partial.getAcceptedRecipients());
+        delivered.setSubject(fenixEmailLog.getSubject());
+        delivered.setBody(fenixEmailLog.getBody());
+        delivered.setSentAt(fenixEmailLog.getSentAt());
+        delivered.setTenant(fenixEmailLog.getTenant());
+        delivered.setMessageId(fenixEmailLog.getMessageId());
+        delivered.setSuccess(true);
+        delivered.setOutcome(FenixEmailOutcome.SENT);
+        fenixEmailLog.setRecipients(partial.getFailedRecipients());
+        return List.of(delivered, fenixEmailLog);
+    }
+
+    /**
+     * Sends a recently sent message again, from the serialized bytes kept in the MIME cache.
+     * <p>
+     * The message is neither built nor encoded again: its bytes, including the original {@code Message-ID},
+     * {@code Date} and DKIM signature, are sent unchanged. Only {@code Resent-Date} and {@code Resent-From}
+     * headers (RFC 5322, section 3.6.6) are added for this attempt. The resend goes through the bulkhead of
+     * the original tenant and is logged as a new entry with the same {@code messageId}.
+     * </p>
+     *
+     * <p><b>Notes:</b></p>
+     * <ul>
+     *     <li>Messages are cached only while {@code fenix.spring.mail.resend.cache-bytes} is above {@code 0}, and
+     *         only for {@code cache-retention-millis} or until they are evicted by newer messages.</li>
+     *     <li>The body of the email is not cached, so the log entry of a resend has no {@code body}.</li>
+     * </ul>
+     *
+     * @param messageId The {@code Message-ID} of the message, as recorded in its {@link FenixEmailLog}.
+     * @return {@code true} if the message was sent again.
+     * @throws IllegalArgumentException If the message is not (or no longer) cached.
+     * @throws RuntimeException If a {@link MessagingException} or {@link MailException} occurs during sending.
+     * @throws FenixEmailDroppedException If the tenant of the message has no free slot or no quota left.
+     */
+    public boolean resend(String messageId) {
+        FenixMimeCache.Entry entry = mimeCache != null ? mimeCache.get(messageId) : null;
+        if (entry == null) {
+            throw new IllegalArgumentException("Message is not cached: " + messageId);
+        }
+        fenixSendTracer.begin();
+        boolean sent = false;
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, request.getAttachment() != null, "UTF-8");
-            helper.setFrom(fenixMailProperties.getFromAddress());
-            helper.setTo(request.getTo().toArray(new String[0]));
-            helper.setSubject(request.getSubject());
-            helper.setText(request.getContent(), request.isHtml());
-
-            if (request.getAttachment() != null && request.getAttachment().exists()) {
-                helper.addAttachment(request.getAttachment().getName(), request.getAttachment());
+            FenixEmailLog fenixEmailLog = new FenixEmailLog();
+            fenixEmailLog.setRecipients(entry.recipients());
+            fenixEmailLog.setSubject(entry.subject());
+            fenixEmailLog.setSentAt(LocalDateTime.now());
+            fenixEmailLog.setTenant(entry.tenant());
+            fenixEmailLog.setMessageId(messageId);
+            try {
+                retransmit(entry);
+                fenixEmailLog.setSuccess(true);
+                fenixEmailLog.setOutcome(FenixEmailOutcome.SENT);
+                fenixLogService.saveEmailLog(fenixEmailLog);
+                FenixSendTracer.mark(FenixSendPhase.LOG_WRITE);
+                sent = true;
+                return true;
+            } catch (FenixEmailDroppedException e) {
+                fenixEmailLog.setOutcome(e.getOutcome());
+                fenixLogService.saveEmailLog(fenixEmailLog);
+                FenixSendTracer.mark(FenixSendPhase.LOG_WRITE);
+                throw e;
+            } catch (MessagingException | MailException e) {
+                fenixLogService.saveEmailLogs(failed(fenixEmailLog, e));
+                FenixSendTracer.mark(FenixSendPhase.LOG_WRITE);
+                throw new RuntimeException("Failed to resend email: " + e.getMessage(), e);
             }
+        } finally {
+            fenixSendTracer.end(sent, null);
+        }
+    }
 
-            mailSender.send(message);
-            fenixEmailLog.setSuccess(true);
-            fenixLogService.saveEmailLog(fenixEmailLog);
-            return true;
-        } catch (MessagingException e) {
-            fenixEmailLog.setSuccess(false);
+    /**
+     * Logs a request that is dropped without being sent and returns the exception describing it.
+     * <p>
+     * Used by the {@link FenixMailScheduler} for requests it sheds, so that they are logged and
+     * counted like requests that expire in {@link #sendJson(FenixEmailRequest)}.
+     * </p>
+     *
+     * @param request The dropped request.
+     * @param outcome The reason it was dropped, {@code EXPIRED} or {@code SHED}.
+     * @param message The message of the returned exception.
+     * @param logSink Receives the log entry of the request, or {@code null} to write it to the email log.
+     * @return The exception to complete the caller's future with.
+     */
+    FenixEmailDroppedException drop(FenixEmailRequest request, FenixEmailOutcome outcome, String message,
+                                    Consumer<FenixEmailLog> logSink) {
+        FenixEmailLog fenixEmailLog = createLog(request);
+        fenixEmailLog.setOutcome(outcome);
+        if (logSink == null) {
             fenixLogService.saveEmailLog(fenixEmailLog);
-            throw new RuntimeException("Failed to send email: " + e.getMessage(), e);
+        } else {
+            logSink.accept(fenixEmailLog);
+        }
+        fenixMailMetrics.recordDropped(outcome);
+        return new FenixEmailDroppedException(outcome, message);
+    }
+
+    /**
+     * Builds the MIME message for the given request and hands it to the {@link JavaMailSender}.
+     * <p>
+     * This is the shared send path of {@link #sendJson(FenixEmailRequest)} and of the other services
+     * in this package. It does not write any log entry; callers are responsible for logging the outcome.
+     * When DKIM signing is enabled, the built message is signed before it is sent.
+     * The send latency and, on failure, the SMTP reply code are recorded in {@link FenixMailMetrics}, and the
+     * phases of the send are marked for the {@link FenixSendTracer}.
+     * </p>
+     * <p>
+     * The {@code deadline} of the request is checked before the message is built and again right before
+     * it is sent, since building and signing a large message takes time as well.
+     * </p>
+     * <p>
+     * If the request names a tenant, the message is built and sent while holding one of the tenant's send
+     * slots and after taking one unit of its quota, and it is sent with the tenant's sender and from-address.
+     * With {@code attempts}, a send over these limits throws a {@link FenixEmailDeferredException} instead of
+     * being dropped.
+     * </p>
+     * <p>
+     * When the MIME cache is enabled, the built message is serialized once and kept for {@link #resend(String)}.
+     * With {@code attempts}, the built message is kept there as well, and a send that
+     * {@link FenixSmtpException#isRetryable(Throwable) may be retried} throws a {@link FenixEmailDeferredException}
+     * up to {@code resend.retryAttempts} times; every attempt sends the same message.
+     * </p>
+     *
+     * @param request The request to send.
+     * @param fenixEmailLog The log entry of the request, which receives the {@code Message-ID} of the message.
+     * @param attempts The state kept between the attempts of the request, or {@code null} to send it only once.
+     * @throws MessagingException If the MIME message cannot be built.
+     * @throws MailException If the mail server rejected the message or could not be reached.
+     * @throws FenixEmailDroppedException If the request expired, or if its tenant has no free slot or no quota left.
+     * @throws IllegalArgumentException If the request names a tenant that is not configured.
+     * @throws FenixEmailDeferredException If the email must be sent again later.
+     */
+    void transmit(FenixEmailRequest request, FenixEmailLog fenixEmailLog, Attempts attempts) throws MessagingException {
+        checkDeadline(request.getDeadline());
+        FenixMailTenants.Bulkhead tenant = enterTenant(request.getTenant(), attempts);
+        JavaMailSender sender = tenant != null ? tenant.getMailSender() : mailSender;
+        long start = System.nanoTime();
+        try {
+            MimeMessage message = attempts != null ? attempts.message : null;
+            if (message == null) {
+                message = build(request, sender, tenant);
+                if (attempts != null) {
+                    attempts.message = message;
+                }
+            }
+            if (mimeCache != null) {
+                fenixEmailLog.setMessageId(message.getMessageID());
+            }
+
+            deliver(sender, message, request.getDeadline(), attempts);
+            if (fenixEmailLog.getMessageId() == null) {
+                fenixEmailLog.setMessageId(message.getMessageID());
+            }
+            fenixMailMetrics.recordSend(System.nanoTime() - start, true);
+        } catch (MessagingException | MailException e) {
+            fenixMailMetrics.recordSend(System.nanoTime() - start, false);
+            fenixMailMetrics.recordFailure(FenixSmtpException.replyCodeOf(e));
+            throw e;
+        } finally {
+            if (tenant != null) {
+                tenant.release();
+            }
+        }
+    }
+
+    /**
+     * Builds, signs and, when the MIME cache is enabled, stores the message for a request.
+     */
+    private MimeMessage build(FenixEmailRequest request, JavaMailSender sender, FenixMailTenants.Bulkhead tenant)
+            throws MessagingException {
+        MimeMessage message = sender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, request.getAttachment() != null, "UTF-8");
+        helper.setFrom(tenant != null ? tenant.getFromAddress() : fenixMailProperties.getFromAddress());
+        helper.setTo(request.getTo().toArray(new String[0]));
+        helper.setSubject(request.getSubject());
+        helper.setText(request.getContent(), request.isHtml());
+        FenixSendTracer.mark(FenixSendPhase.MIME_BUILD);
+
+        if (request.getAttachment() != null && request.getAttachment().exists()) {
+            if (FenixSendTracer.isTracing()) {
+                FileDataSource dataSource = new FileDataSource(request.getAttachment());
+                dataSource.setFileTypeMap(helper.getFileTypeMap());
+                helper.addAttachment(request.getAttachment().getName(), new FenixTracedDataSource(dataSource));
+            } else {
+                helper.addAttachment(request.getAttachment().getName(), request.getAttachment());
+            }
+            FenixSendTracer.mark(FenixSendPhase.ATTACHMENT);
+        }
+
+        if (fenixDkimSigner.isEnabled()) {
+            // without an attachment the body depends only on the content, so its hash can be reused
+            fenixDkimSigner.sign(message, request.getAttachment() == null
+                    ? new BodyKey(request.getContent(), request.isHtml()) : null);
+            FenixSendTracer.mark(FenixSendPhase.DKIM_SIGN);
+        }
+
+        if (mimeCache != null) {
+            message = mimeCache.store(message, request);
+            FenixSendTracer.mark(FenixSendPhase.MIME_BUILD);
+        }
+        return message;
+    }
+
+    /**
+     * Sends a cached message again with {@code Resent-*} headers, within the bulkhead of its tenant.
+     */
+    private void retransmit(FenixMimeCache.Entry entry) throws MessagingException {
+        FenixMailTenants.Bulkhead tenant = enterTenant(entry.tenant(), null);
+        JavaMailSender sender = tenant != null ? tenant.getMailSender() : mailSender;
+        long start = System.nanoTime();
+        try {
+            MimeMessage message = entry.toMessage();
+            message.setHeader("Resent-Date", new MailDateFormat().format(new Date()));
+            message.setHeader("Resent-From", message.getHeader("From", ","));
+            FenixSendTracer.mark(FenixSendPhase.MIME_BUILD);
+            deliver(sender, message, null, null);
+            fenixMailMetrics.recordSend(System.nanoTime() - start, true);
+        } catch (MessagingException | MailException e) {
+            fenixMailMetrics.recordSend(System.nanoTime() - start, false);
+            fenixMailMetrics.recordFailure(FenixSmtpException.replyCodeOf(e));
+            throw e;
+        } finally {
+            if (tenant != null) {
+                tenant.release();
+            }
+        }
+    }
+
+    /**
+     * Sends a message once, deferring it after a retryable failure while {@code attempts} allows another one.
+     * <p>
+     * Whether a failure is retryable is decided by {@link FenixSmtpException#isRetryable(Throwable)}, for every
+     * recipient domain on its own, so that sending the message again cannot deliver it twice. The delay starts at
+     * {@code resend.retryBackoffMillis} and doubles with every attempt.
+     * </p>
+     */
+    private void deliver(JavaMailSender sender, MimeMessage message, Instant deadline, Attempts attempts) {
+        checkDeadline(deadline);
+        try {
+            sender.send(message);
+            FenixSendTracer.mark(FenixSendPhase.SMTP_DATA);
+        } catch (MailSendException e) {
+            FenixMailProperties.Resend settings = fenixMailProperties.getResend();
+            if (attempts == null || attempts.failed >= settings.getRetryAttempts() || !FenixSmtpException.isRetryable(e)) {
+                throw e;
+            }
+            fenixMailMetrics.recordFailure(FenixSmtpException.replyCodeOf(e));
+            fenixMailMetrics.recordRetry();
+            long delay = Math.max(0, settings.getRetryBackoffMillis()) << Math.min(attempts.failed++, 16);
+            throw new FenixEmailDeferredException(delay, "Email deferred by " + delay + " ms: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Takes a send slot and a unit of quota of a tenant.
+     * <p>
+     * With {@code attempts}, the send is deferred instead of dropped: by one {@code schedule.tickMillis} if no slot is
+     * free, or until the next quota period if the quota is used up. The quota is taken only by the first attempt
+     * that gets it, so a request counts once however often it is deferred. Without {@code attempts}, the send waits
+     * up to {@code acquireTimeoutMillis} for a slot before it is shed, and it is throttled if the quota is used up.
+     * </p>
+     *
+     * @param name The name of the tenant, or {@code null} for the global sender.
+     * @param attempts The state kept between the attempts of the request, or {@code null} if it is sent only once.
+     * @return The tenant's bulkhead, to be released after the send, or {@code null} if there is no tenant.
+     */
+    private FenixMailTenants.Bulkhead enterTenant(String name, Attempts attempts) {
+        if (name == null) {
+            return null;
+        }
+        FenixMailTenants.Bulkhead tenant = fenixMailTenants.get(name);
+        if (attempts != null ? !tenant.tryAcquireNow() : !tenant.tryAcquire()) {
+            if (attempts != null) {
+                long delay = Math.max(1, fenixMailProperties.getSchedule().getTickMillis());
+                throw new FenixEmailDeferredException(delay, "Email deferred: all " + tenant.getMaxConcurrent()
+                        + " send slots of tenant " + tenant.getName() + " are taken", null);
+            }
+            fenixMailMetrics.recordDropped(FenixEmailOutcome.SHED);
+            throw new FenixEmailDroppedException(FenixEmailOutcome.SHED,
+                    "Email shed: all " + tenant.getMaxConcurrent() + " send slots of tenant " + tenant.getName() + " are taken");
+        }
+        if (attempts != null && attempts.quotaTaken) {
+            return tenant;
+        }
+        if (!tenant.tryConsumeQuota()) {
+            tenant.release();
+            if (attempts != null) {
+                throw new FenixEmailDeferredException(tenant.getMillisUntilQuotaReset(), "Email deferred: tenant "
+                        + tenant.getName() + " used up its quota of " + tenant.getQuota() + " emails", null);
+            }
+            fenixMailMetrics.recordDropped(FenixEmailOutcome.THROTTLED);
+            throw new FenixEmailDroppedException(FenixEmailOutcome.THROTTLED,
+                    "Email throttled: tenant " + tenant.getName() + " used up its quota of " + tenant.getQuota() + " emails");
+        }
+        if (attempts != null) {
+            attempts.quotaTaken = true;
+        }
+        return tenant;
+    }
+
+    private void checkDeadline(Instant deadline) {
+        if (deadline != null && !Instant.now().isBefore(deadline)) {
+            fenixMailMetrics.recordDropped(FenixEmailOutcome.EXPIRED);
+            throw new FenixEmailDroppedException(FenixEmailOutcome.EXPIRED, "Email expired at " + deadline);
+        }
+    }
+
+    /**
+     * What the {@link FenixMailScheduler} keeps of a request between its attempts to send it.
+     */
+    static final class Attempts {
+        private boolean quotaTaken;
+        private int failed;
+        private MimeMessage message;
+    }
+
+    /**
+     * Identifies the body of a message without an attachment, for the DKIM body hash cache.
+     */
+    private record BodyKey(String content, boolean html) {
+    }
 }
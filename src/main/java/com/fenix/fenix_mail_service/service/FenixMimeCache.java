@@ -0,0 +1,145 @@
+package com.fenix.fenix_mail_service.service;
+
+import com.fenix.fenix_mail_service.model.FenixEmailRequest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size-bounded store of serialized MIME messages, kept for retries and resends.
+ * <p>
+ * A built message is serialized once by {@link #store(MimeMessage, FenixEmailRequest)}, and its bytes are kept
+ * under its {@code Message-ID}. Every attempt to send it, including the first, sends a
+ * {@link FenixCachedMimeMessage} parsed from these bytes, so a retry or a resend neither builds nor encodes the
+ * message again. Messages are evicted oldest first once the stored bytes exceed {@code maxBytes}, and are dropped
+ * {@code retentionMillis} after they were stored.
+ * </p>
+ *
+ * <p><b>Complexity:</b></p>
+ * <ul>
+ *     <li>{@link #store(MimeMessage, FenixEmailRequest)} is O(message size), plus O(1) per evicted message.</li>
+ *     <li>{@link #get(String)} is O(1); {@link Entry#toMessage()} parses the stored bytes without copying them.</li>
+ * </ul>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>This class is thread-safe.</li>
+ *     <li>The bytes are kept on the heap, neither in direct buffers nor in a memory-mapped file: every send parses
+ *         them into a {@link MimeMessage}, which reads from a byte array, so bytes kept off the heap would be copied
+ *         back onto it for every attempt. The heap must therefore leave room for {@code maxBytes}. The bytes are
+ *         shared with the messages parsed from them, and the memory of an evicted message is released once none
+ *         of them is in use.</li>
+ *     <li>A message larger than {@code maxBytes} is sent without being stored.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+final class FenixMimeCache {
+
+    private final long maxBytes;
+    private final long retentionMillis;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private long storedBytes;
+
+    FenixMimeCache(long maxBytes, long retentionMillis) {
+        this.maxBytes = maxBytes;
+        this.retentionMillis = retentionMillis;
+    }
+
+    /**
+     * Finalizes and serializes a built message, stores its bytes and returns the message to send in its place.
+     * <p>
+     * The message is finalized like the senders do it, keeping a {@code Message-ID} set while signing.
+     * </p>
+     *
+     * @param message The built (and possibly signed) message.
+     * @param request The request the message was built for, whose recipients, subject and tenant are kept for resends.
+     * @return The message parsed from the serialized bytes.
+     * @throws MessagingException If the message cannot be serialized.
+     */
+    FenixCachedMimeMessage store(MimeMessage message, FenixEmailRequest request) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            message.setHeader("Message-ID", messageId);
+        } else {
+            messageId = message.getMessageID();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            message.writeTo(out);
+        } catch (IOException e) {
+            throw new MessagingException("Failed to serialize message " + messageId, e);
+        }
+        byte[] bytes = out.toByteArray();
+        if (messageId != null && bytes.length <= maxBytes) {
+            put(new Entry(messageId, request.getTo(), request.getSubject(), request.getTenant(), bytes, System.currentTimeMillis()));
+        }
+        return new FenixCachedMimeMessage(bytes);
+    }
+
+    /**
+     * Returns the stored message with the given {@code Message-ID}.
+     *
+     * @return The entry, or {@code null} if the message was never stored, was evicted or has expired.
+     */
+    synchronized Entry get(String messageId) {
+        expire(System.currentTimeMillis());
+        return entries.get(messageId);
+    }
+
+    private synchronized void put(Entry entry) {
+        Entry previous = entries.remove(entry.messageId());
+        if (previous != null) {
+            storedBytes -= previous.data().length;
+        }
+        expire(entry.storedAt());
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (storedBytes + entry.data().length > maxBytes && oldest.hasNext()) {
+            storedBytes -= oldest.next().data().length;
+            oldest.remove();
+        }
+        entries.put(entry.messageId(), entry);
+        storedBytes += entry.data().length;
+    }
+
+    private void expire(long now) {
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (oldest.hasNext()) {
+            Entry entry = oldest.next();
+            if (now - entry.storedAt() < retentionMillis) {
+                return;
+            }
+            storedBytes -= entry.data().length;
+            oldest.remove();
+        }
+    }
+
+    /**
+     * A stored message with the request details needed to log a resend.
+     */
+    record Entry(String messageId, List<String> recipients, String subject, String tenant, byte[] data, long storedAt) {
+
+        /**
+         * Parses the stored bytes into a message ready to send. The bytes are never modified, so they are not copied.
+         *
+         * @throws MessagingException If the stored bytes cannot be parsed.
+         */
+        FenixCachedMimeMessage toMessage() throws MessagingException {
+            return new FenixCachedMimeMessage(data);
+        }
+    }
+}
@@ -0,0 +1,572 @@
+package com.fenix.fenix_mail_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import com.fenix.fenix_mail_service.model.FenixEmailRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service class for a partitioned outbox shared by several nodes through a common spool directory.
+ * <p>
+ * Emails are written to the spool with {@link #enqueue(FenixEmailRequest)} and sent later by whichever
+ * node owns their partition. The partition is chosen from the first recipient, so all emails to one
+ * recipient are sent by one node in the order they were queued. Each node claims a fair share of the
+ * partitions through lease files and hands the emails of its partitions to the {@link FenixMailScheduler}.
+ * Adding a node moves partitions to it; when a node stops renewing its leases, the remaining nodes take
+ * its partitions over once the leases expire.
+ * </p>
+ *
+ * <p><b>Spool Layout:</b></p>
+ * <ul>
+ *     <li>{@code nodes/<nodeId>}: Heartbeat of every node, used to compute the fair share of partitions.</li>
+ *     <li>{@code partition-<n>/lease}: The owner of the partition and the expiry of its lease. It is only read
+ *         and written under a {@link FileChannel} lock.</li>
+ *     <li>{@code partition-<n>/pending}: Queued emails, one JSON file each, named so that they sort in queue order.</li>
+ *     <li>{@code partition-<n>/inflight}: Emails claimed by the owner and handed to the scheduler.</li>
+ *     <li>{@code partition-<n>/failed}: Emails that could not be sent.</li>
+ * </ul>
+ *
+ * <p><b>Delivery Rules:</b></p>
+ * <ul>
+ *     <li>An email is claimed by atomically renaming it from {@code pending} to {@code inflight}, so it is
+ *         claimed at most once even if two nodes briefly both believe they own the partition.</li>
+ *     <li>A node claims emails only while its lease has at least {@code heartbeatMillis} left, and other nodes
+ *         take a partition over only after the lease has expired.</li>
+ *     <li>When a node takes a partition over, it moves the emails left in {@code inflight} back to {@code pending}.</li>
+ *     <li>A partition above the fair share is released only after its emails in flight are done.</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * @Autowired
+ * private FenixOutboxService outboxService;
+ *
+ * public void queueWelcomeEmail(FenixEmailRequest request) {
+ *     String id = outboxService.enqueue(request);
+ *     System.out.println("Queued " + id);
+ * }
+ * }</pre>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>The outbox is disabled unless {@code fenix.spring.mail.outbox.enabled} is {@code true} and
+ *         {@code spool-path} points to a directory that every node can read and write.</li>
+ *     <li>Delivery is exactly once while nodes renew their leases. A node that dies or stalls for longer
+ *         than {@code leaseMillis} while sending can have the emails it had in flight sent again by the
+ *         node taking over (at least once).</li>
+ *     <li>Lease expiry compares wall clocks of different nodes, which must be synchronized to well
+ *         within {@code heartbeatMillis}.</li>
+ *     <li>Attachments are referenced by path and must be readable on every node.</li>
+ *     <li>Any errors while writing to the spool throw a {@link RuntimeException} with the error details.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class FenixOutboxService {
+
+    private static final String NODES = "nodes";
+    private static final String LEASE = "lease";
+    private static final String PENDING = "pending";
+    private static final String INFLIGHT = "inflight";
+    private static final String FAILED = "failed";
+    private static final String TMP = "tmp";
+    private static final String SUFFIX = ".json";
+
+    private final FenixMailScheduler fenixMailScheduler;
+    private final FenixMailProperties fenixMailProperties;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Integer, Partition> owned = new ConcurrentHashMap<>();
+    private final Set<String> claimed = ConcurrentHashMap.newKeySet();
+    private Path spool;
+    private String nodeId;
+    private Semaphore permits;
+    private ScheduledExecutorService coordinator;
+    private volatile boolean running;
+
+    /**
+     * Creates the spool directories and starts claiming partitions, if the outbox is enabled.
+     *
+     * @throws RuntimeException If the spool directories cannot be created.
+     */
+    @PostConstruct
+    public void start() {
+        FenixMailProperties.Outbox settings = fenixMailProperties.getOutbox();
+        if (!settings.isEnabled()) {
+            return;
+        }
+        if (settings.getSpoolPath() == null || settings.getSpoolPath().isBlank()) {
+            throw new IllegalStateException("fenix.spring.mail.outbox.spool-path must be set when the outbox is enabled.");
+        }
+        nodeId = settings.getNodeId() == null || settings.getNodeId().isBlank() ? defaultNodeId() : settings.getNodeId();
+        if (nodeId.chars().anyMatch(Character::isWhitespace) || nodeId.contains("/")) {
+            throw new IllegalStateException("Outbox node id must not contain whitespace or '/': " + nodeId);
+        }
+
+        Path directory = Paths.get(settings.getSpoolPath());
+        try {
+            Files.createDirectories(directory.resolve(NODES));
+            for (int partition = 0; partition < partitionCount(); partition++) {
+                Path partitionDirectory = directory.resolve(partitionName(partition));
+                for (String child : List.of(PENDING, INFLIGHT, FAILED, TMP)) {
+                    Files.createDirectories(partitionDirectory.resolve(child));
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create outbox spool", e);
+        }
+        spool = directory;
+        permits = new Semaphore(Math.max(1, settings.getBatchSize()));
+        running = true;
+
+        coordinator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fenix-mail-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long heartbeatMillis = Math.max(1, settings.getHeartbeatMillis());
+        long pollMillis = Math.max(1, settings.getPollMillis());
+        coordinator.scheduleWithFixedDelay(this::heartbeat, 0, heartbeatMillis, TimeUnit.MILLISECONDS);
+        coordinator.scheduleWithFixedDelay(this::poll, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops claiming emails, waits up to {@code leaseMillis} for the emails in flight and releases the leases.
+     * Queued emails stay in the spool for the other nodes.
+     */
+    @PreDestroy
+    public void stop() {
+        if (coordinator == null) {
+            return;
+        }
+        running = false;
+        coordinator.shutdown();
+        FenixMailProperties.Outbox settings = fenixMailProperties.getOutbox();
+        int batchSize = Math.max(1, settings.getBatchSize());
+        try {
+            coordinator.awaitTermination(settings.getLeaseMillis(), TimeUnit.MILLISECONDS);
+            if (permits.tryAcquire(batchSize, settings.getLeaseMillis(), TimeUnit.MILLISECONDS)) {
+                permits.release(batchSize);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (Partition partition : owned.values()) {
+            if (partition.inFlight.get() == 0) {
+                try {
+                    updateLease(partition.index, 0, false);
+                } catch (IOException e) {
+                    // the lease expires on its own
+                }
+            }
+        }
+        owned.clear();
+        try {
+            Files.deleteIfExists(spool.resolve(NODES).resolve(nodeId));
+        } catch (IOException e) {
+            // the heartbeat expires on its own
+        }
+    }
+
+    /**
+     * Writes an email to the outbox. It is sent by the node owning its partition.
+     *
+     * @param request The {@link FenixEmailRequest} to send (must not be null and must have a recipient).
+     * @return The id of the queued email, which is also the name of its spool file without {@code .json}.
+     * @throws IllegalStateException If the outbox is not enabled.
+     * @throws RuntimeException If the email cannot be written to the spool.
+     */
+    public String enqueue(FenixEmailRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Request must not be null.");
+        }
+        if (request.getTo() == null || request.getTo().isEmpty()) {
+            throw new IllegalArgumentException("Request must have at least one recipient.");
+        }
+        if (spool == null) {
+            throw new IllegalStateException("Mail outbox is not enabled.");
+        }
+
+        String id = String.format("%013d-%s", System.currentTimeMillis(), UUID.randomUUID());
+        Path directory = spool.resolve(partitionName(partitionOf(request.getTo().get(0))));
+        Path temporary = directory.resolve(TMP).resolve(id + SUFFIX);
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(objectMapper.writeValueAsBytes(request));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, directory.resolve(PENDING).resolve(id + SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write email to the outbox", e);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the partition an email to the given recipient is queued in.
+     *
+     * @param recipient The first recipient of the email.
+     * @return A partition between {@code 0} and {@code partitions - 1}.
+     */
+    public int partitionOf(String recipient) {
+        return Math.floorMod(recipient.trim().toLowerCase(Locale.ROOT).hashCode(), partitionCount());
+    }
+
+    /**
+     * Returns the partitions currently leased by this node, in ascending order.
+     */
+    public List<Integer> getOwnedPartitions() {
+        List<Integer> partitions = new ArrayList<>(owned.keySet());
+        Collections.sort(partitions);
+        return partitions;
+    }
+
+    /**
+     * Returns the id this node uses in heartbeats and leases, or {@code null} if the outbox is not enabled.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Renews the heartbeat and the leases of this node, then moves partitions towards the fair share.
+     * Runs on the coordinator thread only.
+     */
+    private void heartbeat() {
+        FenixMailProperties.Outbox settings = fenixMailProperties.getOutbox();
+        long now = System.currentTimeMillis();
+        long expiresAt = now + settings.getLeaseMillis();
+        try {
+            writeNodeHeartbeat(expiresAt);
+        } catch (IOException e) {
+            // retried on the next heartbeat
+        }
+
+        for (Partition partition : owned.values()) {
+            try {
+                if (updateLease(partition.index, expiresAt, false)) {
+                    partition.expiresAt = expiresAt;
+                } else {
+                    owned.remove(partition.index);
+                }
+            } catch (IOException e) {
+                // the lease is not extended, so claiming stops before it expires
+            }
+        }
+
+        int partitions = partitionCount();
+        int liveNodes;
+        try {
+            liveNodes = countLiveNodes(now);
+        } catch (IOException e) {
+            return;
+        }
+        int target = Math.ceilDiv(partitions, liveNodes);
+        int active = (int) owned.values().stream().filter(partition -> !partition.draining).count();
+        if (active < target) {
+            int offset = Math.floorMod(nodeId.hashCode(), partitions);
+            for (int i = 0; i < partitions && active < target; i++) {
+                int index = (offset + i) % partitions;
+                Partition partition = owned.get(index);
+                if (partition != null) {
+                    if (partition.draining) {
+                        partition.draining = false;
+                        active++;
+                    }
+                    continue;
+                }
+                try {
+                    if (updateLease(index, expiresAt, true)) {
+                        requeueInflight(index);
+                        owned.put(index, new Partition(index, expiresAt));
+                        active++;
+                    }
+                } catch (IOException e) {
+                    // tried again on the next heartbeat
+                }
+            }
+        } else if (active > target) {
+            List<Integer> indexes = getOwnedPartitions();
+            for (int i = indexes.size() - 1; i >= 0 && active > target; i--) {
+                Partition partition = owned.get(indexes.get(i));
+                if (!partition.draining) {
+                    partition.draining = true;
+                    active--;
+                }
+            }
+        }
+
+        for (Partition partition : owned.values()) {
+            if (partition.draining && partition.inFlight.get() == 0) {
+                try {
+                    updateLease(partition.index, 0, false);
+                    owned.remove(partition.index);
+                } catch (IOException e) {
+                    // released on the next heartbeat
+                }
+            }
+        }
+    }
+
+    /**
+     * Claims pending emails of the owned partitions and hands them to the scheduler, as long as permits are free.
+     * Runs on the coordinator thread only.
+     */
+    private void poll() {
+        long safetyMillis = fenixMailProperties.getOutbox().getHeartbeatMillis();
+        for (Partition partition : owned.values()) {
+            if (!running || permits.availablePermits() == 0) {
+                return;
+            }
+            if (partition.draining || System.currentTimeMillis() >= partition.expiresAt - safetyMillis) {
+                continue;
+            }
+            Path directory = spool.resolve(partitionName(partition.index));
+            List<String> names;
+            try {
+                names = listNames(directory.resolve(PENDING));
+            } catch (IOException e) {
+                continue;
+            }
+            for (String name : names) {
+                if (!permits.tryAcquire()) {
+                    return;
+                }
+                if (!claim(partition, directory, name)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves one pending email to {@code inflight} and submits it to the scheduler.
+     *
+     * @return {@code false} if the email was not submitted and the permit is still held.
+     */
+    private boolean claim(Partition partition, Path directory, String name) {
+        Path inflight = directory.resolve(INFLIGHT).resolve(name);
+        FenixEmailRequest request;
+        try {
+            Files.move(directory.resolve(PENDING).resolve(name), inflight, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            return false;
+        }
+        try {
+            request = objectMapper.readValue(inflight.toFile(), FenixEmailRequest.class);
+        } catch (IOException e) {
+            moveQuietly(inflight, directory.resolve(FAILED).resolve(name));
+            return false;
+        }
+
+        claimed.add(name);
+        partition.inFlight.incrementAndGet();
+        CompletableFuture<Boolean> future;
+        try {
+            future = fenixMailScheduler.submit(request);
+        } catch (IllegalArgumentException e) {
+            // a request naming an unknown tenant can never be sent
+            moveQuietly(inflight, directory.resolve(FAILED).resolve(name));
+            claimed.remove(name);
+            partition.inFlight.decrementAndGet();
+            return false;
+        } catch (IllegalStateException e) {
+            moveQuietly(inflight, directory.resolve(PENDING).resolve(name));
+            claimed.remove(name);
+            partition.inFlight.decrementAndGet();
+            return false;
+        }
+        future.whenComplete((sent, error) -> complete(partition, directory, name, error == null && Boolean.TRUE.equals(sent)));
+        return true;
+    }
+
+    private void complete(Partition partition, Path directory, String name, boolean sent) {
+        Path inflight = directory.resolve(INFLIGHT).resolve(name);
+        try {
+            if (sent) {
+                Files.deleteIfExists(inflight);
+            } else {
+                // while shutting down, failures go back to the queue for the other nodes
+                moveQuietly(inflight, directory.resolve(running ? FAILED : PENDING).resolve(name));
+            }
+        } catch (IOException e) {
+            // left in inflight and queued again when the partition changes owner
+        } finally {
+            claimed.remove(name);
+            partition.inFlight.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    /**
+     * Moves the emails a previous owner left in flight back to {@code pending}.
+     */
+    private void requeueInflight(int index) throws IOException {
+        Path directory = spool.resolve(partitionName(index));
+        for (String name : listNames(directory.resolve(INFLIGHT))) {
+            if (!claimed.contains(name)) {
+                moveQuietly(directory.resolve(INFLIGHT).resolve(name), directory.resolve(PENDING).resolve(name));
+            }
+        }
+    }
+
+    /**
+     * Reads and updates the lease of a partition under an exclusive file lock.
+     *
+     * @param index The partition.
+     * @param expiresAt The new expiry of the lease, or {@code 0} to release it.
+     * @param acquire Whether a free or expired lease of another node may be taken.
+     * @return {@code true} if this node holds the lease after the update (or released it).
+     */
+    private boolean updateLease(int index, long expiresAt, boolean acquire) throws IOException {
+        Path file = spool.resolve(partitionName(index)).resolve(LEASE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            ByteBuffer buffer = ByteBuffer.allocate(512);
+            while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                // read the whole lease
+            }
+            String[] lease = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8).trim().split(" ");
+            String owner = lease.length == 2 ? lease[0] : "";
+            long ownerExpiresAt = lease.length == 2 ? parseLong(lease[1]) : 0;
+
+            boolean mine = owner.equals(nodeId);
+            boolean free = owner.isEmpty() || ownerExpiresAt <= System.currentTimeMillis();
+            if (!mine && !(acquire && free)) {
+                return false;
+            }
+            String content = expiresAt > 0 ? nodeId + " " + expiresAt : "";
+            channel.truncate(0);
+            channel.write(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)), 0);
+            channel.force(false);
+            return true;
+        }
+    }
+
+    private void writeNodeHeartbeat(long expiresAt) throws IOException {
+        Path nodes = spool.resolve(NODES);
+        Path temporary = nodes.resolve(nodeId + ".tmp");
+        Files.writeString(temporary, Long.toString(expiresAt));
+        Files.move(temporary, nodes.resolve(nodeId), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private int countLiveNodes(long now) throws IOException {
+        int live = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(spool.resolve(NODES))) {
+            for (Path node : stream) {
+                String name = node.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    continue;
+                }
+                try {
+                    if (name.equals(nodeId) || parseLong(Files.readString(node).trim()) > now) {
+                        live++;
+                    }
+                } catch (NoSuchFileException e) {
+                    // the node stopped while listing
+                }
+            }
+        }
+        return Math.max(1, live);
+    }
+
+    private static List<String> listNames(Path directory) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                names.add(file.getFileName().toString());
+            }
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    private static void moveQuietly(Path source, Path target) {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // already moved by a new owner of the partition
+        }
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private int partitionCount() {
+        return Math.max(1, fenixMailProperties.getOutbox().getPartitions());
+    }
+
+    private static String partitionName(int partition) {
+        return String.format("partition-%03d", partition);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "localhost";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+
+    /**
+     * A partition leased by this node.
+     */
+    private static final class Partition {
+        private final int index;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile long expiresAt;
+        private volatile boolean draining;
+
+        private Partition(int index, long expiresAt) {
+            this.index = index;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
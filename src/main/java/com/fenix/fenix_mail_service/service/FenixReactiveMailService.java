@@ -0,0 +1,134 @@
+package com.fenix.fenix_mail_service.service;
+
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import com.fenix.fenix_mail_service.model.FenixEmailLog;
+import com.fenix.fenix_mail_service.model.FenixEmailRequest;
+import com.fenix.fenix_mail_service.model.FenixSendResult;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reactive facade of the Fenix Mail Service.
+ * <p>
+ * This class accepts a {@link Publisher} of {@link FenixEmailRequest} objects and returns a
+ * {@link Flux} with one {@link FenixSendResult} per request. It never blocks the subscribing
+ * thread: every request is submitted to the {@link FenixMailScheduler}, so it is sent by the
+ * scheduler's workers in the lane of its priority, and requests are only pulled from the upstream
+ * publisher as downstream demand and the concurrency limit allow.
+ * </p>
+ *
+ * <p><b>Behavior:</b></p>
+ * <ul>
+ *     <li>At most {@code fenix.spring.mail.reactive.concurrency} requests of one subscription are submitted
+ *         to the scheduler and not completed yet.</li>
+ *     <li>Log entries are collected and written with {@link FenixLogService#saveEmailLogs(List)} in batches of
+ *         up to {@code fenix.spring.mail.reactive.log-batch-size} entries, or after
+ *         {@code fenix.spring.mail.reactive.log-batch-millis}, whichever comes first.</li>
+ *     <li>Results are emitted once the log batch containing them has been written, in completion order.
+ *         {@link FenixSendResult#getRecord()} is the position of the request in the upstream publisher.</li>
+ *     <li>Invalid requests and send failures are reported as unsuccessful results instead of errors,
+ *         so one bad email does not cancel the stream.</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * @Autowired
+ * private FenixReactiveMailService reactiveMailService;
+ *
+ * public Flux<FenixSendResult> sendAll(Flux<FenixEmailRequest> requests) {
+ *     return reactiveMailService.send(requests);
+ * }
+ * }</pre>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>This service is only registered when Project Reactor is on the classpath.</li>
+ *     <li>Log batches are written on {@link Schedulers#boundedElastic()}, because file writes block.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnClass(name = "reactor.core.publisher.Flux")
+public class FenixReactiveMailService {
+
+    private final FenixMailScheduler fenixMailScheduler;
+    private final FenixLogService fenixLogService;
+    private final FenixMailProperties fenixMailProperties;
+    private final Validator validator;
+
+    /**
+     * Sends every email request emitted by the given publisher.
+     *
+     * @param requests The publisher of {@link FenixEmailRequest} objects (must not be null).
+     * @return A {@link Flux} emitting one {@link FenixSendResult} per request.
+     */
+    public Flux<FenixSendResult> send(Publisher<FenixEmailRequest> requests) {
+        FenixMailProperties.Reactive settings = fenixMailProperties.getReactive();
+        int concurrency = Math.max(1, settings.getConcurrency());
+        int batchSize = Math.max(1, settings.getLogBatchSize());
+        Duration batchTime = Duration.ofMillis(Math.max(1, settings.getLogBatchMillis()));
+
+        return Flux.from(requests)
+                .index()
+                .flatMap(indexed -> deliver(indexed.getT1(), indexed.getT2()), concurrency)
+                .bufferTimeout(batchSize, batchTime, true)
+                .concatMap(batch -> Mono.fromRunnable(() -> saveLogs(batch))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .thenMany(Flux.fromIterable(batch).map(Delivery::result)));
+    }
+
+    /**
+     * Sends a single email request.
+     *
+     * @param request The {@link FenixEmailRequest} to send (must not be null).
+     * @return A {@link Mono} emitting the {@link FenixSendResult} of the request.
+     */
+    public Mono<FenixSendResult> send(FenixEmailRequest request) {
+        return send(Mono.just(request)).next();
+    }
+
+    private Mono<Delivery> deliver(long record, FenixEmailRequest request) {
+        Set<ConstraintViolation<FenixEmailRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String error = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            return Mono.just(new Delivery(new FenixSendResult(record, false, error), List.of()));
+        }
+
+        // filled by a scheduler worker and read only after the future completed
+        List<FenixEmailLog> logs = new ArrayList<>(1);
+        return Mono.fromFuture(() -> fenixMailScheduler.submit(request, logs::add))
+                .map(sent -> new Delivery(new FenixSendResult(record, sent, null), logs))
+                .onErrorResume(e -> Mono.just(new Delivery(new FenixSendResult(record, false, e.getMessage()), logs)));
+    }
+
+    private void saveLogs(List<Delivery> batch) {
+        List<FenixEmailLog> logs = new ArrayList<>(batch.size());
+        for (Delivery delivery : batch) {
+            logs.addAll(delivery.logs());
+        }
+        fenixLogService.saveEmailLogs(logs);
+    }
+
+    private record Delivery(FenixSendResult result, List<FenixEmailLog> logs) {
+    }
+}
@@ -0,0 +1,589 @@
+package com.fenix.fenix_mail_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import com.fenix.fenix_mail_service.model.FenixEmailRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service class for delayed and scheduled email delivery.
+ * <p>
+ * This class accepts emails that should be sent at a given instant or after a given delay and
+ * keeps them in a {@link FenixTimingWheel} until they are due. Due emails are released into the
+ * {@link FenixMailScheduler} at a bounded rate per tick, so that a large batch scheduled for the
+ * same minute enters the send path smoothly instead of as a single spike.
+ * </p>
+ *
+ * <p><b>Persistence:</b></p>
+ * <p>
+ * When {@code fenix.spring.mail.schedule.journal-path} is set, every scheduled email is appended to
+ * a journal file as one JSON line, followed later by a cancel, release or drop record. Pending emails only
+ * keep the position of their journal line in memory and are read back when they are released. On
+ * startup the journal is replayed, compacted to the emails that are still pending, and emails whose
+ * time passed while the application was down are released immediately. Without a journal path,
+ * scheduled emails are kept in memory only.
+ * </p>
+ *
+ * <p><b>Key Methods:</b></p>
+ * <ul>
+ *     <li>{@link #sendAt(FenixEmailRequest, Instant)}: Schedules an email for a point in time.</li>
+ *     <li>{@link #sendAfter(FenixEmailRequest, Duration)}: Schedules an email after a delay.</li>
+ *     <li>{@link #cancel(long)}: Cancels a pending email.</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * @Autowired
+ * private FenixScheduledMailService scheduledMailService;
+ *
+ * public void scheduleEmails(FenixEmailRequest welcome, FenixEmailRequest digest) {
+ *     scheduledMailService.sendAfter(welcome, Duration.ofMinutes(30));
+ *
+ *     Instant nineAm = LocalDate.now().plusDays(1).atTime(9, 0).atZone(ZoneId.of("Europe/Zagreb")).toInstant();
+ *     long id = scheduledMailService.sendAt(digest, nineAm);
+ *     scheduledMailService.cancel(id);
+ * }
+ * }</pre>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>Scheduling and cancellation are O(1).</li>
+ *     <li>Emails are released with a precision of one tick ({@code schedule.tick-millis}).</li>
+ *     <li>{@code sendAt} and {@code cancel} return once their record is on disk. Callers writing at the same
+ *         time share one force of the journal, and the records written by a tick are forced once per tick.</li>
+ *     <li>Due emails are handed to the scheduler outside the service lock. An email the scheduler accepted
+ *         gets a release record; one it refused or dropped right away gets a drop record and is logged.</li>
+ *     <li>If the scheduler cannot take a due email (for example while it is not running), the error is
+ *         logged and the email is released again on a later tick.</li>
+ *     <li>Any errors during journal operations throw a {@link RuntimeException} with the error details.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FenixScheduledMailService {
+
+    private static final String OP_SCHEDULE = "S";
+    private static final String OP_CANCEL = "C";
+    private static final String OP_RELEASE = "R";
+    private static final String OP_DROP = "D";
+
+    private final FenixMailScheduler fenixMailScheduler;
+    private final FenixMailProperties fenixMailProperties;
+    private final ObjectMapper objectMapper;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, FenixTimingWheel.Node<ScheduledMail>> pending = new HashMap<>();
+    private final ArrayDeque<ScheduledMail> ready = new ArrayDeque<>();
+    private final Object syncLock = new Object();
+    private FenixTimingWheel<ScheduledMail> wheel;
+    private ScheduledExecutorService ticker;
+    private volatile FileChannel journal;
+    private long nextId = 1;
+    private long garbageRecords;
+    private int releasing;
+    private volatile long writtenRecords;
+    private long syncedRecords;
+
+    /**
+     * Restores the pending emails from the journal and starts the ticker.
+     *
+     * @throws RuntimeException If the journal cannot be read or compacted.
+     */
+    @PostConstruct
+    public void start() {
+        FenixMailProperties.Schedule settings = fenixMailProperties.getSchedule();
+        wheel = new FenixTimingWheel<>(toTick(System.currentTimeMillis()));
+
+        if (isPersistent()) {
+            try {
+                recover(Paths.get(settings.getJournalPath()));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read schedule journal", e);
+            }
+        }
+
+        long tickMillis = Math.max(1, settings.getTickMillis());
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fenix-mail-schedule");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the ticker and closes the journal. Pending emails stay in the journal.
+     */
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdown();
+            try {
+                // a running tick syncs the journal outside the lock, so let it finish before closing
+                ticker.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        lock.lock();
+        try {
+            if (journal != null) {
+                journal.close();
+                journal = null;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close schedule journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Schedules an email to be sent at the given instant.
+     * <p>
+     * Instants in the past are released on the next tick.
+     * </p>
+     *
+     * @param request The {@link FenixEmailRequest} to send (must not be null).
+     * @param sendAt The instant at which the email should be sent (must not be null).
+     * @return The id of the scheduled email, usable with {@link #cancel(long)}.
+     * @throws RuntimeException If the email cannot be written to the journal.
+     */
+    public long sendAt(FenixEmailRequest request, Instant sendAt) {
+        if (request == null) {
+            throw new IllegalArgumentException("Request must not be null.");
+        }
+        if (sendAt == null) {
+            throw new IllegalArgumentException("Send time must not be null.");
+        }
+
+        long dueAt = sendAt.toEpochMilli();
+        long id;
+        long record = 0;
+        lock.lock();
+        try {
+            id = nextId++;
+            ScheduledMail mail = new ScheduledMail(id);
+            if (isPersistent()) {
+                mail.position = journal.position();
+                mail.length = write(journal, new JournalRecord(OP_SCHEDULE, id, dueAt, request));
+                record = ++writtenRecords;
+            } else {
+                mail.request = request;
+            }
+            enqueue(mail, dueAt);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write to schedule journal", e);
+        } finally {
+            lock.unlock();
+        }
+        sync(record);
+        return id;
+    }
+
+    /**
+     * Schedules an email to be sent after the given delay.
+     *
+     * @param request The {@link FenixEmailRequest} to send (must not be null).
+     * @param delay The delay after which the email should be sent (must not be null or negative).
+     * @return The id of the scheduled email, usable with {@link #cancel(long)}.
+     * @throws RuntimeException If the email cannot be written to the journal.
+     */
+    public long sendAfter(FenixEmailRequest request, Duration delay) {
+        if (delay == null || delay.isNegative()) {
+            throw new IllegalArgumentException("Delay must not be null or negative.");
+        }
+        return sendAt(request, Instant.now().plus(delay));
+    }
+
+    /**
+     * Cancels a scheduled email that has not been released yet.
+     *
+     * @param id The id returned by {@link #sendAt(FenixEmailRequest, Instant)} or
+     *           {@link #sendAfter(FenixEmailRequest, Duration)}.
+     * @return {@code true} if the email was pending and is now cancelled.
+     * @throws RuntimeException If the cancellation cannot be written to the journal.
+     */
+    public boolean cancel(long id) {
+        long record = 0;
+        lock.lock();
+        try {
+            FenixTimingWheel.Node<ScheduledMail> node = pending.get(id);
+            if (node == null || !wheel.cancel(node)) {
+                return false;
+            }
+            pending.remove(id);
+            if (isPersistent()) {
+                record = append(new JournalRecord(OP_CANCEL, id, 0, null));
+                garbageRecords += 2;
+            }
+        } finally {
+            lock.unlock();
+        }
+        sync(record);
+        return true;
+    }
+
+    /**
+     * Returns the number of scheduled emails that have not been released yet.
+     *
+     * @return The number of pending emails.
+     */
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return wheel.size() + ready.size() + releasing;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void tick() {
+        try {
+            List<ScheduledMail> batch = new ArrayList<>();
+            lock.lock();
+            try {
+                wheel.advance(toTick(System.currentTimeMillis()), mail -> {
+                    pending.remove(mail.id);
+                    ready.addLast(mail);
+                });
+                int budget = Math.max(1, fenixMailProperties.getSchedule().getMaxReleasePerTick());
+                while (budget-- > 0 && !ready.isEmpty()) {
+                    batch.add(ready.pollFirst());
+                }
+                releasing = batch.size();
+            } finally {
+                lock.unlock();
+            }
+
+            // the scheduler and the journal reads are called without the lock, so sendAt and cancel never wait for them
+            List<String> outcomes = new ArrayList<>(batch.size());
+            for (ScheduledMail mail : batch) {
+                String outcome = release(mail);
+                if (outcome == null) {
+                    break;
+                }
+                outcomes.add(outcome);
+            }
+
+            long record = 0;
+            lock.lock();
+            try {
+                List<ScheduledMail> retry = batch.subList(outcomes.size(), batch.size());
+                if (!retry.isEmpty()) {
+                    // the email that failed goes to the end, so it does not hold up the emails behind it
+                    ready.addLast(retry.get(0));
+                    for (int i = retry.size() - 1; i > 0; i--) {
+                        ready.addFirst(retry.get(i));
+                    }
+                }
+                releasing = 0;
+                if (isPersistent()) {
+                    for (int i = 0; i < outcomes.size(); i++) {
+                        record = journalOutcome(batch.get(i), outcomes.get(i));
+                    }
+                    if (garbageRecords > fenixMailProperties.getSchedule().getCompactionThreshold()
+                            && garbageRecords > pending.size()) {
+                        compact(Paths.get(fenixMailProperties.getSchedule().getJournalPath()));
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            sync(record);
+        } catch (RuntimeException | IOException e) {
+            // keep the ticker alive, the next tick tries again
+            log.error("Scheduled email tick failed", e);
+        }
+    }
+
+    /**
+     * Hands a due email to the scheduler. Called by the ticker without holding {@link #lock}.
+     *
+     * @return {@link #OP_RELEASE} if the scheduler queued the email, {@link #OP_DROP} if it refused the email,
+     *         or {@code null} if the email could not be handed over and must be released again on a later tick.
+     */
+    private String release(ScheduledMail mail) {
+        try {
+            FenixEmailRequest request = isPersistent() ? read(mail).getRequest() : mail.request;
+            CompletableFuture<Boolean> future = fenixMailScheduler.submit(request);
+            if (future.isCompletedExceptionally()) {
+                log.warn("Scheduled email {} was dropped by the scheduler", mail.id, future.exceptionNow());
+                return OP_DROP;
+            }
+            return OP_RELEASE;
+        } catch (IllegalArgumentException e) {
+            log.error("Scheduled email {} was refused by the scheduler", mail.id, e);
+            return OP_DROP;
+        } catch (RuntimeException e) {
+            log.error("Failed to release scheduled email {}, retrying on a later tick", mail.id, e);
+            return null;
+        }
+    }
+
+    /**
+     * Appends the release or drop record of an email handed to the scheduler. Must be called while holding
+     * {@link #lock}.
+     *
+     * @return The number of the record, or {@code 0} if it could not be written.
+     */
+    private long journalOutcome(ScheduledMail mail, String op) {
+        try {
+            long record = append(new JournalRecord(op, mail.id, 0, null));
+            garbageRecords += 2;
+            return record;
+        } catch (RuntimeException e) {
+            // the email was handed over; without its record it is only sent again after a restart
+            log.error("Failed to journal the release of scheduled email {}", mail.id, e);
+            return 0;
+        }
+    }
+
+    private void enqueue(ScheduledMail mail, long dueAt) {
+        FenixTimingWheel.Node<ScheduledMail> node = wheel.schedule(toTick(dueAt), mail);
+        if (node == null) {
+            ready.addLast(mail);
+        } else {
+            pending.put(mail.id, node);
+        }
+    }
+
+    private void recover(Path path) throws IOException {
+        Map<Long, JournalRecord> live = new LinkedHashMap<>();
+        if (Files.exists(path)) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+                byte[] line;
+                while ((line = readLine(in)) != null) {
+                    if (line.length == 0) {
+                        continue;
+                    }
+                    JournalRecord record = objectMapper.readValue(line, JournalRecord.class);
+                    nextId = Math.max(nextId, record.getId() + 1);
+                    if (OP_SCHEDULE.equals(record.getOp())) {
+                        live.put(record.getId(), record);
+                    } else {
+                        live.remove(record.getId());
+                    }
+                }
+            }
+        }
+
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (JournalRecord record : live.values()) {
+                ScheduledMail mail = new ScheduledMail(record.getId());
+                mail.position = out.position();
+                mail.length = write(out, record);
+                enqueue(mail, record.getDueAt());
+            }
+            out.force(true);
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        journal.position(journal.size());
+    }
+
+    /**
+     * Rewrites the journal with the pending emails only. Must be called while holding {@link #lock}.
+     */
+    private void compact(Path path) throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (FenixTimingWheel.Node<ScheduledMail> node : pending.values()) {
+                copy(node.getValue(), out);
+            }
+            for (ScheduledMail mail : ready) {
+                copy(mail, out);
+            }
+            out.force(true);
+        }
+        journal.close();
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        journal.position(journal.size());
+        garbageRecords = 0;
+    }
+
+    private void copy(ScheduledMail mail, FileChannel out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(mail.length);
+        journal.read(buffer, mail.position);
+        buffer.flip();
+        mail.position = out.position();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * Appends a record to the journal without forcing it. Must be called while holding {@link #lock}.
+     *
+     * @return The number of the record, to be passed to {@link #sync(long)}.
+     */
+    private long append(JournalRecord record) {
+        try {
+            write(journal, record);
+            return ++writtenRecords;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write to schedule journal", e);
+        }
+    }
+
+    /**
+     * Waits until the journal is forced up to the given record, without holding {@link #lock}.
+     * <p>
+     * One caller forces the journal for every record written so far, and the callers that waited for it
+     * find their records already on disk (group commit).
+     * </p>
+     *
+     * @param record The number returned by {@link #append(JournalRecord)}, or {@code 0} for nothing.
+     * @throws RuntimeException If the journal cannot be forced.
+     */
+    private void sync(long record) {
+        if (record == 0) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedRecords >= record) {
+                return;
+            }
+            long written = writtenRecords;
+            try {
+                while (true) {
+                    FileChannel channel = journal;
+                    try {
+                        if (channel == null) {
+                            throw new ClosedChannelException();
+                        }
+                        channel.force(false);
+                        break;
+                    } catch (ClosedChannelException e) {
+                        // a compaction replaced the journal after forcing the records it kept
+                        if (journal == channel || journal == null) {
+                            throw e;
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write to schedule journal", e);
+            }
+            syncedRecords = written;
+        }
+    }
+
+    private int write(FileChannel channel, JournalRecord record) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(record);
+        ByteBuffer buffer = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n');
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return json.length + 1;
+    }
+
+    private JournalRecord read(ScheduledMail mail) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(mail.length);
+            while (buffer.hasRemaining() && journal.read(buffer, mail.position + buffer.position()) >= 0) {
+                // keep reading until the whole record is in the buffer
+            }
+            return objectMapper.readValue(buffer.array(), 0, buffer.position(), JournalRecord.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read from schedule journal", e);
+        }
+    }
+
+    private static byte[] readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                return line.toByteArray();
+            }
+            line.write(b);
+        }
+        return line.size() == 0 ? null : line.toByteArray();
+    }
+
+    private boolean isPersistent() {
+        String journalPath = fenixMailProperties.getSchedule().getJournalPath();
+        return journalPath != null && !journalPath.isBlank();
+    }
+
+    private long toTick(long epochMillis) {
+        return Math.floorDiv(epochMillis, Math.max(1, fenixMailProperties.getSchedule().getTickMillis()));
+    }
+
+    /**
+     * A pending email. Persistent schedules keep only the journal position of the request.
+     */
+    private static final class ScheduledMail {
+        private final long id;
+        private long position;
+        private int length;
+        private FenixEmailRequest request;
+
+        private ScheduledMail(long id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * One line of the schedule journal.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    private static final class JournalRecord {
+        private String op;
+        private long id;
+        private long dueAt;
+        private FenixEmailRequest request;
+
+        private JournalRecord(String op, long id, long dueAt, FenixEmailRequest request) {
+            this.op = op;
+            this.id = id;
+            this.dueAt = dueAt;
+            this.request = request;
+        }
+    }
+}
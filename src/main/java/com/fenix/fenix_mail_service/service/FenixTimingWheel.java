@@ -0,0 +1,194 @@
+package com.fenix.fenix_mail_service.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel used to hold scheduled emails until they are due.
+ * <p>
+ * Time is divided into ticks. The wheel has {@value #LEVELS} levels of {@value #SLOTS} slots; a slot
+ * on level {@code n} spans {@code 64^n} ticks. An entry is placed on the lowest level that can hold
+ * its deadline and moves down one level each time the wheel reaches the start of its slot, until it
+ * fires from level 0. Deadlines further away than the top level can represent are parked in the
+ * farthest top-level slot and re-inserted when that slot is reached.
+ * </p>
+ *
+ * <p><b>Complexity:</b></p>
+ * <ul>
+ *     <li>{@link #schedule(long, Object)} and {@link #cancel(Node)} are O(1).</li>
+ *     <li>Each entry is re-inserted at most once per level while the wheel advances.</li>
+ *     <li>Every pending entry costs one {@link Node} (two links, a deadline and the value).</li>
+ * </ul>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>This class is not thread-safe; callers must guard it with their own lock.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ *
+ * @param <T> The type of value held by each entry.
+ */
+final class FenixTimingWheel<T> {
+
+    static final int LEVELS = 5;
+    static final int SLOTS = 64;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final Node<T>[][] slots;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    FenixTimingWheel(long startTick) {
+        this.currentTick = startTick;
+        this.slots = new Node[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Node<T> sentinel = new Node<>(0, null);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                slots[level][slot] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Adds an entry to the wheel.
+     *
+     * @param deadlineTick The tick at which the entry becomes due.
+     * @param value The value to hold.
+     * @return The node of the entry, or {@code null} if the deadline is not in the future.
+     */
+    Node<T> schedule(long deadlineTick, T value) {
+        if (deadlineTick <= currentTick) {
+            return null;
+        }
+        Node<T> node = new Node<>(deadlineTick, value);
+        insert(node);
+        size++;
+        return node;
+    }
+
+    /**
+     * Removes a pending entry from the wheel.
+     *
+     * @param node The node returned by {@link #schedule(long, Object)}.
+     * @return {@code true} if the entry was still pending.
+     */
+    boolean cancel(Node<T> node) {
+        if (node == null || node.next == null) {
+            return false;
+        }
+        unlink(node);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel up to and including {@code nowTick}, passing every due value to {@code due}.
+     *
+     * @param nowTick The current tick.
+     * @param due Receives the values of the entries that became due, in deadline order per tick.
+     */
+    void advance(long nowTick, Consumer<T> due) {
+        while (currentTick < nowTick) {
+            if (size == 0) {
+                currentTick = nowTick;
+                return;
+            }
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(slots[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)], due);
+                }
+            }
+            drain(slots[0][(int) (currentTick & SLOT_MASK)], due);
+        }
+    }
+
+    long getCurrentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void insert(Node<T> node) {
+        long delta = node.deadlineTick - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < (1L << (SLOT_BITS * (level + 1)))) {
+                link(slots[level][(int) ((node.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK)], node);
+                return;
+            }
+        }
+        int top = LEVELS - 1;
+        link(slots[top][(int) (((currentTick >>> (SLOT_BITS * top)) - 1) & SLOT_MASK)], node);
+    }
+
+    private void cascade(Node<T> sentinel, Consumer<T> due) {
+        Node<T> node = sentinel.next;
+        while (node != sentinel) {
+            Node<T> next = node.next;
+            unlink(node);
+            if (node.deadlineTick <= currentTick) {
+                size--;
+                due.accept(node.value);
+            } else {
+                insert(node);
+            }
+            node = next;
+        }
+    }
+
+    private void drain(Node<T> sentinel, Consumer<T> due) {
+        Node<T> node = sentinel.next;
+        while (node != sentinel) {
+            Node<T> next = node.next;
+            unlink(node);
+            size--;
+            due.accept(node.value);
+            node = next;
+        }
+    }
+
+    private void link(Node<T> sentinel, Node<T> node) {
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    private void unlink(Node<T> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    /**
+     * A pending entry of the wheel.
+     */
+    static final class Node<T> {
+        private final long deadlineTick;
+        private final T value;
+        private Node<T> prev;
+        private Node<T> next;
+
+        private Node(long deadlineTick, T value) {
+            this.deadlineTick = deadlineTick;
+            this.value = value;
+        }
+
+        long getDeadlineTick() {
+            return deadlineTick;
+        }
+
+        T getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.fenix.fenix_mail_service.service;
+
+import com.fenix.fenix_mail_service.component.FenixSendTracer;
+import com.fenix.fenix_mail_service.model.FenixSendPhase;
+import jakarta.activation.DataSource;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Attachment data source that reports the time spent reading the attachment to the {@link FenixSendTracer}.
+ * <p>
+ * Jakarta Mail reads attachments lazily, while the message is encoded and transmitted. Timing the
+ * reads themselves attributes that time to {@link FenixSendPhase#ATTACHMENT} instead of the phase
+ * that happened to trigger them.
+ * </p>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+class FenixTracedDataSource implements DataSource {
+
+    private final DataSource delegate;
+
+    FenixTracedDataSource(DataSource delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        long start = System.nanoTime();
+        InputStream in = delegate.getInputStream();
+        FenixSendTracer.addNested(FenixSendPhase.ATTACHMENT, System.nanoTime() - start);
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                long start = System.nanoTime();
+                int b = super.read();
+                FenixSendTracer.addNested(FenixSendPhase.ATTACHMENT, System.nanoTime() - start);
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                long start = System.nanoTime();
+                int read = super.read(b, off, len);
+                FenixSendTracer.addNested(FenixSendPhase.ATTACHMENT, System.nanoTime() - start);
+                return read;
+            }
+        };
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        return delegate.getOutputStream();
+    }
+
+    @Override
+    public String getContentType() {
+        return delegate.getContentType();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+}
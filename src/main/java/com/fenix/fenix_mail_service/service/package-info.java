@@ -11,6 +11,14 @@
  * <ul>
  *     <li>{@link com.fenix.fenix_mail_service.service.FenixMailService}</li>
  *     <li>{@link com.fenix.fenix_mail_service.service.FenixLogService}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.service.FenixLogListener}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.service.FenixLogRowVisitor}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.service.FenixEmailDroppedException}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.service.FenixMailScheduler}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.service.FenixScheduledMailService}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.service.FenixBulkMailService}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.service.FenixReactiveMailService}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.service.FenixOutboxService}</li>
  * </ul>
  *
  * <p><b>Class Descriptions:</b></p>
@@ -21,6 +29,7 @@
  *     <li>Sending plain text or HTML emails.</li>
  *     <li>Adding optional attachments to emails.</li>
  *     <li>Logging email activity into a JSON file for auditing purposes.</li>
+ *     <li>Retrying transient failures and resending recent messages from their serialized bytes.</li>
  * </ul>
  *
  * <p><b>FenixLogService:</b></p>
@@ -28,9 +37,52 @@
  * <ul>
  *     <li>Maintains a log of all sent emails in a JSON file.</li>
  *     <li>Provides methods to save and read email logs.</li>
+ *     <li>Publishes new entries as a change feed, by byte offset and to in-process {@code FenixLogListener}s.</li>
+ *     <li>Answers recent-window queries from a columnar in-memory ring buffer of the newest entries.</li>
  *     <li>Ensures that logs are written in a structured format for easy retrieval and analysis.</li>
  * </ul>
  *
+ * <p><b>FenixMailScheduler:</b></p>
+ * This service queues emails in priority lanes in front of {@code FenixMailService}:
+ * <ul>
+ *     <li>Separate lanes for critical, transactional and bulk mail.</li>
+ *     <li>Weighted fair sharing of a bounded number of SMTP workers between the lanes.</li>
+ *     <li>Starvation protection so that low-priority lanes still make progress.</li>
+ *     <li>Load shedding of low-priority lanes and of emails that would expire before they are reached.</li>
+ * </ul>
+ *
+ * <p><b>FenixScheduledMailService:</b></p>
+ * This service holds emails that should be sent later:
+ * <ul>
+ *     <li>{@code sendAt} and {@code sendAfter} with O(1) scheduling and cancellation on a hierarchical timing wheel.</li>
+ *     <li>An optional on-disk journal so that pending emails survive restarts.</li>
+ *     <li>Rate-limited release of due emails into the {@code FenixMailScheduler}.</li>
+ * </ul>
+ *
+ * <p><b>FenixBulkMailService:</b></p>
+ * This service sends emails read from large NDJSON files:
+ * <ul>
+ *     <li>Incremental parsing and validation of {@code FenixEmailRequest} records with bounded memory.</li>
+ *     <li>Per-record results written to a results stream.</li>
+ *     <li>A checkpoint file for resuming a partially processed input.</li>
+ * </ul>
+ *
+ * <p><b>FenixReactiveMailService:</b></p>
+ * This service is a non-blocking facade for reactive applications (requires Project Reactor):
+ * <ul>
+ *     <li>Accepts a {@code Publisher<FenixEmailRequest>} and emits a {@code Flux<FenixSendResult>}.</li>
+ *     <li>Honors downstream demand and sends through the {@code FenixMailScheduler} lanes.</li>
+ *     <li>Writes email logs in batches.</li>
+ * </ul>
+ *
+ * <p><b>FenixOutboxService:</b></p>
+ * This service queues emails in a spool directory shared by several nodes:
+ * <ul>
+ *     <li>Emails are hashed by recipient into a fixed number of partitions.</li>
+ *     <li>Nodes lease a fair share of the partitions through lease files with heartbeats and {@code FileChannel} locks.</li>
+ *     <li>Partitions of a stopped node are taken over once its leases expire.</li>
+ * </ul>
+ *
  * <p><b>Integration:</b></p>
  * <p>
  * These services are Spring-managed beans and can be injected into other
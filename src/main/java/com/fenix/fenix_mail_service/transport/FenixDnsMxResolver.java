@@ -0,0 +1,98 @@
+package com.fenix.fenix_mail_service.transport;
+
+import javax.naming.Context;
+import javax.naming.NameNotFoundException;
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.InitialDirContext;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link FenixMxResolver} that looks up {@code MX} records through the JDK's JNDI DNS provider.
+ * <p>
+ * Hosts are returned in order of preference. A domain without {@code MX} records is its own mail
+ * exchanger (RFC 5321, section 5.1), and a null {@code MX} record ({@code "0 ."}, RFC 7505) yields an
+ * empty list. Results are cached for {@code cacheMillis}, since JNDI does not expose record TTLs.
+ * </p>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>The system's DNS servers are used.</li>
+ *     <li>Unknown domains and lookup failures throw a {@link RuntimeException} and are not cached.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+public class FenixDnsMxResolver implements FenixMxResolver {
+
+    private final long cacheMillis;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    public FenixDnsMxResolver(long cacheMillis) {
+        this.cacheMillis = cacheMillis;
+    }
+
+    @Override
+    public List<String> resolve(String domain) {
+        long now = System.currentTimeMillis();
+        Entry entry = cache.get(domain);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.hosts;
+        }
+        List<String> hosts = lookup(domain);
+        if (cacheMillis > 0) {
+            cache.put(domain, new Entry(hosts, now + cacheMillis));
+        }
+        return hosts;
+    }
+
+    private static List<String> lookup(String domain) {
+        Hashtable<String, String> environment = new Hashtable<>();
+        environment.put(Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.dns.DnsContextFactory");
+        try {
+            DirContext context = new InitialDirContext(environment);
+            try {
+                Attribute records = context.getAttributes(domain, new String[]{"MX"}).get("MX");
+                if (records == null || records.size() == 0) {
+                    return List.of(domain);
+                }
+                List<Record> exchangers = new ArrayList<>(records.size());
+                NamingEnumeration<?> values = records.getAll();
+                while (values.hasMore()) {
+                    String[] parts = values.next().toString().trim().split("\\s+");
+                    if (parts.length != 2) {
+                        continue;
+                    }
+                    String host = parts[1].endsWith(".") ? parts[1].substring(0, parts[1].length() - 1) : parts[1];
+                    if (host.isEmpty()) {
+                        return List.of();
+                    }
+                    exchangers.add(new Record(Integer.parseInt(parts[0]), host));
+                }
+                exchangers.sort(Comparator.comparingInt(Record::preference));
+                return exchangers.stream().map(Record::host).toList();
+            } finally {
+                context.close();
+            }
+        } catch (NameNotFoundException e) {
+            throw new RuntimeException("Domain does not exist: " + domain, e);
+        } catch (NamingException | NumberFormatException e) {
+            throw new RuntimeException("Failed to resolve MX records of " + domain, e);
+        }
+    }
+
+    private record Record(int preference, String host) {
+    }
+
+    private record Entry(List<String> hosts, long expiresAt) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.fenix.fenix_mail_service.transport;
+
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
+import jakarta.mail.NoSuchProviderException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.URLName;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * {@link JavaMailSenderImpl} of the {@code JAVAMAIL} transport engine that reports SMTP timings to {@link FenixMailMetrics}.
+ * <p>
+ * The SMTP dialogue is unchanged; plain {@code smtp} connections are opened with a {@link FenixSmtpTransport},
+ * which measures the connection setup, each mail transaction and the size of the transmitted data.
+ * Other protocols (for example {@code smtps}) use the regular Jakarta Mail transport without SMTP timings.
+ * </p>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+public class FenixJavaMailSender extends JavaMailSenderImpl {
+
+    private final FenixMailMetrics fenixMailMetrics;
+
+    public FenixJavaMailSender(FenixMailMetrics fenixMailMetrics) {
+        this.fenixMailMetrics = fenixMailMetrics;
+    }
+
+    @Override
+    protected Transport getTransport(Session session) throws NoSuchProviderException {
+        String protocol = getProtocol();
+        if (protocol == null) {
+            protocol = session.getProperty("mail.transport.protocol");
+        }
+        if (protocol == null || DEFAULT_PROTOCOL.equals(protocol)) {
+            return new FenixSmtpTransport(session, new URLName(DEFAULT_PROTOCOL, null, -1, null, null, null), fenixMailMetrics);
+        }
+        return super.getTransport(session);
+    }
+}
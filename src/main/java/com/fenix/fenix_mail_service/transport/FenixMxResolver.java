@@ -0,0 +1,37 @@
+package com.fenix.fenix_mail_service.transport;
+
+import java.util.List;
+
+/**
+ * Resolves the mail exchangers of a recipient domain for direct-to-MX delivery.
+ * <p>
+ * The {@link FenixRoutingMailSender} asks the resolver for every domain routed to {@code mx}. The
+ * default implementation is the {@link FenixDnsMxResolver}; an application (or a test) replaces it by
+ * declaring its own {@code FenixMxResolver} bean, for example a stub that points every domain at a
+ * local SMTP server.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * @Bean
+ * public FenixMxResolver fenixMxResolver() {
+ *     return domain -> List.of("127.0.0.1");
+ * }
+ * }</pre>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@FunctionalInterface
+public interface FenixMxResolver {
+
+    /**
+     * Returns the hosts accepting mail for a domain, most preferred first.
+     *
+     * @param domain The recipient domain, in lower case.
+     * @return The mail exchanger host names, or an empty list if the domain does not accept mail.
+     * @throws RuntimeException If the domain cannot be resolved.
+     */
+    List<String> resolve(String domain);
+}
@@ -0,0 +1,145 @@
+package com.fenix.fenix_mail_service.transport;
+
+import com.fenix.fenix_mail_service.component.FenixSendTracer;
+import com.fenix.fenix_mail_service.model.FenixSendPhase;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * {@link org.springframework.mail.javamail.JavaMailSender} that delivers messages through a {@link FenixNioSmtpClient}.
+ * <p>
+ * Messages are still created and built with the regular Spring and Jakarta Mail API, so callers do not
+ * change. Only the SMTP dialogue is replaced: each message is serialized once and handed to the
+ * non-blocking client. When several messages are passed to one {@code send} call, they are all queued
+ * before waiting, so they travel over pooled connections in parallel.
+ * </p>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>The envelope sender is the first {@code From} address, or {@code mail.smtp.from} if it is set.</li>
+ *     <li>{@code Bcc} headers are removed from the transmitted message, as Jakarta Mail does.</li>
+ *     <li>Failures are reported as a {@link MailSendException} whose causes are {@link FenixSmtpException}s.</li>
+ *     <li>For the {@link FenixSendTracer}, serializing the messages counts as {@link FenixSendPhase#MIME_BUILD} and
+ *         waiting for the server as {@link FenixSendPhase#SMTP_DATA}; pooled connections are not timed per send.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+public class FenixNioMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private static final String[] IGNORED_HEADERS = {"Bcc", "Content-Length"};
+
+    private final FenixNioSmtpClient client;
+
+    public FenixNioMailSender(FenixNioSmtpClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Serializes the given messages and sends them through the NIO client, waiting for all of them to complete.
+     */
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(mimeMessages.length);
+
+        for (int i = 0; i < mimeMessages.length; i++) {
+            Object original = originalMessages != null ? originalMessages[i] : mimeMessages[i];
+            try {
+                futures.add(sendAsync(mimeMessages[i]));
+            } catch (MessagingException | IOException | RuntimeException e) {
+                futures.add(null);
+                failedMessages.put(original, e);
+            }
+        }
+        FenixSendTracer.mark(FenixSendPhase.MIME_BUILD);
+
+        for (int i = 0; i < futures.size(); i++) {
+            if (futures.get(i) == null) {
+                continue;
+            }
+            Object original = originalMessages != null ? originalMessages[i] : mimeMessages[i];
+            try {
+                futures.get(i).get();
+            } catch (ExecutionException e) {
+                failedMessages.put(original, e.getCause() instanceof Exception cause ? cause : e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failedMessages.put(original, e);
+            }
+        }
+
+        FenixSendTracer.mark(FenixSendPhase.SMTP_DATA);
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    /**
+     * Serializes a message and queues it on the NIO client without waiting for the result.
+     *
+     * @param message The message to send.
+     * @return A future completed when the server accepted the message.
+     * @throws MessagingException If the message headers or recipients cannot be read.
+     * @throws IOException If the message cannot be serialized.
+     */
+    public CompletableFuture<Void> sendAsync(MimeMessage message) throws MessagingException, IOException {
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            message.setHeader("Message-ID", messageId);
+        }
+
+        Address[] recipients = message.getAllRecipients();
+        if (recipients == null || recipients.length == 0) {
+            throw new MessagingException("No recipient addresses");
+        }
+        List<String> envelopeRecipients = new ArrayList<>(recipients.length);
+        for (Address recipient : recipients) {
+            envelopeRecipients.add(recipient instanceof InternetAddress internet ? internet.getAddress() : recipient.toString());
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        message.writeTo(out, IGNORED_HEADERS);
+        return client.send(envelopeSender(message), envelopeRecipients, out.toByteArray());
+    }
+
+    /**
+     * Closes the NIO client and its connections.
+     */
+    @Override
+    public void destroy() {
+        client.close();
+    }
+
+    private String envelopeSender(MimeMessage message) throws MessagingException {
+        String configured = getJavaMailProperties().getProperty("mail.smtp.from");
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+        Address[] from = message.getFrom();
+        if (from != null && from.length > 0 && from[0] instanceof InternetAddress internet) {
+            return internet.getAddress();
+        }
+        return "";
+    }
+}
@@ -0,0 +1,445 @@
+package com.fenix.fenix_mail_service.transport;
+
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import lombok.Getter;
+
+import javax.net.ssl.SSLContext;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking SMTP client that multiplexes pooled connections to one relay on a few selector threads.
+ * <p>
+ * Each send is queued as a job and handed to an idle connection, or a new connection is opened
+ * while fewer than {@code maxConnections} are open. Connections are spread over
+ * {@code nioThreads} selector threads, so the number of threads does not grow with the number of
+ * concurrent SMTP dialogues. Calling threads are never blocked; every send returns a
+ * {@link CompletableFuture}.
+ * </p>
+ *
+ * <p><b>Protocol Support:</b></p>
+ * <ul>
+ *     <li>ESMTP {@code EHLO} with fallback to {@code HELO}.</li>
+ *     <li>{@code PIPELINING} (RFC 2920): {@code MAIL FROM}, all {@code RCPT TO} commands and {@code DATA}
+ *         are written in a single batch, turning one round-trip per command into one per message.</li>
+ *     <li>{@code STARTTLS} through an {@link javax.net.ssl.SSLEngine}, when enabled and offered by the server.</li>
+ *     <li>{@code AUTH PLAIN} and {@code AUTH LOGIN}.</li>
+ *     <li>Connection reuse across messages, with idle connections closed after {@code idleTimeoutMillis}.</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * FenixNioSmtpClient client = new FenixNioSmtpClient("smtp.example.com", 587, "user", "secret",
+ *         true, true, properties.getTransport(), FenixMailMetrics.noop()).start();
+ * client.send("no-reply@example.com", List.of("recipient@example.com"), mimeBytes).join();
+ * client.close();
+ * }</pre>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>Message bytes must be a complete RFC 5322 message with CRLF line endings, as produced by
+ *         {@code MimeMessage.writeTo}. Dot-stuffing is done by the client.</li>
+ *     <li>If some recipients are rejected, the message is still delivered to the accepted ones and the
+ *         future completes exceptionally with a {@link FenixPartialDeliveryException} listing both.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+public class FenixNioSmtpClient implements Closeable {
+
+    private static final byte[] DATA_TERMINATOR = {'.', '\r', '\n'};
+
+    @Getter
+    private final String host;
+    @Getter
+    private final int port;
+    final String username;
+    final String password;
+    final boolean auth;
+    final boolean starttls;
+    final long connectTimeoutNanos;
+    final long readTimeoutNanos;
+    final long idleTimeoutNanos;
+    final String heloName;
+    final SSLContext sslContext;
+    final FenixMailMetrics metrics;
+
+    private final int maxConnections;
+    private final Worker[] workers;
+    private final AtomicInteger nextWorker = new AtomicInteger();
+    private final ArrayDeque<Job> pending = new ArrayDeque<>();
+    private final ArrayDeque<FenixNioSmtpConnection> idle = new ArrayDeque<>();
+    private int open;
+    private volatile boolean started;
+    private volatile boolean closed;
+
+    /**
+     * Creates a client for one SMTP relay. No thread is started until {@link #start()} is called.
+     *
+     * @param host The SMTP server host.
+     * @param port The SMTP server port.
+     * @param username The username for SMTP authentication.
+     * @param password The password for SMTP authentication.
+     * @param auth Whether to authenticate after the greeting.
+     * @param starttls Whether to upgrade connections with {@code STARTTLS} when the server offers it.
+     * @param settings The transport settings (threads, pool size, timeouts).
+     * @param metrics The metrics receiving connection, transaction and message size measurements.
+     * @throws RuntimeException If TLS is not available.
+     */
+    public FenixNioSmtpClient(String host, int port, String username, String password, boolean auth, boolean starttls,
+                              FenixMailProperties.Transport settings, FenixMailMetrics metrics) {
+        this(host, port, username, password, auth, starttls, settings, metrics, defaultSslContext());
+    }
+
+    /**
+     * Creates a client that verifies servers against the given TLS context instead of the JVM default.
+     */
+    FenixNioSmtpClient(String host, int port, String username, String password, boolean auth, boolean starttls,
+                       FenixMailProperties.Transport settings, FenixMailMetrics metrics, SSLContext sslContext) {
+        this.host = host;
+        this.port = port;
+        this.username = username == null ? "" : username;
+        this.password = password == null ? "" : password;
+        this.auth = auth;
+        this.starttls = starttls;
+        this.maxConnections = Math.max(1, settings.getMaxConnections());
+        this.connectTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(settings.getConnectTimeoutMillis());
+        this.readTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(settings.getReadTimeoutMillis());
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(settings.getIdleTimeoutMillis());
+        this.metrics = metrics;
+        this.heloName = localHostName();
+        this.sslContext = sslContext;
+        this.workers = new Worker[Math.max(1, settings.getNioThreads())];
+    }
+
+    /**
+     * Opens the selectors and starts the selector threads. Must be called once, before the first send.
+     *
+     * @return This client.
+     * @throws IllegalStateException If the client was already started or closed.
+     * @throws RuntimeException If the selectors cannot be opened.
+     */
+    public synchronized FenixNioSmtpClient start() {
+        if (started || closed) {
+            throw new IllegalStateException("SMTP client was already started or closed");
+        }
+        for (int i = 0; i < workers.length; i++) {
+            try {
+                workers[i] = new Worker(Selector.open());
+            } catch (IOException e) {
+                close();
+                throw new RuntimeException("Failed to open selector", e);
+            }
+            Thread thread = new Thread(workers[i], "fenix-smtp-nio-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        started = true;
+        return this;
+    }
+
+    /**
+     * Queues a message for delivery.
+     *
+     * @param from The envelope sender address.
+     * @param recipients The envelope recipient addresses (must not be empty).
+     * @param message The complete message bytes with CRLF line endings.
+     * @return A future completed when the server accepted the message, or exceptionally with a
+     *         {@link FenixSmtpException} if it was rejected or the dialogue failed.
+     */
+    public CompletableFuture<Void> send(String from, List<String> recipients, byte[] message) {
+        if (recipients == null || recipients.isEmpty()) {
+            throw new IllegalArgumentException("Recipient list must not be null or empty.");
+        }
+        Job job = new Job(from == null ? "" : from, List.copyOf(recipients), dotStuff(message));
+        dispatch(job);
+        return job.future;
+    }
+
+    /**
+     * Hands a job to an idle connection, or queues it and opens a new connection if the pool allows.
+     */
+    void dispatch(Job job) {
+        if (closed || !started) {
+            job.future.completeExceptionally(new FenixSmtpException(0,
+                    closed ? "SMTP client is closed" : "SMTP client is not started"));
+            return;
+        }
+
+        FenixNioSmtpConnection connection = null;
+        boolean connect = false;
+        synchronized (this) {
+            if (!idle.isEmpty()) {
+                connection = idle.pollFirst();
+            } else {
+                pending.addLast(job);
+                if (open < maxConnections) {
+                    open++;
+                    connect = true;
+                }
+            }
+        }
+
+        if (connection != null) {
+            FenixNioSmtpConnection target = connection;
+            target.getWorker().execute(target, () -> target.begin(job));
+        } else if (connect) {
+            connect();
+        }
+    }
+
+    /**
+     * Closes all connections and stops the selector threads. Queued messages fail.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        List<Job> abandoned;
+        synchronized (this) {
+            abandoned = new ArrayList<>(pending);
+            pending.clear();
+        }
+        for (Job job : abandoned) {
+            job.future.completeExceptionally(new FenixSmtpException(0, "SMTP client is closed"));
+        }
+        for (Worker worker : workers) {
+            if (worker != null) {
+                worker.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Returns whether the client has neither open connections nor queued messages, so that closing it loses nothing.
+     *
+     * @return {@code true} if the client is unused.
+     */
+    public synchronized boolean isUnused() {
+        return open == 0 && pending.isEmpty();
+    }
+
+    /**
+     * Called by a connection that finished its setup or its previous message.
+     * Must be called on the worker thread of the connection.
+     */
+    void onReady(FenixNioSmtpConnection connection) {
+        Job job;
+        synchronized (this) {
+            job = pending.pollFirst();
+            if (job == null) {
+                connection.markIdle(System.nanoTime());
+                idle.addLast(connection);
+                return;
+            }
+        }
+        connection.begin(job);
+    }
+
+    /**
+     * Removes an idle connection from the pool, so that it can be closed.
+     *
+     * @return {@code true} if the connection was idle and is now owned by the caller.
+     */
+    synchronized boolean retire(FenixNioSmtpConnection connection) {
+        return idle.remove(connection);
+    }
+
+    /**
+     * Called once by a connection after it has been closed.
+     */
+    void onClosed(FenixNioSmtpConnection connection, boolean wasReady, Throwable cause) {
+        List<Job> failed = List.of();
+        boolean reconnect = false;
+        synchronized (this) {
+            open--;
+            idle.remove(connection);
+            if (!wasReady && open == 0) {
+                failed = new ArrayList<>(pending);
+                pending.clear();
+            } else if (wasReady && !closed && !pending.isEmpty() && open < maxConnections) {
+                open++;
+                reconnect = true;
+            }
+        }
+        for (Job job : failed) {
+            job.future.completeExceptionally(cause instanceof FenixSmtpException
+                    ? cause : new FenixSmtpException("Failed to connect to " + host + ":" + port, cause));
+        }
+        if (reconnect) {
+            connect();
+        }
+    }
+
+    private void connect() {
+        Worker worker = workers[Math.floorMod(nextWorker.getAndIncrement(), workers.length)];
+        InetSocketAddress address = new InetSocketAddress(host, port);
+        FenixNioSmtpConnection connection = new FenixNioSmtpConnection(this, worker);
+        worker.execute(connection, () -> {
+            worker.connections.add(connection);
+            connection.connect(address);
+        });
+    }
+
+    private static ByteBuffer dotStuff(byte[] message) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(message.length + message.length / 64 + 8);
+        boolean lineStart = true;
+        for (byte b : message) {
+            if (lineStart && b == '.') {
+                out.write('.');
+            }
+            out.write(b);
+            lineStart = b == '\n';
+        }
+        if (!lineStart) {
+            out.write('\r');
+            out.write('\n');
+        }
+        out.write(DATA_TERMINATOR, 0, DATA_TERMINATOR.length);
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+
+    private static SSLContext defaultSslContext() {
+        try {
+            return SSLContext.getDefault();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("TLS is not available", e);
+        }
+    }
+
+    /**
+     * One message waiting for or being sent over a connection.
+     */
+    static final class Job {
+        final String from;
+        final List<String> recipients;
+        final ByteBuffer data;
+        final int size;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Job(String from, List<String> recipients, ByteBuffer data) {
+            this.from = from;
+            this.recipients = recipients;
+            this.data = data;
+            this.size = data.remaining();
+        }
+    }
+
+    /**
+     * A selector thread. All state of the connections registered with it is only touched on this thread.
+     * <p>
+     * An unexpected exception thrown while handling one connection fails that connection only; the thread keeps
+     * serving the other connections.
+     * </p>
+     */
+    static final class Worker implements Runnable {
+        final Selector selector;
+        final Set<FenixNioSmtpConnection> connections = new HashSet<>();
+        private final ConcurrentLinkedQueue<Task> tasks = new ConcurrentLinkedQueue<>();
+        private volatile boolean running = true;
+
+        private Worker(Selector selector) {
+            this.selector = selector;
+        }
+
+        /**
+         * Runs a task on this thread. If the task throws, the given connection is failed.
+         */
+        void execute(FenixNioSmtpConnection connection, Runnable action) {
+            tasks.add(new Task(connection, action));
+            selector.wakeup();
+        }
+
+        private void shutdown() {
+            execute(null, () -> running = false);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select(250);
+
+                    Task task;
+                    while ((task = tasks.poll()) != null) {
+                        guard(task.connection(), task.action());
+                    }
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        FenixNioSmtpConnection connection = (FenixNioSmtpConnection) key.attachment();
+                        guard(connection, () -> connection.onSelected(key));
+                    }
+
+                    long now = System.nanoTime();
+                    for (FenixNioSmtpConnection connection : new ArrayList<>(connections)) {
+                        guard(connection, () -> connection.checkTimeouts(now));
+                    }
+                }
+            } catch (IOException e) {
+                // the selector itself failed; close everything below
+            } finally {
+                for (FenixNioSmtpConnection connection : new ArrayList<>(connections)) {
+                    connection.fail(new FenixSmtpException(0, "SMTP client is closed"));
+                }
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    // nothing left to release
+                }
+            }
+        }
+
+        /**
+         * Runs an action for one connection, failing only that connection if the action throws.
+         */
+        private void guard(FenixNioSmtpConnection connection, Runnable action) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                if (connection == null) {
+                    return;
+                }
+                try {
+                    connection.fail(e instanceof FenixSmtpException ? e
+                            : new FenixSmtpException("SMTP connection failed unexpectedly", e));
+                } catch (RuntimeException suppressed) {
+                    // the connection is beyond repair; the other connections of this thread go on
+                }
+            }
+        }
+
+        private record Task(FenixNioSmtpConnection connection, Runnable action) {
+        }
+    }
+}
@@ -0,0 +1,683 @@
+package com.fenix.fenix_mail_service.transport;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * State machine of one SMTP connection of a {@link FenixNioSmtpClient}.
+ * <p>
+ * All methods run on the selector thread of the owning worker. The connection reads replies into
+ * a line buffer, reacts to each complete reply according to its current {@link State}, and queues
+ * outgoing bytes that are written whenever the socket accepts them. Once {@code STARTTLS} succeeds,
+ * all traffic is passed through an {@link SSLEngine}.
+ * </p>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+final class FenixNioSmtpConnection {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private enum State {
+        CONNECTING, GREETING, EHLO, HELO, STARTTLS, HANDSHAKE, AUTH, READY, TRANSACTION, DATA, RSET, QUIT, CLOSED
+    }
+
+    private final FenixNioSmtpClient client;
+    private final FenixNioSmtpClient.Worker worker;
+    private final ArrayDeque<ByteBuffer> plainOut = new ArrayDeque<>();
+    private final StringBuilder lines = new StringBuilder();
+    private final StringBuilder replyText = new StringBuilder();
+    private final Set<String> extensions = new HashSet<>();
+
+    private SocketChannel channel;
+    private SelectionKey key;
+    private State state = State.CONNECTING;
+    private boolean everReady;
+    private long deadline;
+    private long idleSince;
+    private long connectStarted;
+    private long transmitStarted;
+
+    private SSLEngine ssl;
+    private ByteBuffer netIn = ByteBuffer.allocate(8192);
+    private ByteBuffer netOut = ByteBuffer.allocate(0);
+    private ByteBuffer appIn = ByteBuffer.allocate(0);
+
+    private String authMechanism;
+    private int authStep;
+
+    private FenixNioSmtpClient.Job job;
+    private int replyIndex;
+    private int sentIndex;
+    private List<String> accepted;
+    private List<String> rejected;
+    private List<String> rejectedReplies;
+    private FenixSmtpException failure;
+    private boolean aborted;
+
+    FenixNioSmtpConnection(FenixNioSmtpClient client, FenixNioSmtpClient.Worker worker) {
+        this.client = client;
+        this.worker = worker;
+    }
+
+    FenixNioSmtpClient.Worker getWorker() {
+        return worker;
+    }
+
+    void connect(InetSocketAddress address) {
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            key = channel.register(worker.selector, SelectionKey.OP_CONNECT, this);
+            connectStarted = System.nanoTime();
+            deadline = connectStarted + client.connectTimeoutNanos;
+            if (channel.connect(address)) {
+                onConnected();
+            }
+        } catch (IOException e) {
+            fail(new FenixSmtpException("Failed to connect to " + client.getHost() + ":" + client.getPort(), e));
+        }
+    }
+
+    /**
+     * Starts sending a message. If the connection was closed in the meantime, the job is handed back to the client.
+     */
+    void begin(FenixNioSmtpClient.Job job) {
+        if (state != State.READY) {
+            client.dispatch(job);
+            return;
+        }
+        this.job = job;
+        transmitStarted = System.nanoTime();
+        replyIndex = 0;
+        accepted = new ArrayList<>();
+        rejected = new ArrayList<>();
+        rejectedReplies = new ArrayList<>();
+        failure = null;
+        aborted = false;
+        state = State.TRANSACTION;
+
+        if (extensions.contains("PIPELINING")) {
+            for (int i = 0; i < commandCount(); i++) {
+                queue(command(i));
+            }
+            sentIndex = commandCount();
+        } else {
+            queue(command(0));
+            sentIndex = 1;
+        }
+        awaitReply();
+        flushSafely();
+    }
+
+    void markIdle(long now) {
+        idleSince = now;
+    }
+
+    void onSelected(SelectionKey selected) {
+        try {
+            if (!selected.isValid()) {
+                return;
+            }
+            if (selected.isConnectable()) {
+                if (channel.finishConnect()) {
+                    onConnected();
+                }
+                return;
+            }
+            if (selected.isWritable()) {
+                if (state == State.HANDSHAKE) {
+                    handshake();
+                } else {
+                    flush();
+                }
+            }
+            if (selected.isReadable()) {
+                onReadable();
+            }
+        } catch (IOException | RuntimeException e) {
+            fail(e instanceof FenixSmtpException smtp ? smtp
+                    : new FenixSmtpException("SMTP connection to " + client.getHost() + " failed", e));
+        }
+    }
+
+    void checkTimeouts(long now) {
+        if (state == State.CLOSED) {
+            return;
+        }
+        if (state == State.READY) {
+            if (now - idleSince >= client.idleTimeoutNanos && client.retire(this)) {
+                state = State.QUIT;
+                queue("QUIT");
+                awaitReply();
+                flushSafely();
+            }
+            return;
+        }
+        if (now - deadline >= 0) {
+            fail(new FenixSmtpException(0, "Timed out waiting for SMTP server " + client.getHost() + " in state " + state));
+        }
+    }
+
+    void fail(Throwable cause) {
+        if (state == State.CLOSED) {
+            return;
+        }
+        boolean wasReady = everReady;
+        // the message data was queued, so the server may have accepted it before the connection broke
+        boolean dataSent = state == State.DATA && !aborted;
+        state = State.CLOSED;
+        worker.connections.remove(this);
+        if (key != null) {
+            key.cancel();
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // already failing
+            }
+        }
+        if (job != null) {
+            FenixNioSmtpClient.Job failed = job;
+            job = null;
+            failed.future.completeExceptionally(dataSent
+                    ? new FenixSmtpException("SMTP connection to " + client.getHost()
+                            + " failed after the message data was sent", cause, true)
+                    : cause);
+        }
+        client.onClosed(this, wasReady, cause);
+    }
+
+    private void onConnected() {
+        state = State.GREETING;
+        key.interestOps(SelectionKey.OP_READ);
+        awaitReply();
+    }
+
+    private void onReadable() throws IOException {
+        int read = channel.read(netIn);
+        if (read < 0) {
+            throw new FenixSmtpException(0, "SMTP server " + client.getHost() + " closed the connection");
+        }
+        if (state == State.HANDSHAKE) {
+            handshake();
+            if (state == State.HANDSHAKE) {
+                return;
+            }
+        }
+
+        if (ssl != null) {
+            unwrap();
+        } else {
+            netIn.flip();
+            lines.append(StandardCharsets.ISO_8859_1.decode(netIn));
+            netIn.clear();
+        }
+        parseReplies();
+    }
+
+    private void parseReplies() throws IOException {
+        int end;
+        while (state != State.CLOSED && state != State.HANDSHAKE && (end = lines.indexOf("\n")) >= 0) {
+            String line = lines.substring(0, end).stripTrailing();
+            lines.delete(0, end + 1);
+            if (line.length() < 3) {
+                throw new FenixSmtpException(0, "Malformed SMTP reply: " + line);
+            }
+
+            if (replyText.length() > 0) {
+                replyText.append('\n');
+            }
+            replyText.append(line.length() > 4 ? line.substring(4) : "");
+            if (line.length() > 3 && line.charAt(3) == '-') {
+                continue;
+            }
+
+            int code;
+            try {
+                code = Integer.parseInt(line.substring(0, 3));
+            } catch (NumberFormatException e) {
+                throw new FenixSmtpException(0, "Malformed SMTP reply: " + line);
+            }
+            String text = replyText.toString();
+            replyText.setLength(0);
+            onReply(code, text);
+        }
+    }
+
+    private void onReply(int code, String text) throws IOException {
+        switch (state) {
+            case GREETING -> {
+                if (code != 220) {
+                    throw new FenixSmtpException(code, "SMTP server rejected the connection: " + code + " " + text);
+                }
+                ehlo();
+            }
+            case EHLO -> {
+                if (code != 250) {
+                    state = State.HELO;
+                    queue("HELO " + client.heloName);
+                    awaitReply();
+                    flush();
+                    return;
+                }
+                extensions.clear();
+                authMechanism = null;
+                String[] capabilities = text.split("\n");
+                for (int i = 1; i < capabilities.length; i++) {
+                    String capability = capabilities[i].trim().toUpperCase(Locale.ROOT);
+                    if (capability.startsWith("AUTH ") || capability.startsWith("AUTH=")) {
+                        String mechanisms = " " + capability.substring(5) + " ";
+                        authMechanism = mechanisms.contains(" PLAIN ") ? "PLAIN" : mechanisms.contains(" LOGIN ") ? "LOGIN" : authMechanism;
+                    } else {
+                        extensions.add(capability.split(" ")[0]);
+                    }
+                }
+                if (client.starttls && ssl == null && extensions.contains("STARTTLS")) {
+                    state = State.STARTTLS;
+                    queue("STARTTLS");
+                    awaitReply();
+                    flush();
+                } else {
+                    authenticate();
+                }
+            }
+            case HELO -> {
+                if (code != 250) {
+                    throw new FenixSmtpException(code, "SMTP server rejected HELO: " + code + " " + text);
+                }
+                extensions.clear();
+                authenticate();
+            }
+            case STARTTLS -> {
+                if (code != 220) {
+                    throw new FenixSmtpException(code, "SMTP server rejected STARTTLS: " + code + " " + text);
+                }
+                startTls();
+            }
+            case AUTH -> onAuthReply(code, text);
+            case TRANSACTION -> onTransactionReply(code, text);
+            case DATA -> onDataReply(code, text);
+            case RSET -> {
+                if (code != 250) {
+                    throw new FenixSmtpException(code, "SMTP server rejected RSET: " + code + " " + text);
+                }
+                ready();
+            }
+            case QUIT -> fail(new FenixSmtpException(0, "Connection closed after QUIT"));
+            default -> throw new FenixSmtpException(code, "Unexpected SMTP reply: " + code + " " + text);
+        }
+    }
+
+    private void ehlo() throws IOException {
+        state = State.EHLO;
+        queue("EHLO " + client.heloName);
+        awaitReply();
+        flush();
+    }
+
+    private void authenticate() throws IOException {
+        if (!client.auth || client.username.isEmpty()) {
+            ready();
+            return;
+        }
+        if (authMechanism == null) {
+            throw new FenixSmtpException(0, "SMTP server does not offer AUTH PLAIN or AUTH LOGIN");
+        }
+        state = State.AUTH;
+        authStep = 0;
+        if ("PLAIN".equals(authMechanism)) {
+            queue("AUTH PLAIN " + base64("\0" + client.username + "\0" + client.password));
+        } else {
+            queue("AUTH LOGIN");
+        }
+        awaitReply();
+        flush();
+    }
+
+    private void onAuthReply(int code, String text) throws IOException {
+        if (code == 235) {
+            ready();
+            return;
+        }
+        if (code == 334 && "LOGIN".equals(authMechanism) && authStep < 2) {
+            queue(base64(authStep++ == 0 ? client.username : client.password));
+            awaitReply();
+            flush();
+            return;
+        }
+        throw new FenixSmtpException(code, "SMTP authentication failed: " + code + " " + text);
+    }
+
+    private void ready() {
+        state = State.READY;
+        if (!everReady) {
+            client.metrics.recordConnect(System.nanoTime() - connectStarted);
+        }
+        everReady = true;
+        client.onReady(this);
+    }
+
+    private void onTransactionReply(int code, String text) throws IOException {
+        int index = replyIndex++;
+        int recipients = job.recipients.size();
+
+        if (index == 0) {
+            if (code != 250) {
+                failure = new FenixSmtpException(code, "MAIL FROM rejected: " + code + " " + text);
+            }
+        } else if (index <= recipients) {
+            if (code == 250 || code == 251) {
+                accepted.add(job.recipients.get(index - 1));
+            } else {
+                rejected.add(job.recipients.get(index - 1));
+                rejectedReplies.add(job.recipients.get(index - 1) + " (" + code + " " + text + ")");
+                if (failure == null || failure.getReplyCode() == 0) {
+                    failure = new FenixSmtpException(code, "RCPT TO rejected: " + code + " " + text);
+                }
+            }
+        } else {
+            if (code == 354) {
+                state = State.DATA;
+                if (!accepted.isEmpty() && !isMailRejected()) {
+                    queue(job.data.duplicate());
+                } else {
+                    aborted = true;
+                    queue(".");
+                }
+                awaitReply();
+                flush();
+            } else {
+                finish(failure != null ? failure : new FenixSmtpException(code, "DATA rejected: " + code + " " + text));
+                reset();
+            }
+            return;
+        }
+
+        if (sentIndex < commandCount() && replyIndex == sentIndex) {
+            if (isMailRejected() || (sentIndex == commandCount() - 1 && accepted.isEmpty())) {
+                finish(failure);
+                reset();
+                return;
+            }
+            queue(command(sentIndex++));
+            awaitReply();
+            flush();
+        } else {
+            awaitReply();
+        }
+    }
+
+    private void onDataReply(int code, String text) throws IOException {
+        if (aborted) {
+            finish(failure != null ? failure : new FenixSmtpException(code, "No recipient was accepted"));
+            reset();
+            return;
+        }
+        if (code != 250) {
+            finish(new FenixSmtpException(code, "Message rejected: " + code + " " + text));
+            ready();
+            return;
+        }
+        if (!rejected.isEmpty()) {
+            finish(new FenixPartialDeliveryException(failure.getReplyCode(), "Message accepted for " + accepted.size()
+                    + " of " + job.recipients.size() + " recipients; rejected: " + String.join(", ", rejectedReplies),
+                    accepted, rejected));
+        } else {
+            finish(null);
+        }
+        ready();
+    }
+
+    private boolean isMailRejected() {
+        return failure != null && failure.getMessage().startsWith("MAIL FROM");
+    }
+
+    private void finish(FenixSmtpException error) {
+        FenixNioSmtpClient.Job finished = job;
+        job = null;
+        client.metrics.recordTransmit(System.nanoTime() - transmitStarted);
+        client.metrics.recordMessageSize(finished.size);
+        if (error == null) {
+            finished.future.complete(null);
+        } else {
+            finished.future.completeExceptionally(error);
+        }
+    }
+
+    private void reset() throws IOException {
+        state = State.RSET;
+        queue("RSET");
+        awaitReply();
+        flush();
+    }
+
+    private int commandCount() {
+        return job.recipients.size() + 2;
+    }
+
+    private String command(int index) {
+        if (index == 0) {
+            return "MAIL FROM:<" + job.from + ">";
+        }
+        if (index <= job.recipients.size()) {
+            return "RCPT TO:<" + job.recipients.get(index - 1) + ">";
+        }
+        return "DATA";
+    }
+
+    private void awaitReply() {
+        deadline = System.nanoTime() + client.readTimeoutNanos;
+    }
+
+    private void queue(String command) {
+        plainOut.addLast(ByteBuffer.wrap((command + "\r\n").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void queue(ByteBuffer data) {
+        plainOut.addLast(data);
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            fail(e instanceof FenixSmtpException smtp ? smtp
+                    : new FenixSmtpException("SMTP connection to " + client.getHost() + " failed", e));
+        }
+    }
+
+    /**
+     * Writes as much queued data as the socket accepts, encrypting it first once TLS is active.
+     */
+    private void flush() throws IOException {
+        while (true) {
+            if (netOut.hasRemaining()) {
+                channel.write(netOut);
+                if (netOut.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+
+            ByteBuffer source = plainOut.peekFirst();
+            if (source == null || state == State.HANDSHAKE) {
+                key.interestOps(SelectionKey.OP_READ);
+                return;
+            }
+
+            if (ssl == null) {
+                channel.write(source);
+                if (source.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            } else {
+                wrap(source);
+            }
+            if (!source.hasRemaining()) {
+                plainOut.pollFirst();
+            }
+        }
+    }
+
+    private void startTls() throws IOException {
+        ssl = client.sslContext.createSSLEngine(client.getHost(), client.getPort());
+        ssl.setUseClientMode(true);
+        SSLParameters parameters = ssl.getSSLParameters();
+        parameters.setEndpointIdentificationAlgorithm("HTTPS");
+        ssl.setSSLParameters(parameters);
+
+        int packetSize = ssl.getSession().getPacketBufferSize();
+        ByteBuffer received = ByteBuffer.allocate(Math.max(packetSize, netIn.capacity()));
+        netIn.flip();
+        received.put(netIn);
+        netIn = received;
+        netOut = ByteBuffer.allocate(packetSize);
+        netOut.flip();
+        appIn = ByteBuffer.allocate(ssl.getSession().getApplicationBufferSize());
+        lines.setLength(0);
+
+        state = State.HANDSHAKE;
+        ssl.beginHandshake();
+        awaitReply();
+        handshake();
+    }
+
+    private void handshake() throws IOException {
+        while (true) {
+            switch (ssl.getHandshakeStatus()) {
+                case NEED_TASK -> {
+                    Runnable task;
+                    while ((task = ssl.getDelegatedTask()) != null) {
+                        task.run();
+                    }
+                }
+                case NEED_WRAP -> {
+                    if (netOut.hasRemaining()) {
+                        channel.write(netOut);
+                        if (netOut.hasRemaining()) {
+                            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                            return;
+                        }
+                    }
+                    wrap(EMPTY);
+                }
+                case NEED_UNWRAP, NEED_UNWRAP_AGAIN -> {
+                    netIn.flip();
+                    SSLEngineResult result = ssl.unwrap(netIn, appIn);
+                    netIn.compact();
+                    if (result.getStatus() == SSLEngineResult.Status.BUFFER_UNDERFLOW) {
+                        if (!netIn.hasRemaining()) {
+                            netIn = enlarge(netIn, ssl.getSession().getPacketBufferSize());
+                        }
+                        flushHandshake();
+                        return;
+                    }
+                    if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+                        appIn = enlarge(appIn, ssl.getSession().getApplicationBufferSize());
+                    } else if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+                        throw new FenixSmtpException(0, "TLS handshake with " + client.getHost() + " was closed");
+                    }
+                }
+                default -> {
+                    if (!flushHandshake()) {
+                        return;
+                    }
+                    ehlo();
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean flushHandshake() throws IOException {
+        if (netOut.hasRemaining()) {
+            channel.write(netOut);
+        }
+        key.interestOps(netOut.hasRemaining() ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        return !netOut.hasRemaining();
+    }
+
+    private void wrap(ByteBuffer source) throws SSLException {
+        while (true) {
+            netOut.compact();
+            SSLEngineResult result = ssl.wrap(source, netOut);
+            netOut.flip();
+            if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+                ByteBuffer larger = ByteBuffer.allocate(netOut.remaining() + ssl.getSession().getPacketBufferSize());
+                larger.put(netOut);
+                larger.flip();
+                netOut = larger;
+                continue;
+            }
+            if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+                throw new FenixSmtpException(0, "TLS session with " + client.getHost() + " was closed");
+            }
+            return;
+        }
+    }
+
+    private void unwrap() throws IOException {
+        netIn.flip();
+        while (netIn.hasRemaining()) {
+            SSLEngineResult result = ssl.unwrap(netIn, appIn);
+            if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+                appIn = enlarge(appIn, ssl.getSession().getApplicationBufferSize());
+                continue;
+            }
+            if (result.getStatus() == SSLEngineResult.Status.BUFFER_UNDERFLOW) {
+                break;
+            }
+            if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+                throw new FenixSmtpException(0, "TLS session with " + client.getHost() + " was closed");
+            }
+            if (result.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_TASK) {
+                Runnable task;
+                while ((task = ssl.getDelegatedTask()) != null) {
+                    task.run();
+                }
+            }
+            if (result.bytesConsumed() == 0 && result.bytesProduced() == 0) {
+                break;
+            }
+        }
+        netIn.compact();
+        if (!netIn.hasRemaining()) {
+            netIn = enlarge(netIn, ssl.getSession().getPacketBufferSize());
+        }
+
+        appIn.flip();
+        lines.append(StandardCharsets.ISO_8859_1.decode(appIn));
+        appIn.clear();
+    }
+
+    private static ByteBuffer enlarge(ByteBuffer buffer, int minimumExtra) {
+        ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() + Math.max(minimumExtra, buffer.capacity()));
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    private static String base64(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
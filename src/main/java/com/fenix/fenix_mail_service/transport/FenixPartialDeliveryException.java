@@ -0,0 +1,86 @@
+package com.fenix.fenix_mail_service.transport;
+
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.InternetAddress;
+import lombok.Getter;
+import org.springframework.mail.MailSendException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Signals that a message was delivered to some of its recipients only.
+ * <p>
+ * The message has been accepted for the {@code acceptedRecipients}, so it must not be sent to them again.
+ * Only the {@code failedRecipients} are missing it. The {@code replyCode} is the one of the first failure,
+ * and the failures themselves are attached as suppressed exceptions.
+ * </p>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@Getter
+public class FenixPartialDeliveryException extends FenixSmtpException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<String> acceptedRecipients;
+    private final transient List<String> failedRecipients;
+
+    public FenixPartialDeliveryException(int replyCode, String message, List<String> acceptedRecipients,
+                                         List<String> failedRecipients) {
+        super(replyCode, message);
+        this.acceptedRecipients = List.copyOf(acceptedRecipients);
+        this.failedRecipients = List.copyOf(failedRecipients);
+    }
+
+    /**
+     * Finds the partial delivery behind a send failure, searching it like {@link #replyCodeOf(Throwable)}.
+     * <p>
+     * A Jakarta Mail {@link SendFailedException} with valid sent addresses, as thrown with
+     * {@code mail.smtp.sendpartial}, is converted into a partial delivery as well.
+     * </p>
+     *
+     * @param error The failure thrown by a send.
+     * @return The partial delivery, or {@code null} if no recipient is known to have received the message.
+     */
+    public static FenixPartialDeliveryException of(Throwable error) {
+        Throwable current = error;
+        for (int depth = 0; current != null && depth < 16; depth++) {
+            if (current instanceof FenixPartialDeliveryException partial) {
+                return partial;
+            }
+            if (current instanceof SendFailedException failed && failed.getValidSentAddresses() != null
+                    && failed.getValidSentAddresses().length > 0) {
+                List<String> rejected = new ArrayList<>(addresses(failed.getInvalidAddresses()));
+                rejected.addAll(addresses(failed.getValidUnsentAddresses()));
+                return new FenixPartialDeliveryException(replyCodeOf(failed), failed.getMessage(),
+                        addresses(failed.getValidSentAddresses()), rejected);
+            }
+            if (current instanceof MailSendException mail) {
+                for (Exception failure : mail.getMessageExceptions()) {
+                    FenixPartialDeliveryException partial = of(failure);
+                    if (partial != null) {
+                        return partial;
+                    }
+                }
+            }
+            current = current instanceof MessagingException messaging && messaging.getNextException() != null
+                    ? messaging.getNextException() : current.getCause();
+        }
+        return null;
+    }
+
+    private static List<String> addresses(Address[] addresses) {
+        List<String> result = new ArrayList<>();
+        if (addresses != null) {
+            for (Address address : addresses) {
+                result.add(address instanceof InternetAddress internet ? internet.getAddress() : address.toString());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,403 @@
+package com.fenix.fenix_mail_service.transport;
+
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import com.fenix.fenix_mail_service.component.FenixSendTracer;
+import com.fenix.fenix_mail_service.model.FenixSendPhase;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.URLName;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.util.SharedByteArrayInputStream;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link org.springframework.mail.javamail.JavaMailSender} that splits every message into one SMTP transaction
+ * per recipient domain and delivers the domains in parallel.
+ * <p>
+ * The recipients of a message ({@code To}, {@code Cc} and {@code Bcc}) are grouped by domain. The message
+ * is serialized once, and each group is sent with only its own addresses as envelope recipients, to the
+ * route configured for the domain. A slow or failing domain therefore no longer delays or fails the
+ * delivery to the other domains.
+ * </p>
+ *
+ * <p><b>Routes:</b></p>
+ * <ul>
+ *     <li>{@code relay}: The SMTP server configured with {@code host}/{@code port}, with the configured credentials.</li>
+ *     <li>{@code mx}: Directly to the mail exchangers of the domain, as returned by the {@link FenixMxResolver}, on
+ *         {@code mxPort}, without authentication and with {@code STARTTLS} when offered. If an exchanger cannot be
+ *         reached, the next one is tried. The lookup runs on a pool of {@code parallelism} threads as part of the
+ *         domain's delivery, so a slow DNS answer delays only its own domain.</li>
+ *     <li>{@code host:port}: Another relay, without authentication.</li>
+ * </ul>
+ *
+ * <p><b>Engines:</b></p>
+ * <ul>
+ *     <li>{@code JAVAMAIL}: Each group is sent over a new {@link FenixSmtpTransport} connection on a pool of
+ *         {@code parallelism} threads.</li>
+ *     <li>{@code NIO}: Each route target gets its own {@link FenixNioSmtpClient} with one selector thread and up to
+ *         {@code maxConnections} pooled connections, so no extra threads are needed to send the groups in parallel.
+ *         The thread pool only runs {@code MX} lookups.
+ *         A client is closed, and its thread stopped, once its connections have been closed as idle and no message
+ *         is waiting for it, so only targets in use keep a thread.</li>
+ * </ul>
+ *
+ * <p><b>Notes:</b></p>
+ * <ul>
+ *     <li>A message counts as sent only when every domain accepted it. Otherwise the send fails with an exception
+ *         naming the failed domains: a {@link FenixPartialDeliveryException} listing the accepted and the failed
+ *         recipients if any domain received the message, or a {@link FenixSmtpException} if none did. Both hold
+ *         the failure of every failed domain as a suppressed exception.</li>
+ *     <li>The waiting time of a send is the time of its slowest domain, bounded by the transport timeouts.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+public class FenixRoutingMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private static final String[] IGNORED_HEADERS = {"Bcc", "Content-Length"};
+    private static final String RELAY = "relay";
+    private static final String MX = "mx";
+
+    private final FenixMailProperties fenixMailProperties;
+    private final FenixMxResolver fenixMxResolver;
+    private final FenixMailMetrics fenixMailMetrics;
+    private final boolean nio;
+    private final Map<String, String> routes = new HashMap<>();
+    private final FenixMailProperties.Transport routeTransport = new FenixMailProperties.Transport();
+    private final Map<Target, FenixNioSmtpClient> clients = new ConcurrentHashMap<>();
+    private final Map<Target, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong lastEviction = new AtomicLong(System.nanoTime());
+    private final ExecutorService executor;
+
+    public FenixRoutingMailSender(FenixMailProperties fenixMailProperties, FenixMxResolver fenixMxResolver,
+                                  FenixMailMetrics fenixMailMetrics) {
+        this.fenixMailProperties = fenixMailProperties;
+        this.fenixMxResolver = fenixMxResolver;
+        this.fenixMailMetrics = fenixMailMetrics;
+        this.nio = fenixMailProperties.getTransport().getEngine() == FenixTransportEngine.NIO;
+
+        FenixMailProperties.Routing settings = fenixMailProperties.getRouting();
+        settings.getRelays().forEach((domain, route) -> routes.put(domain.trim().toLowerCase(Locale.ROOT), route.trim()));
+
+        FenixMailProperties.Transport transport = fenixMailProperties.getTransport();
+        routeTransport.setEngine(transport.getEngine());
+        routeTransport.setNioThreads(1);
+        routeTransport.setMaxConnections(transport.getMaxConnections());
+        routeTransport.setConnectTimeoutMillis(transport.getConnectTimeoutMillis());
+        routeTransport.setReadTimeoutMillis(transport.getReadTimeoutMillis());
+        routeTransport.setIdleTimeoutMillis(transport.getIdleTimeoutMillis());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, settings.getParallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "fenix-mail-route-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Routes and sends the given messages, waiting until every domain of every message completed.
+     */
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        List<Map<String, Delivery>> deliveries = new ArrayList<>(mimeMessages.length);
+
+        for (int i = 0; i < mimeMessages.length; i++) {
+            Object original = originalMessages != null ? originalMessages[i] : mimeMessages[i];
+            try {
+                deliveries.add(route(mimeMessages[i]));
+            } catch (MessagingException | IOException | RuntimeException e) {
+                deliveries.add(null);
+                failedMessages.put(original, e);
+            }
+        }
+        FenixSendTracer.mark(FenixSendPhase.MIME_BUILD);
+
+        for (int i = 0; i < deliveries.size(); i++) {
+            if (deliveries.get(i) == null) {
+                continue;
+            }
+            Exception failure = await(deliveries.get(i));
+            if (failure != null) {
+                failedMessages.put(originalMessages != null ? originalMessages[i] : mimeMessages[i], failure);
+            }
+        }
+
+        FenixSendTracer.mark(FenixSendPhase.SMTP_DATA);
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    /**
+     * Closes the NIO clients and stops the sender threads.
+     */
+    @Override
+    public void destroy() {
+        clients.values().forEach(FenixNioSmtpClient::close);
+        clients.clear();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Serializes a message and starts one delivery per recipient domain.
+     *
+     * @return The pending deliveries by domain.
+     */
+    private Map<String, Delivery> route(MimeMessage message) throws MessagingException, IOException {
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            message.setHeader("Message-ID", messageId);
+        }
+
+        Address[] recipients = message.getAllRecipients();
+        if (recipients == null || recipients.length == 0) {
+            throw new MessagingException("No recipient addresses");
+        }
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        for (Address recipient : recipients) {
+            String address = recipient instanceof InternetAddress internet ? internet.getAddress() : recipient.toString();
+            int at = address.lastIndexOf('@');
+            String domain = at < 0 ? "" : address.substring(at + 1).toLowerCase(Locale.ROOT);
+            groups.computeIfAbsent(domain, key -> new ArrayList<>()).add(address);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        message.writeTo(out, IGNORED_HEADERS);
+        byte[] bytes = out.toByteArray();
+        String from = envelopeSender(message);
+
+        Map<String, Delivery> deliveries = new LinkedHashMap<>();
+        groups.forEach((domain, addresses) -> deliveries.put(domain, new Delivery(addresses, deliver(domain, from, addresses, bytes))));
+        return deliveries;
+    }
+
+    private CompletableFuture<Void> deliver(String domain, String from, List<String> recipients, byte[] message) {
+        String route = routes.getOrDefault(domain, fenixMailProperties.getRouting().getDefaultRoute());
+        if (route != null && route.equalsIgnoreCase(MX)) {
+            // resolved on the pool, so that a slow lookup delays neither the caller nor the other domains
+            int port = fenixMailProperties.getRouting().getMxPort();
+            return CompletableFuture.supplyAsync(() -> fenixMxResolver.resolve(domain), executor)
+                    .thenCompose(hosts -> deliver(domain, hosts.stream().map(host -> new Target(host, port, false)).toList(),
+                            from, recipients, message));
+        }
+        List<Target> targets;
+        try {
+            targets = List.of(targetOf(route));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return deliver(domain, targets, from, recipients, message);
+    }
+
+    private CompletableFuture<Void> deliver(String domain, List<Target> targets, String from, List<String> recipients, byte[] message) {
+        if (targets.isEmpty()) {
+            return CompletableFuture.failedFuture(new FenixSmtpException(556, "Domain " + domain + " does not accept mail"));
+        }
+        return attempt(targets, 0, from, recipients, message);
+    }
+
+    /**
+     * Sends to one target and, if it cannot be reached, falls back to the next one.
+     */
+    private CompletableFuture<Void> attempt(List<Target> targets, int index, String from, List<String> recipients, byte[] message) {
+        CompletableFuture<Void> delivery = send(targets.get(index), from, recipients, message);
+        if (index + 1 >= targets.size()) {
+            return delivery;
+        }
+        return delivery.exceptionallyCompose(error -> FenixSmtpException.replyCodeOf(error) == 0
+                ? attempt(targets, index + 1, from, recipients, message)
+                : CompletableFuture.failedFuture(error));
+    }
+
+    private CompletableFuture<Void> send(Target target, String from, List<String> recipients, byte[] message) {
+        if (nio) {
+            evictUnusedClients();
+            // queued while the client is mapped, so that it cannot be evicted before it sees the message
+            List<CompletableFuture<Void>> sent = new ArrayList<>(1);
+            clients.compute(target, (key, client) -> {
+                FenixNioSmtpClient current = client != null ? client : createClient(key);
+                sent.add(current.send(from, recipients, message));
+                return current;
+            });
+            return sent.get(0);
+        }
+        return CompletableFuture.runAsync(() -> {
+            try {
+                sendBlocking(target, recipients, message);
+            } catch (MessagingException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private void sendBlocking(Target target, List<String> recipients, byte[] message) throws MessagingException {
+        Session session = target.relay() ? getSession() : sessions.computeIfAbsent(target, this::createSession);
+        MimeMessage copy = new MimeMessage(session, new SharedByteArrayInputStream(message));
+        Address[] addresses = new Address[recipients.size()];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = new InternetAddress(recipients.get(i), false);
+        }
+        try (Transport transport = new FenixSmtpTransport(session, new URLName(DEFAULT_PROTOCOL, null, -1, null, null, null), fenixMailMetrics)) {
+            transport.connect(target.host(), target.port(), target.relay() ? getUsername() : null, target.relay() ? getPassword() : null);
+            transport.sendMessage(copy, addresses);
+        }
+    }
+
+    private Target targetOf(String route) {
+        if (route == null || route.isBlank() || route.equalsIgnoreCase(RELAY)) {
+            return new Target(getHost(), getPort(), true);
+        }
+        int colon = route.lastIndexOf(':');
+        if (colon < 0) {
+            return new Target(route, 25, false);
+        }
+        return new Target(route.substring(0, colon), Integer.parseInt(route.substring(colon + 1)), false);
+    }
+
+    /**
+     * Closes and forgets the NIO clients that are unused, at most once per {@code idleTimeoutMillis}.
+     */
+    private void evictUnusedClients() {
+        long now = System.nanoTime();
+        long last = lastEviction.get();
+        if (now - last < TimeUnit.MILLISECONDS.toNanos(routeTransport.getIdleTimeoutMillis())
+                || !lastEviction.compareAndSet(last, now)) {
+            return;
+        }
+        for (Target target : clients.keySet()) {
+            clients.computeIfPresent(target, (key, client) -> {
+                if (!client.isUnused()) {
+                    return client;
+                }
+                client.close();
+                return null;
+            });
+        }
+    }
+
+    private FenixNioSmtpClient createClient(Target target) {
+        if (target.relay()) {
+            return new FenixNioSmtpClient(target.host(), target.port(), getUsername(), getPassword(),
+                    fenixMailProperties.isAuth(), fenixMailProperties.isStarttlsEnable(), routeTransport, fenixMailMetrics).start();
+        }
+        return new FenixNioSmtpClient(target.host(), target.port(), "", "", false, true, routeTransport, fenixMailMetrics).start();
+    }
+
+    private Session createSession(Target target) {
+        Properties properties = new Properties();
+        properties.putAll(getJavaMailProperties());
+        properties.put("mail.smtp.auth", "false");
+        properties.put("mail.smtp.starttls.enable", "true");
+        properties.put("mail.smtp.connectiontimeout", Long.toString(routeTransport.getConnectTimeoutMillis()));
+        properties.put("mail.smtp.timeout", Long.toString(routeTransport.getReadTimeoutMillis()));
+        return Session.getInstance(properties);
+    }
+
+    private String envelopeSender(MimeMessage message) throws MessagingException {
+        String configured = getJavaMailProperties().getProperty("mail.smtp.from");
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+        Address[] from = message.getFrom();
+        if (from != null && from.length > 0 && from[0] instanceof InternetAddress internet) {
+            return internet.getAddress();
+        }
+        return "";
+    }
+
+    /**
+     * Waits for all domains of one message.
+     *
+     * @return {@code null} if every domain accepted the message, otherwise an exception naming the failed
+     *         domains: a {@link FenixPartialDeliveryException} with the failures suppressed if some recipients
+     *         received the message, otherwise a {@link FenixSmtpException} with the failures suppressed.
+     */
+    private static Exception await(Map<String, Delivery> deliveries) {
+        List<String> failedDomains = new ArrayList<>();
+        List<Exception> failures = new ArrayList<>();
+        List<String> acceptedRecipients = new ArrayList<>();
+        List<String> failedRecipients = new ArrayList<>();
+        for (Map.Entry<String, Delivery> delivery : deliveries.entrySet()) {
+            Exception failure;
+            try {
+                delivery.getValue().future().get();
+                acceptedRecipients.addAll(delivery.getValue().recipients());
+                continue;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() instanceof CompletionException completion ? completion.getCause() : e.getCause();
+                failure = cause instanceof Exception exception ? exception : e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = e;
+            }
+            failedDomains.add(delivery.getKey());
+            failures.add(failure);
+            FenixPartialDeliveryException partial = FenixPartialDeliveryException.of(failure);
+            if (partial != null) {
+                acceptedRecipients.addAll(partial.getAcceptedRecipients());
+                failedRecipients.addAll(partial.getFailedRecipients());
+            } else {
+                failedRecipients.addAll(delivery.getValue().recipients());
+            }
+        }
+        if (failures.isEmpty()) {
+            return null;
+        }
+        String message = "Delivery failed for " + failedDomains.size() + " of " + deliveries.size() + " domains: "
+                + String.join(", ", failedDomains);
+        if (!acceptedRecipients.isEmpty()) {
+            FenixPartialDeliveryException failure = new FenixPartialDeliveryException(
+                    FenixSmtpException.replyCodeOf(failures.get(0)), message, acceptedRecipients, failedRecipients);
+            failures.forEach(failure::addSuppressed);
+            return failure;
+        }
+        FenixSmtpException failure = new FenixSmtpException(FenixSmtpException.replyCodeOf(failures.get(0)), message);
+        failures.forEach(failure::addSuppressed);
+        return failure;
+    }
+
+    /**
+     * The recipients of one domain and their pending delivery.
+     */
+    private record Delivery(List<String> recipients, CompletableFuture<Void> future) {
+    }
+
+    /**
+     * An SMTP server a domain group is sent to. {@code relay} marks the configured relay, which is used with credentials.
+     */
+    private record Target(String host, int port, boolean relay) {
+    }
+}
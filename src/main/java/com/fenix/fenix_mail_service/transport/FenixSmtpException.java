@@ -0,0 +1,166 @@
+package com.fenix.fenix_mail_service.transport;
+
+import jakarta.mail.MessagingException;
+import lombok.Getter;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
+import org.springframework.mail.MailSendException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Signals that an SMTP server rejected a command or that the SMTP dialogue could not be completed.
+ * <p>
+ * The {@code replyCode} holds the three-digit SMTP reply code returned by the server, or {@code 0}
+ * if the failure happened without a reply (for example a connection error or a timeout). {@code dataSent}
+ * marks a failure without reply after the message data was handed to the server: the server may have
+ * accepted the message before the connection broke, so it must not be sent again.
+ * </p>
+ * <p>
+ * A failure standing for several others, such as the failures of the recipient domains of a routed
+ * message, holds them as suppressed exceptions.
+ * </p>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+@Getter
+public class FenixSmtpException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int replyCode;
+    private final boolean dataSent;
+
+    public FenixSmtpException(int replyCode, String message) {
+        super(message);
+        this.replyCode = replyCode;
+        this.dataSent = false;
+    }
+
+    public FenixSmtpException(String message, Throwable cause) {
+        this(message, cause, false);
+    }
+
+    public FenixSmtpException(String message, Throwable cause, boolean dataSent) {
+        super(message, cause);
+        this.replyCode = 0;
+        this.dataSent = dataSent;
+    }
+
+    /**
+     * Returns whether the failure is transient, so that retrying the send later may succeed without
+     * delivering the message twice: a 4xx reply, or a failure without reply before the message data was sent.
+     *
+     * @return {@code true} if the failure is transient.
+     */
+    public boolean isTransient() {
+        return replyCode >= 400 && replyCode < 500 || replyCode == 0 && !dataSent;
+    }
+
+    /**
+     * Returns whether a failed send may be retried as a whole.
+     * <p>
+     * The failure is split into the failures it stands for, so that every recipient domain of a routed
+     * message is judged on its own. A retry is allowed if no recipient is known or suspected to have
+     * received the message (no {@link FenixPartialDeliveryException} and no failure without reply after the
+     * message data was sent), and if at least one failure is transient. A domain that rejected the message
+     * permanently is sent it again then, and rejects it again.
+     * </p>
+     *
+     * @param error The failure thrown by a send.
+     * @return {@code true} if sending the message again may reach recipients and reaches none twice.
+     */
+    public static boolean isRetryable(Throwable error) {
+        if (FenixPartialDeliveryException.of(error) != null) {
+            return false;
+        }
+        List<Throwable> failures = new ArrayList<>();
+        collectFailures(error, failures);
+        boolean retryable = false;
+        for (Throwable failure : failures) {
+            int code = replyCodeOf(failure);
+            if (code == 0 && isDataSent(failure)) {
+                return false;
+            }
+            retryable |= code < 500;
+        }
+        return retryable;
+    }
+
+    /**
+     * Finds the SMTP reply code behind a send failure.
+     * <p>
+     * Both transport engines are understood: the causes of a {@link FenixSmtpException} and the
+     * {@code SMTP*FailedException}s of Jakarta Mail are searched, including the per-message
+     * failures of a {@link MailSendException} and chained {@link MessagingException}s.
+     * </p>
+     *
+     * @param error The failure thrown by a send.
+     * @return The first SMTP reply code found, or {@code 0} if the failure carries none.
+     */
+    public static int replyCodeOf(Throwable error) {
+        Throwable current = error;
+        for (int depth = 0; current != null && depth < 16; depth++) {
+            if (current instanceof FenixSmtpException smtp && smtp.getReplyCode() > 0) {
+                return smtp.getReplyCode();
+            }
+            if (current instanceof SMTPSendFailedException smtp && smtp.getReturnCode() > 0) {
+                return smtp.getReturnCode();
+            }
+            if (current instanceof SMTPAddressFailedException smtp && smtp.getReturnCode() > 0) {
+                return smtp.getReturnCode();
+            }
+            if (current instanceof SMTPSenderFailedException smtp && smtp.getReturnCode() > 0) {
+                return smtp.getReturnCode();
+            }
+            if (current instanceof MailSendException mail) {
+                for (Exception failure : mail.getMessageExceptions()) {
+                    int code = replyCodeOf(failure);
+                    if (code > 0) {
+                        return code;
+                    }
+                }
+            }
+            current = current instanceof MessagingException messaging && messaging.getNextException() != null
+                    ? messaging.getNextException() : current.getCause();
+        }
+        return 0;
+    }
+
+    private static boolean isDataSent(Throwable error) {
+        Throwable current = error;
+        for (int depth = 0; current != null && depth < 16; depth++) {
+            if (current instanceof FenixSmtpException smtp && smtp.isDataSent()) {
+                return true;
+            }
+            if (current instanceof MailSendException mail) {
+                for (Exception failure : mail.getMessageExceptions()) {
+                    if (isDataSent(failure)) {
+                        return true;
+                    }
+                }
+            }
+            current = current instanceof MessagingException messaging && messaging.getNextException() != null
+                    ? messaging.getNextException() : current.getCause();
+        }
+        return false;
+    }
+
+    private static void collectFailures(Throwable error, List<Throwable> failures) {
+        if (error instanceof MailSendException mail && mail.getMessageExceptions().length > 0) {
+            for (Exception failure : mail.getMessageExceptions()) {
+                collectFailures(failure, failures);
+            }
+        } else if (error instanceof FenixSmtpException && error.getSuppressed().length > 0) {
+            for (Throwable failure : error.getSuppressed()) {
+                collectFailures(failure, failures);
+            }
+        } else {
+            failures.add(error);
+        }
+    }
+}
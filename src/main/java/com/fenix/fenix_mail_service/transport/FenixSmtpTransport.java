@@ -0,0 +1,110 @@
+package com.fenix.fenix_mail_service.transport;
+
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
+import com.fenix.fenix_mail_service.component.FenixSendTracer;
+import com.fenix.fenix_mail_service.model.FenixSendPhase;
+import jakarta.mail.Address;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.URLName;
+import org.eclipse.angus.mail.smtp.SMTPTransport;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Jakarta Mail SMTP transport that records connection setup, transaction time and message size.
+ * <p>
+ * The same boundaries are marked for the {@link FenixSendTracer}: the connection setup as
+ * {@link FenixSendPhase#SMTP_CONNECT}, the message preparation between connecting and sending as
+ * {@link FenixSendPhase#MIME_BUILD} and the mail transaction as {@link FenixSendPhase#SMTP_DATA}.
+ * </p>
+ * <p>
+ * A transport instance is used by one thread at a time ({@link SMTPTransport} synchronizes its
+ * methods), so the byte count of the current message is a plain field.
+ * </p>
+ * <p>
+ * A failure without SMTP reply after the message data was started, and a failure to close the connection
+ * after a message was sent, are marked as {@link FenixSmtpException#isDataSent() dataSent}: the server
+ * may have accepted the message, so it must not be retried.
+ * </p>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+class FenixSmtpTransport extends SMTPTransport {
+
+    private final FenixMailMetrics fenixMailMetrics;
+    private long written;
+    private boolean dataStarted;
+    private boolean sent;
+
+    FenixSmtpTransport(Session session, URLName urlName, FenixMailMetrics fenixMailMetrics) {
+        super(session, urlName);
+        this.fenixMailMetrics = fenixMailMetrics;
+    }
+
+    @Override
+    protected synchronized boolean protocolConnect(String host, int port, String user, String password)
+            throws MessagingException {
+        long start = System.nanoTime();
+        boolean connected = super.protocolConnect(host, port, user, password);
+        fenixMailMetrics.recordConnect(System.nanoTime() - start);
+        FenixSendTracer.mark(FenixSendPhase.SMTP_CONNECT);
+        return connected;
+    }
+
+    @Override
+    public synchronized void sendMessage(Message message, Address[] addresses) throws MessagingException {
+        FenixSendTracer.mark(FenixSendPhase.MIME_BUILD);
+        long start = System.nanoTime();
+        written = 0;
+        dataStarted = false;
+        sent = false;
+        try {
+            super.sendMessage(message, addresses);
+        } catch (MessagingException e) {
+            throw dataStarted && FenixSmtpException.replyCodeOf(e) == 0 ? afterData(e) : e;
+        }
+        sent = true;
+        FenixSendTracer.mark(FenixSendPhase.SMTP_DATA);
+        fenixMailMetrics.recordTransmit(System.nanoTime() - start);
+        fenixMailMetrics.recordMessageSize(written);
+    }
+
+    @Override
+    public synchronized void close() throws MessagingException {
+        try {
+            super.close();
+        } catch (MessagingException e) {
+            throw sent ? afterData(e) : e;
+        }
+    }
+
+    @Override
+    protected OutputStream data() throws MessagingException {
+        OutputStream data = super.data();
+        dataStarted = true;
+        return new FilterOutputStream(data) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                written++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                written += len;
+            }
+        };
+    }
+
+    private static MessagingException afterData(MessagingException e) {
+        return new MessagingException(e.getMessage(),
+                new FenixSmtpException("SMTP connection failed after the message data was sent", e, true));
+    }
+}
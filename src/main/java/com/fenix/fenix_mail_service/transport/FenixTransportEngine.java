@@ -0,0 +1,25 @@
+package com.fenix.fenix_mail_service.transport;
+
+/**
+ * Defines the SMTP client engines that can be used to deliver emails.
+ * <p>
+ * The engine is selected with {@code fenix.spring.mail.transport.engine} and determines which
+ * {@link org.springframework.mail.javamail.JavaMailSender} implementation is created by
+ * {@link com.fenix.fenix_mail_service.configuration.FenixMailConfig}.
+ * </p>
+ *
+ * <p><b>Engines:</b></p>
+ * <ul>
+ *     <li>{@code JAVAMAIL}: The blocking Jakarta Mail {@code Transport}; every send holds a thread for the whole SMTP dialogue. This is the default.</li>
+ *     <li>{@code NIO}: The {@link FenixNioSmtpClient}, which multiplexes pooled connections on a few selector threads
+ *         and batches commands with the ESMTP {@code PIPELINING} extension.</li>
+ * </ul>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+public enum FenixTransportEngine {
+    JAVAMAIL,
+    NIO
+}
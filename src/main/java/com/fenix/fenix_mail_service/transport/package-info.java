@@ -0,0 +1,53 @@
+/**
+ * This package contains the SMTP transport engines of the Fenix Mail Service.
+ * <p>
+ * By default emails are delivered with the blocking Jakarta Mail {@code Transport}. This package
+ * adds an alternative, non-blocking engine that is selected with
+ * {@code fenix.spring.mail.transport.engine=NIO}. Both engines report connection, transaction and
+ * message size measurements to {@code FenixMailMetrics}.
+ * </p>
+ *
+ * <p><b>Classes:</b></p>
+ * <ul>
+ *     <li>{@link com.fenix.fenix_mail_service.transport.FenixTransportEngine}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.transport.FenixJavaMailSender}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.transport.FenixNioSmtpClient}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.transport.FenixNioMailSender}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.transport.FenixSmtpException}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.transport.FenixPartialDeliveryException}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.transport.FenixRoutingMailSender}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.transport.FenixMxResolver}</li>
+ *     <li>{@link com.fenix.fenix_mail_service.transport.FenixDnsMxResolver}</li>
+ * </ul>
+ *
+ * <p><b>FenixNioSmtpClient:</b></p>
+ * A selector-based SMTP client that:
+ * <ul>
+ *     <li>Multiplexes a pool of connections to one relay on a few selector threads.</li>
+ *     <li>Batches {@code MAIL FROM}, {@code RCPT TO} and {@code DATA} with the ESMTP {@code PIPELINING} extension.</li>
+ *     <li>Supports {@code STARTTLS} through {@code SSLEngine} and {@code AUTH PLAIN}/{@code LOGIN}.</li>
+ * </ul>
+ *
+ * <p><b>FenixJavaMailSender:</b></p>
+ * The default {@code JavaMailSender}, a {@code JavaMailSenderImpl} whose SMTP transport is instrumented.
+ *
+ * <p><b>FenixNioMailSender:</b></p>
+ * A {@code JavaMailSender} that serializes Spring-built {@code MimeMessage}s and delivers them through
+ * the {@code FenixNioSmtpClient}, so existing callers work unchanged.
+ *
+ * <p><b>FenixRoutingMailSender:</b></p>
+ * A {@code JavaMailSender}, used when {@code fenix.spring.mail.routing.enabled} is set, that sends one SMTP
+ * transaction per recipient domain in parallel, to the configured relay, another relay or the domain's mail
+ * exchangers as resolved by a {@code FenixMxResolver}.
+ *
+ * <p><b>Example Configuration:</b></p>
+ * <pre>{@code
+ * fenix.spring.mail.transport.engine=NIO
+ * fenix.spring.mail.transport.nio-threads=2
+ * fenix.spring.mail.transport.max-connections=8
+ * fenix.spring.mail.transport.connect-timeout-millis=10000
+ * fenix.spring.mail.transport.read-timeout-millis=60000
+ * fenix.spring.mail.transport.idle-timeout-millis=30000
+ * }</pre>
+ */
+package com.fenix.fenix_mail_service.transport;
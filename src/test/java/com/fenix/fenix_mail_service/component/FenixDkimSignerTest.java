@@ -0,0 +1,146 @@
+package com.fenix.fenix_mail_service.component;
+
+import com.fenix.fenix_mail_service.model.FenixDkimAlgorithm;
+import jakarta.mail.Message;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests {@link FenixDkimSigner} against the bundled test keys, recomputing hashes and verifying signatures independently.
+ */
+class FenixDkimSignerTest {
+
+    // "Hello  world \r\n\tline two\r\n\r\n\r\n" in relaxed canonical form
+    private static final String CANONICAL_BODY = "Hello world\r\n line two\r\n";
+
+    @Test
+    void signsWithRsaSha256() throws Exception {
+        MimeMessage message = message();
+        signer(FenixDkimAlgorithm.RSA_SHA256, "dkim-rsa.pem").sign(message, null);
+
+        Map<String, String> tags = tags(message);
+        assertThat(tags).containsEntry("v", "1").containsEntry("a", "rsa-sha256").containsEntry("c", "relaxed/relaxed")
+                .containsEntry("d", "example.com").containsEntry("s", "test");
+        assertThat(tags.get("bh")).isEqualTo(sha256(CANONICAL_BODY));
+        assertThat(verify(message, tags, "RSA", "SHA256withRSA", "dkim-rsa.pub.pem", false)).isTrue();
+    }
+
+    @Test
+    void signsWithEd25519Sha256() throws Exception {
+        MimeMessage message = message();
+        signer(FenixDkimAlgorithm.ED25519_SHA256, "dkim-ed25519.pem").sign(message, null);
+
+        Map<String, String> tags = tags(message);
+        assertThat(tags).containsEntry("a", "ed25519-sha256");
+        assertThat(tags.get("bh")).isEqualTo(sha256(CANONICAL_BODY));
+        assertThat(verify(message, tags, "Ed25519", "Ed25519", "dkim-ed25519.pub.pem", true)).isTrue();
+    }
+
+    @Test
+    void signatureBreaksWhenASignedHeaderChanges() throws Exception {
+        MimeMessage message = message();
+        signer(FenixDkimAlgorithm.RSA_SHA256, "dkim-rsa.pem").sign(message, null);
+        Map<String, String> tags = tags(message);
+
+        message.setSubject("Tampered");
+        assertThat(verify(message, tags, "RSA", "SHA256withRSA", "dkim-rsa.pub.pem", false)).isFalse();
+    }
+
+    @Test
+    void leavesMissingHeadersOutAndReusesCachedBodyHashes() throws Exception {
+        FenixDkimSigner signer = signer(FenixDkimAlgorithm.RSA_SHA256, "dkim-rsa.pem");
+        MimeMessage first = message();
+        signer.sign(first, "body-1");
+        MimeMessage second = message();
+        second.setText("A different body", "US-ASCII");
+        signer.sign(second, "body-1");
+
+        assertThat(tags(first).get("h")).doesNotContain("cc").doesNotContain("reply-to").startsWith("from:to:subject:date");
+        // equal body keys promise equal bodies, so the second message gets the cached hash
+        assertThat(tags(second).get("bh")).isEqualTo(tags(first).get("bh"));
+    }
+
+    private static FenixDkimSigner signer(FenixDkimAlgorithm algorithm, String key) throws Exception {
+        FenixMailProperties properties = new FenixMailProperties();
+        properties.getDkim().setEnabled(true);
+        properties.getDkim().setDomain("example.com");
+        properties.getDkim().setSelector("test");
+        properties.getDkim().setAlgorithm(algorithm);
+        properties.getDkim().setPrivateKeyPath(resource(key).toString());
+        return new FenixDkimSigner(properties);
+    }
+
+    private static MimeMessage message() throws Exception {
+        MimeMessage message = new MimeMessage(Session.getInstance(new Properties()));
+        message.setFrom(new InternetAddress("sender@example.com"));
+        message.setRecipients(Message.RecipientType.TO, "recipient@example.org");
+        message.setSubject("Known   message");
+        message.setText("Hello  world \r\n\tline two\r\n\r\n\r\n", "US-ASCII");
+        return message;
+    }
+
+    private static Map<String, String> tags(MimeMessage message) throws Exception {
+        String header = message.getHeader("DKIM-Signature", null).replaceAll("\\s", "");
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (String tag : header.split(";")) {
+            int equals = tag.indexOf('=');
+            tags.put(tag.substring(0, equals), tag.substring(equals + 1));
+        }
+        return tags;
+    }
+
+    /**
+     * Verifies the signature as a receiver would: the headers named in {@code h=} in relaxed form, then the
+     * signature header itself with an empty {@code b=}.
+     */
+    private static boolean verify(MimeMessage message, Map<String, String> tags, String keyAlgorithm,
+                                  String signatureAlgorithm, String publicKey, boolean prehash) throws Exception {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        for (String name : tags.get("h").split(":")) {
+            String[] values = message.getHeader(name);
+            data.writeBytes((relaxed(name, values[values.length - 1]) + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+        String header = message.getHeader("DKIM-Signature", null);
+        String unsigned = header.substring(0, header.lastIndexOf("b=") + 2);
+        data.writeBytes(relaxed("DKIM-Signature", unsigned).getBytes(StandardCharsets.UTF_8));
+
+        String pem = Files.readString(resource(publicKey), StandardCharsets.US_ASCII)
+                .replaceAll("-----(BEGIN|END) PUBLIC KEY-----", "").replaceAll("\\s", "");
+        PublicKey key = KeyFactory.getInstance(keyAlgorithm).generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(pem)));
+        Signature signature = Signature.getInstance(signatureAlgorithm);
+        signature.initVerify(key);
+        signature.update(prehash ? MessageDigest.getInstance("SHA-256").digest(data.toByteArray()) : data.toByteArray());
+        return signature.verify(Base64.getDecoder().decode(tags.get("b")));
+    }
+
+    private static String relaxed(String name, String value) {
+        return name.toLowerCase(Locale.ROOT) + ":" + value.replaceAll("\r\n", "").replaceAll("[ \t]+", " ").trim();
+    }
+
+    private static String sha256(String text) throws Exception {
+        return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static Path resource(String name) throws Exception {
+        return Path.of(FenixDkimSignerTest.class.getResource("/" + name).toURI());
+    }
+}
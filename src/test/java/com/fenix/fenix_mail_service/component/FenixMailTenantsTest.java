@@ -0,0 +1,73 @@
+package com.fenix.fenix_mail_service.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests the send slots and the fixed quota windows of {@link FenixMailTenants.Bulkhead}.
+ */
+class FenixMailTenantsTest {
+
+    @Test
+    void handsOutAtMostMaxConcurrentSlots() {
+        FenixMailTenants.Bulkhead bulkhead = tenants(2, 50, 0, 60_000).get("shop");
+
+        assertThat(bulkhead.tryAcquireNow()).isTrue();
+        assertThat(bulkhead.tryAcquire()).isTrue();
+        long start = System.nanoTime();
+        // a waiting acquire gives up after acquireTimeoutMillis
+        assertThat(bulkhead.tryAcquire()).isFalse();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(40_000_000L);
+        assertThat(bulkhead.tryAcquireNow()).isFalse();
+        assertThat(bulkhead.getAvailableSlots()).isZero();
+
+        bulkhead.release();
+        assertThat(bulkhead.getAvailableSlots()).isEqualTo(1);
+        assertThat(bulkhead.tryAcquireNow()).isTrue();
+    }
+
+    @Test
+    void countsTheQuotaInFixedWindows() throws Exception {
+        FenixMailTenants.Bulkhead bulkhead = tenants(1, 0, 2, 200).get("shop");
+        // start right after a window boundary, so that the window does not turn over halfway through the test
+        Thread.sleep(bulkhead.getMillisUntilQuotaReset() + 5);
+
+        assertThat(bulkhead.isThrottled()).isFalse();
+        assertThat(bulkhead.tryConsumeQuota()).isTrue();
+        assertThat(bulkhead.tryConsumeQuota()).isTrue();
+        assertThat(bulkhead.tryConsumeQuota()).isFalse();
+        assertThat(bulkhead.isThrottled()).isTrue();
+        assertThat(bulkhead.getMillisUntilQuotaReset()).isBetween(1L, 200L);
+
+        Thread.sleep(bulkhead.getMillisUntilQuotaReset() + 5);
+        assertThat(bulkhead.isThrottled()).isFalse();
+        assertThat(bulkhead.tryConsumeQuota()).isTrue();
+    }
+
+    @Test
+    void rejectsUnknownTenants() {
+        FenixMailTenants tenants = tenants(1, 0, 0, 60_000);
+
+        tenants.check(null);
+        tenants.check("shop");
+        assertThat(tenants.get("shop").getQuota()).isZero();
+        assertThatThrownBy(() -> tenants.check("unknown"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("unknown");
+    }
+
+    private static FenixMailTenants tenants(int maxConcurrent, long acquireTimeoutMillis, int quota, long quotaPeriodMillis) {
+        FenixMailProperties properties = new FenixMailProperties();
+        FenixMailProperties.Tenant tenant = new FenixMailProperties.Tenant();
+        tenant.setMaxConcurrent(maxConcurrent);
+        tenant.setAcquireTimeoutMillis(acquireTimeoutMillis);
+        tenant.setQuota(quota);
+        tenant.setQuotaPeriodMillis(quotaPeriodMillis);
+        properties.getTenants().put("shop", tenant);
+        return new FenixMailTenants(properties, Map.of());
+    }
+}
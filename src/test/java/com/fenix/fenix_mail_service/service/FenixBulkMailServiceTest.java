@@ -0,0 +1,158 @@
+package com.fenix.fenix_mail_service.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import com.fenix.fenix_mail_service.model.FenixBulkSummary;
+import com.fenix.fenix_mail_service.model.FenixEmailRequest;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the NDJSON parsing, results and checkpoints of {@link FenixBulkMailService} with a stubbed {@link FenixMailScheduler}.
+ */
+class FenixBulkMailServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+    private final FenixMailScheduler fenixMailScheduler = mock(FenixMailScheduler.class);
+    private final FenixMailProperties fenixMailProperties = new FenixMailProperties();
+    private final List<String> submitted = new ArrayList<>();
+    private final FenixBulkMailService service = new FenixBulkMailService(fenixMailScheduler, fenixMailProperties,
+            objectMapper, validatorFactory.getValidator());
+
+    @AfterEach
+    void close() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void reportsMalformedLinesAndKeepsReadingAfterThem() throws Exception {
+        sendAll();
+        TrackingInputStream in = new TrackingInputStream(String.join("\n",
+                record("first"),
+                "{\"to\": [\"a@example.com\", \"subject\": ",
+                "",
+                "[1, 2]",
+                "{\"to\": [\"a@example.com\"], \"content\": \"missing subject\"}",
+                record("second") + " {}",
+                record("third"),
+                "{\"to\": [\"a@example.com\"], \"subject\": \"s\", \"content\": \"c\", \"tenant\": \"unknown\"}") + "\n");
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+        Path checkpoint = directory.resolve("checkpoint");
+
+        FenixBulkSummary summary = service.sendFromStream(in, results, checkpoint);
+
+        assertThat(submitted).containsExactly("first", "third");
+        assertThat(summary.getSent()).isEqualTo(2);
+        assertThat(summary.getInvalid()).isEqualTo(5);
+        assertThat(results(results)).containsExactly(true, false, false, false, false, true, false);
+        assertThat(Files.readString(checkpoint)).isEqualTo("7");
+        assertThat(in.closed).isFalse();
+    }
+
+    @Test
+    void resumesAfterTheCheckpointedRecords() throws Exception {
+        sendAll();
+        Path checkpoint = directory.resolve("checkpoint");
+        Files.writeString(checkpoint, "2");
+        String input = String.join("\n", record("r0"), record("r1"), "", record("r2"), record("r3"));
+
+        FenixBulkSummary summary = service.sendFromStream(new TrackingInputStream(input), null, checkpoint);
+
+        assertThat(submitted).containsExactly("r2", "r3");
+        assertThat(summary.getSkipped()).isEqualTo(2);
+        assertThat(summary.getSent()).isEqualTo(2);
+        assertThat(Files.readString(checkpoint)).isEqualTo("4");
+    }
+
+    @Test
+    void checkpointNeverPassesAnUnfinishedRecord() throws Exception {
+        fenixMailProperties.getBulk().setCheckpointInterval(1);
+        Map<String, CompletableFuture<Boolean>> futures = new ConcurrentHashMap<>();
+        when(fenixMailScheduler.submit(any())).thenAnswer(invocation -> {
+            FenixEmailRequest request = invocation.getArgument(0);
+            return futures.computeIfAbsent(request.getSubject(), subject -> new CompletableFuture<>());
+        });
+        Path checkpoint = directory.resolve("checkpoint");
+        String input = String.join("\n", record("r0"), record("r1"), record("r2"));
+
+        CompletableFuture<FenixBulkSummary> run = CompletableFuture.supplyAsync(
+                () -> service.sendFromStream(new TrackingInputStream(input), null, checkpoint));
+        while (futures.size() < 3) {
+            Thread.sleep(5);
+        }
+        futures.get("r1").complete(true);
+        futures.get("r2").complete(false);
+        Thread.sleep(50);
+        assertThat(checkpoint).doesNotExist();
+
+        futures.get("r0").complete(true);
+        FenixBulkSummary summary = run.get(5, TimeUnit.SECONDS);
+        assertThat(summary.getSent()).isEqualTo(2);
+        assertThat(summary.getFailed()).isEqualTo(1);
+        assertThat(Files.readString(checkpoint)).isEqualTo("3");
+    }
+
+    private void sendAll() {
+        when(fenixMailScheduler.submit(any())).thenAnswer(invocation -> {
+            FenixEmailRequest request = invocation.getArgument(0);
+            if (request.getTenant() != null) {
+                throw new IllegalArgumentException("Unknown tenant: " + request.getTenant());
+            }
+            submitted.add(request.getSubject());
+            return CompletableFuture.completedFuture(true);
+        });
+    }
+
+    private List<Boolean> results(ByteArrayOutputStream results) throws Exception {
+        List<Boolean> success = new ArrayList<>();
+        long expected = 0;
+        for (String line : results.toString(StandardCharsets.UTF_8).split("\n")) {
+            JsonNode result = objectMapper.readTree(line);
+            assertThat(result.get("record").asLong()).isEqualTo(expected++);
+            success.add(result.get("success").asBoolean());
+        }
+        return success;
+    }
+
+    private static String record(String subject) {
+        return "{\"to\": [\"a@example.com\"], \"subject\": \"" + subject + "\", \"content\": \"content\"}";
+    }
+
+    private static final class TrackingInputStream extends ByteArrayInputStream {
+        private boolean closed;
+
+        private TrackingInputStream(String content) {
+            super(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
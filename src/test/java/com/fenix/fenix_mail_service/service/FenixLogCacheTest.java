@@ -0,0 +1,103 @@
+package com.fenix.fenix_mail_service.service;
+
+import com.fenix.fenix_mail_service.model.FenixEmailLog;
+import com.fenix.fenix_mail_service.model.FenixLogQuery;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the ring buffer and the intern tables of {@link FenixLogCache}.
+ */
+class FenixLogCacheTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+    @Test
+    void overwritesTheOldestRowsOnceFull() {
+        FenixLogCache cache = new FenixLogCache(5);
+        for (int i = 0; i < 8; i++) {
+            cache.add(entry(i, i % 2 == 0, "user" + i + "@" + (i < 6 ? "a.test" : "b.test")));
+        }
+
+        List<String> scanned = new ArrayList<>();
+        List<Boolean> successes = new ArrayList<>();
+        cache.scan(new FenixLogQuery(), (sentAt, success, recipient, domain, subjectHash) -> {
+            scanned.add(recipient);
+            successes.add(success);
+        });
+
+        assertThat(cache.size()).isEqualTo(5);
+        // oldest first across the wrap: rows 3..7 remain, the slots of rows 0..2 were reused by 5..7
+        assertThat(scanned).containsExactly("user3@a.test", "user4@a.test", "user5@a.test", "user6@b.test", "user7@b.test");
+        assertThat(successes).containsExactly(false, true, false, true, false);
+        assertThat(cache.count(new FenixLogQuery())).isEqualTo(5);
+        assertThat(cache.count(query(null, "b.test", null))).isEqualTo(2);
+        assertThat(cache.count(query("user0@a.test", null, null))).isZero();
+        assertThat(cache.count(query(null, null, true))).isEqualTo(2);
+    }
+
+    @Test
+    void countsOneRowPerRecipientWithinTheTimeWindow() {
+        FenixLogCache cache = new FenixLogCache(16);
+        cache.add(entry(0, true, "One@A.test", "two@b.test"));
+        cache.add(entry(1, false, "three@a.test"));
+        cache.add(entry(2, true, "four@a.test"));
+
+        FenixLogQuery window = query(null, "a.test", null);
+        window.setFrom(START.plusMinutes(1));
+        window.setTo(START.plusMinutes(2));
+
+        assertThat(cache.size()).isEqualTo(4);
+        assertThat(cache.count(query("one@a.test", null, null))).isEqualTo(1);
+        assertThat(cache.count(window)).isEqualTo(1);
+        FenixLogQuery subject = new FenixLogQuery();
+        subject.setSubject("Subject 1");
+        assertThat(cache.count(subject)).isEqualTo(1);
+    }
+
+    @Test
+    void keepsNamesOfLiveRowsAcrossInternCompactions() {
+        FenixLogCache cache = new FenixLogCache(4);
+        // every recipient is new, so the intern tables are compacted several times
+        for (int i = 0; i < 3000; i++) {
+            cache.add(entry(i, true, "user" + i + "@d" + (i % 7) + ".test"));
+        }
+
+        List<String> scanned = new ArrayList<>();
+        List<String> domains = new ArrayList<>();
+        cache.scan(new FenixLogQuery(), (sentAt, success, recipient, domain, subjectHash) -> {
+            scanned.add(recipient);
+            domains.add(domain);
+        });
+
+        assertThat(scanned).containsExactly("user2996@d0.test", "user2997@d1.test", "user2998@d2.test", "user2999@d3.test");
+        assertThat(domains).containsExactly("d0.test", "d1.test", "d2.test", "d3.test");
+        assertThat(cache.count(query("user2997@d1.test", null, null))).isEqualTo(1);
+        assertThat(cache.count(query(null, "d0.test", null))).isEqualTo(1);
+        // names of overwritten rows are dropped, so they no longer match anything
+        assertThat(cache.count(query("user10@d3.test", null, null))).isZero();
+        assertThat(cache.count(query(null, "d4.test", null))).isZero();
+    }
+
+    private static FenixEmailLog entry(int minute, boolean success, String... recipients) {
+        FenixEmailLog fenixEmailLog = new FenixEmailLog();
+        fenixEmailLog.setRecipients(List.of(recipients));
+        fenixEmailLog.setSubject("Subject " + minute);
+        fenixEmailLog.setSentAt(START.plusMinutes(minute));
+        fenixEmailLog.setSuccess(success);
+        return fenixEmailLog;
+    }
+
+    private static FenixLogQuery query(String recipient, String domain, Boolean success) {
+        FenixLogQuery query = new FenixLogQuery();
+        query.setRecipient(recipient);
+        query.setDomain(domain);
+        query.setSuccess(success);
+        return query;
+    }
+}
@@ -0,0 +1,121 @@
+package com.fenix.fenix_mail_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import com.fenix.fenix_mail_service.model.FenixEmailLog;
+import com.fenix.fenix_mail_service.model.FenixLogTail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests the in-place appends, the tail reader and the crash repair of {@link FenixLogService} on a temporary log file.
+ */
+class FenixLogServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final FenixMailProperties fenixMailProperties = new FenixMailProperties();
+    private FenixLogService service;
+    private Path logFile;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void start() {
+        logFile = directory.resolve("email-logs.json");
+        fenixMailProperties.setLogPath(logFile.toString());
+        service = new FenixLogService(fenixMailProperties, objectMapper, FenixMailMetrics.noop());
+    }
+
+    @Test
+    void appendsInPlaceAndTailsFromReturnedOffsets() throws Exception {
+        service.saveEmailLog(entry("first"));
+        FenixLogTail first = service.readEmailLogsFrom(0);
+        byte[] before = Files.readAllBytes(logFile);
+
+        service.saveEmailLogs(List.of(entry("second"), entry("third")));
+        byte[] after = Files.readAllBytes(logFile);
+        FenixLogTail next = service.readEmailLogsFrom(first.getNextOffset());
+
+        assertThat(first.getEntries()).extracting(FenixEmailLog::getSubject).containsExactly("first");
+        assertThat(next.getEntries()).extracting(FenixEmailLog::getSubject).containsExactly("second", "third");
+        assertThat(service.readEmailLogsFrom(next.getNextOffset()).getEntries()).isEmpty();
+        // everything up to the old offset is untouched, and the file is still one JSON array
+        assertThat(Arrays.copyOf(after, (int) first.getNextOffset())).isEqualTo(Arrays.copyOf(before, (int) first.getNextOffset()));
+        assertThat(service.readEmailLogs()).extracting(FenixEmailLog::getSubject).containsExactly("first", "second", "third");
+        assertThatThrownBy(() -> service.readEmailLogsFrom(after.length + 1L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void replaysFromAnOffsetAndThenDeliversNewEntries() {
+        service.saveEmailLog(entry("old"));
+        long offset = service.readEmailLogsFrom(0).getNextOffset();
+        service.saveEmailLog(entry("missed"));
+
+        List<String> received = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        service.subscribe(offset, (entries, nextOffset) -> {
+            entries.forEach(e -> received.add(e.getSubject()));
+            offsets.add(nextOffset);
+        });
+        service.saveEmailLog(entry("live"));
+
+        assertThat(received).containsExactly("missed", "live");
+        assertThat(offsets.get(1)).isEqualTo(service.readEmailLogsFrom(0).getNextOffset());
+    }
+
+    @Test
+    void rollsBackAnAppendTornAtTheRecordedPosition() throws Exception {
+        service.saveEmailLog(entry("kept"));
+        long position = service.readEmailLogsFrom(0).getNextOffset();
+        // a crash after the position was recorded, halfway through the entry that replaced the closing bracket
+        tearAt(position, ", { \"subject\" : \"lost");
+        Files.write(Path.of(logFile + ".lock"), ByteBuffer.allocate(Long.BYTES).putLong(position).array());
+
+        assertThat(service.readEmailLogs()).extracting(FenixEmailLog::getSubject).containsExactly("kept");
+        service.saveEmailLog(entry("after"));
+        assertThat(service.readEmailLogs()).extracting(FenixEmailLog::getSubject).containsExactly("kept", "after");
+    }
+
+    @Test
+    void cutsAnUnrecordedTornFileAfterItsLastCompleteEntry() throws Exception {
+        service.saveEmailLog(entry("kept {with} braces"));
+        long position = service.readEmailLogsFrom(0).getNextOffset();
+        // no recorded position, as left by an older version; the torn entry ends inside a string holding a brace
+        tearAt(position, ", { \"subject\" : \"lost }");
+
+        service.saveEmailLog(entry("after"));
+
+        assertThat(service.readEmailLogs()).extracting(FenixEmailLog::getSubject).containsExactly("kept {with} braces", "after");
+    }
+
+    private void tearAt(long position, String torn) throws Exception {
+        byte[] bytes = Files.readAllBytes(logFile);
+        byte[] tornBytes = torn.getBytes(StandardCharsets.UTF_8);
+        byte[] result = Arrays.copyOf(bytes, (int) position + tornBytes.length);
+        System.arraycopy(tornBytes, 0, result, (int) position, tornBytes.length);
+        Files.write(logFile, result);
+    }
+
+    private static FenixEmailLog entry(String subject) {
+        FenixEmailLog fenixEmailLog = new FenixEmailLog();
+        fenixEmailLog.setRecipients(List.of("recipient@example.com"));
+        fenixEmailLog.setSubject(subject);
+        fenixEmailLog.setBody("Body");
+        fenixEmailLog.setSuccess(true);
+        return fenixEmailLog;
+    }
+}
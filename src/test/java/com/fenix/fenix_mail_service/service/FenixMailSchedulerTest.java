@@ -0,0 +1,288 @@
+package com.fenix.fenix_mail_service.service;
+
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import com.fenix.fenix_mail_service.component.FenixMailTenants;
+import com.fenix.fenix_mail_service.model.FenixEmailOutcome;
+import com.fenix.fenix_mail_service.model.FenixEmailPriority;
+import com.fenix.fenix_mail_service.model.FenixEmailRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the lane selection, load shedding and tenant lanes of {@link FenixMailScheduler} with a single worker and a stubbed {@link FenixMailService}.
+ */
+class FenixMailSchedulerTest {
+
+    private final FenixMailService fenixMailService = mock(FenixMailService.class);
+    private final FenixMailProperties fenixMailProperties = new FenixMailProperties();
+    private final List<FenixEmailPriority> served = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private final AtomicInteger shopInFlight = new AtomicInteger();
+    private final AtomicInteger shopMaxInFlight = new AtomicInteger();
+    private int workers = 1;
+    private FenixMailTenants fenixMailTenants;
+    private FenixMailScheduler scheduler;
+
+    @AfterEach
+    void stop() {
+        gate.countDown();
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    void sharesWorkersByLaneWeight() throws Exception {
+        start(60_000, 0);
+        CompletableFuture<Boolean> blocker = holdWorker();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 26; i++) {
+            futures.add(scheduler.submit(request(FenixEmailPriority.BULK)));
+            futures.add(scheduler.submit(request(FenixEmailPriority.TRANSACTIONAL)));
+            futures.add(scheduler.submit(request(FenixEmailPriority.CRITICAL)));
+        }
+        gate.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        // weights 8:4:1 hand out 26 picks as 16:8:2 while every lane has a backlog
+        List<FenixEmailPriority> window = served.subList(0, 26);
+        assertThat(Collections.frequency(window, FenixEmailPriority.CRITICAL)).isEqualTo(16);
+        assertThat(Collections.frequency(window, FenixEmailPriority.TRANSACTIONAL)).isEqualTo(8);
+        assertThat(Collections.frequency(window, FenixEmailPriority.BULK)).isEqualTo(2);
+        // within one lane the order of submission is kept, and smooth round-robin never serves a weight-1 lane twice in a row
+        for (int i = 1; i < window.size(); i++) {
+            assertThat(window.get(i) == FenixEmailPriority.BULK && window.get(i - 1) == FenixEmailPriority.BULK).isFalse();
+        }
+    }
+
+    @Test
+    void servesStarvedLaneOnceWithoutTurningIntoFifo() throws Exception {
+        start(200, 0);
+        CompletableFuture<Boolean> blocker = holdWorker();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(scheduler.submit(request(FenixEmailPriority.BULK)));
+        }
+        for (int i = 0; i < 50; i++) {
+            futures.add(scheduler.submit(request(FenixEmailPriority.TRANSACTIONAL)));
+        }
+        // both lanes go unserved past the threshold; a global oldest-first rule would drain all bulk mail first
+        Thread.sleep(300);
+        gate.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        List<FenixEmailPriority> window = served.subList(0, 10);
+        assertThat(window.get(0)).isEqualTo(FenixEmailPriority.BULK);
+        assertThat(window.get(1)).isEqualTo(FenixEmailPriority.TRANSACTIONAL);
+        assertThat(Collections.frequency(window, FenixEmailPriority.TRANSACTIONAL)).isGreaterThanOrEqualTo(7);
+    }
+
+    @Test
+    void servesLowWeightLaneWithinStarvationThreshold() throws Exception {
+        fenixMailProperties.getScheduler().setCriticalWeight(1000);
+        start(50, 5);
+        CompletableFuture<Boolean> blocker = holdWorker();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(scheduler.submit(request(FenixEmailPriority.CRITICAL)));
+        }
+        CompletableFuture<Boolean> bulk = scheduler.submit(request(FenixEmailPriority.BULK));
+        gate.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        bulk.get(5, TimeUnit.SECONDS);
+
+        // weights 1000:1 alone would serve bulk after every critical email; the threshold lets it in after about 10 sends
+        assertThat(served.indexOf(FenixEmailPriority.BULK)).isBetween(1, 40);
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void dropsAnExpiredRequestWithoutQueueingIt() throws Exception {
+        start(60_000, 0);
+        FenixEmailRequest expired = request(FenixEmailPriority.CRITICAL);
+        expired.setDeadline(Instant.now().minusSeconds(1));
+
+        assertDropped(scheduler.submit(expired), FenixEmailOutcome.EXPIRED);
+        assertThat(scheduler.getQueueSize(FenixEmailPriority.CRITICAL)).isZero();
+        assertThat(served).isEmpty();
+    }
+
+    @Test
+    void shedsOnlyTheLaneThatIsBehindItsThreshold() throws Exception {
+        fenixMailProperties.getScheduler().setBulkShedWaitMillis(50);
+        start(60_000, 0);
+        CompletableFuture<Boolean> blocker = holdWorker();
+        CompletableFuture<Boolean> queuedBulk = scheduler.submit(request(FenixEmailPriority.BULK));
+        Thread.sleep(100);
+
+        // the queued bulk email is now older than the threshold, so the lane sheds; the other lanes have no threshold
+        assertDropped(scheduler.submit(request(FenixEmailPriority.BULK)), FenixEmailOutcome.SHED);
+        CompletableFuture<Boolean> transactional = scheduler.submit(request(FenixEmailPriority.TRANSACTIONAL));
+        CompletableFuture<Boolean> critical = scheduler.submit(request(FenixEmailPriority.CRITICAL));
+        gate.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+
+        assertThat(queuedBulk.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(transactional.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(critical.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(Collections.frequency(served, FenixEmailPriority.BULK)).isEqualTo(1);
+    }
+
+    @Test
+    void shedsARequestThatWouldExpireBeforeItsTurn() throws Exception {
+        start(60_000, 0);
+        CompletableFuture<Boolean> blocker = holdWorker();
+        CompletableFuture<Boolean> queued = scheduler.submit(request(FenixEmailPriority.TRANSACTIONAL));
+        Thread.sleep(200);
+
+        FenixEmailRequest tight = request(FenixEmailPriority.TRANSACTIONAL);
+        tight.setDeadline(Instant.now().plusMillis(50));
+        FenixEmailRequest relaxed = request(FenixEmailPriority.TRANSACTIONAL);
+        relaxed.setDeadline(Instant.now().plusSeconds(60));
+
+        // the head of the lane has waited 200 ms, longer than the tight deadline leaves
+        assertDropped(scheduler.submit(tight), FenixEmailOutcome.SHED);
+        CompletableFuture<Boolean> kept = scheduler.submit(relaxed);
+        gate.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(kept.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(served).hasSize(2);
+    }
+
+    @Test
+    void keepsATenantWithinItsSlotsWithoutHoldingTheOtherWorkers() throws Exception {
+        fenixMailProperties.getTenants().put("shop", tenant(1, 0));
+        workers = 2;
+        start(60_000, 30);
+        List<CompletableFuture<Boolean>> shop = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            shop.add(scheduler.submit(request(FenixEmailPriority.TRANSACTIONAL, "shop")));
+        }
+        CompletableFuture<Boolean> other = scheduler.submit(request(FenixEmailPriority.TRANSACTIONAL));
+
+        // the second worker is not parked behind the shop's single slot, so the other email overtakes its backlog
+        assertThat(other.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(shop.stream().filter(CompletableFuture::isDone).count()).isLessThan(4);
+        CompletableFuture.allOf(shop.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertThat(shopMaxInFlight.get()).isEqualTo(1);
+    }
+
+    @Test
+    void holdsEmailsOverTheQuotaUntilTheNextPeriod() throws Exception {
+        fenixMailProperties.getTenants().put("shop", tenant(4, 1));
+        fenixMailProperties.getTenants().get("shop").setQuotaPeriodMillis(300);
+        start(60_000, 0);
+        FenixMailTenants.Bulkhead bulkhead = fenixMailTenants.get("shop");
+        Thread.sleep(bulkhead.getMillisUntilQuotaReset() + 5);
+
+        CompletableFuture<Boolean> first = scheduler.submit(request(FenixEmailPriority.CRITICAL, "shop"));
+        assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> second = scheduler.submit(request(FenixEmailPriority.CRITICAL, "shop"));
+        Thread.sleep(50);
+
+        // the second email waits in the shop's lane instead of being throttled
+        assertThat(second).isNotDone();
+        assertThat(scheduler.getQueueSize(FenixEmailPriority.CRITICAL)).isEqualTo(1);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void rejectsAnUnknownTenantAtSubmit() {
+        start(60_000, 0);
+
+        assertThatThrownBy(() -> scheduler.submit(request(FenixEmailPriority.BULK, "unknown")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("unknown");
+        assertThat(scheduler.getQueueSize(FenixEmailPriority.BULK)).isZero();
+    }
+
+    private static void assertDropped(CompletableFuture<Boolean> future, FenixEmailOutcome outcome) {
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOf(FenixEmailDroppedException.class)
+                .satisfies(e -> assertThat(((FenixEmailDroppedException) e).getOutcome()).isEqualTo(outcome));
+    }
+
+    private void start(long starvationThresholdMillis, long sendMillis) {
+        fenixMailProperties.getScheduler().setWorkers(workers);
+        fenixMailProperties.getScheduler().setStarvationThresholdMillis(starvationThresholdMillis);
+        fenixMailTenants = new FenixMailTenants(fenixMailProperties, Map.of());
+        when(fenixMailService.sendJson(any(), any(), any())).thenAnswer(invocation -> {
+            FenixEmailRequest request = invocation.getArgument(0);
+            if ("hold".equals(request.getSubject())) {
+                gate.await();
+                return true;
+            }
+            if (request.getTenant() != null) {
+                // the real send takes the quota, which is what the scheduler watches
+                fenixMailTenants.get(request.getTenant()).tryConsumeQuota();
+                shopMaxInFlight.accumulateAndGet(shopInFlight.incrementAndGet(), Math::max);
+            }
+            Thread.sleep(sendMillis);
+            if (request.getTenant() != null) {
+                shopInFlight.decrementAndGet();
+            }
+            served.add(request.getPriority());
+            return true;
+        });
+        when(fenixMailService.drop(any(), any(), any(), any())).thenAnswer(invocation ->
+                new FenixEmailDroppedException(invocation.getArgument(1), invocation.getArgument(2)));
+        scheduler = new FenixMailScheduler(fenixMailService, fenixMailProperties, FenixMailMetrics.noop(), fenixMailTenants);
+        scheduler.start();
+    }
+
+    /**
+     * Occupies the only worker until the gate opens, so that the following submissions queue up.
+     */
+    private CompletableFuture<Boolean> holdWorker() throws InterruptedException {
+        FenixEmailRequest hold = request(FenixEmailPriority.TRANSACTIONAL);
+        hold.setSubject("hold");
+        CompletableFuture<Boolean> blocker = scheduler.submit(hold);
+        while (scheduler.getQueueSize(FenixEmailPriority.TRANSACTIONAL) > 0) {
+            Thread.sleep(1);
+        }
+        return blocker;
+    }
+
+    private static FenixEmailRequest request(FenixEmailPriority priority) {
+        FenixEmailRequest request = new FenixEmailRequest();
+        request.setPriority(priority);
+        return request;
+    }
+
+    private static FenixEmailRequest request(FenixEmailPriority priority, String tenant) {
+        FenixEmailRequest request = request(priority);
+        request.setTenant(tenant);
+        return request;
+    }
+
+    private static FenixMailProperties.Tenant tenant(int maxConcurrent, int quota) {
+        FenixMailProperties.Tenant tenant = new FenixMailProperties.Tenant();
+        tenant.setMaxConcurrent(maxConcurrent);
+        tenant.setQuota(quota);
+        return tenant;
+    }
+}
@@ -0,0 +1,133 @@
+package com.fenix.fenix_mail_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.fenix_mail_service.component.FenixDkimSigner;
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import com.fenix.fenix_mail_service.component.FenixMailTenants;
+import com.fenix.fenix_mail_service.component.FenixSendTracer;
+import com.fenix.fenix_mail_service.model.FenixEmailLog;
+import com.fenix.fenix_mail_service.model.FenixEmailRequest;
+import com.fenix.fenix_mail_service.transport.FenixPartialDeliveryException;
+import com.fenix.fenix_mail_service.transport.FenixSmtpException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.assertj.core.api.ThrowableAssert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the retries and the resends of {@link FenixMailService} with a stubbed {@link JavaMailSender} and the MIME cache enabled.
+ */
+class FenixMailServiceTest {
+
+    private final JavaMailSender mailSender = mock(JavaMailSender.class);
+    private final FenixLogService fenixLogService = mock(FenixLogService.class);
+    private final FenixMailProperties fenixMailProperties = new FenixMailProperties();
+    private final List<MimeMessage> sent = new ArrayList<>();
+    private final List<FenixEmailLog> logged = new ArrayList<>();
+    private final List<RuntimeException> failures = new ArrayList<>();
+    private FenixMailService service;
+
+    @BeforeEach
+    void start() {
+        fenixMailProperties.setFromAddress("sender@example.com");
+        fenixMailProperties.getResend().setCacheBytes(1 << 20);
+        fenixMailProperties.getResend().setRetryAttempts(2);
+        fenixMailProperties.getResend().setRetryBackoffMillis(100);
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        doAnswer(invocation -> {
+            sent.add(invocation.getArgument(0));
+            if (!failures.isEmpty()) {
+                throw failures.remove(0);
+            }
+            return null;
+        }).when(mailSender).send(any(MimeMessage.class));
+        doAnswer(invocation -> logged.add(invocation.getArgument(0))).when(fenixLogService).saveEmailLog(any());
+        service = new FenixMailService(mailSender, fenixMailProperties, fenixLogService, FenixMailMetrics.noop(),
+                new FenixSendTracer(fenixMailProperties, new ObjectMapper()), new FenixDkimSigner(fenixMailProperties),
+                FenixMailTenants.none());
+    }
+
+    @Test
+    void defersRetryableFailuresAndSendsTheSameMessageAgain() throws Exception {
+        failures.add(new MailSendException("Busy", new FenixSmtpException(451, "451 Try again later")));
+        failures.add(new MailSendException("Lost", new FenixSmtpException("Connection refused", null)));
+        FenixMailService.Attempts attempts = new FenixMailService.Attempts();
+        FenixEmailLog fenixEmailLog = service.createLog(request());
+
+        assertDeferredBy(100, () -> service.transmit(request(), fenixEmailLog, attempts));
+        assertDeferredBy(200, () -> service.transmit(request(), fenixEmailLog, attempts));
+        service.transmit(request(), fenixEmailLog, attempts);
+
+        assertThat(sent).hasSize(3);
+        assertThat(sent.get(1)).isSameAs(sent.get(0));
+        assertThat(sent.get(2)).isSameAs(sent.get(0));
+        assertThat(fenixEmailLog.getMessageId()).isEqualTo(sent.get(0).getMessageID());
+    }
+
+    @Test
+    void sendsOnceWhenARetryCouldReachARecipientTwice() {
+        List<RuntimeException> unsafe = List.of(
+                new MailSendException("Rejected", new FenixSmtpException(550, "550 Rejected")),
+                new MailSendException("Lost", new FenixSmtpException("Connection lost", null, true)),
+                new MailSendException("Partial", new FenixPartialDeliveryException(451, "451 Try again later",
+                        List.of("one@a.test"), List.of("two@b.test"))));
+        for (RuntimeException failure : unsafe) {
+            failures.add(failure);
+            assertThatThrownBy(() -> service.transmit(request(), service.createLog(request()), new FenixMailService.Attempts()))
+                    .isSameAs(failure);
+        }
+        // without attempts, as for direct calls, even a 4xx reply is not retried
+        RuntimeException busy = new MailSendException("Busy", new FenixSmtpException(451, "451 Try again later"));
+        failures.add(busy);
+        assertThatThrownBy(() -> service.transmit(request(), service.createLog(request()), null)).isSameAs(busy);
+        assertThat(sent).hasSize(4);
+    }
+
+    @Test
+    void resendsTheCachedBytesWithResentHeaders() throws Exception {
+        service.sendJson(request());
+        String messageId = logged.get(0).getMessageId();
+
+        assertThat(service.resend(messageId)).isTrue();
+
+        MimeMessage original = sent.get(0);
+        MimeMessage resent = sent.get(1);
+        assertThat(resent.getMessageID()).isEqualTo(messageId).isEqualTo(original.getMessageID());
+        assertThat(resent.getSentDate()).isEqualTo(original.getSentDate());
+        assertThat(resent.getHeader("Resent-Date")).hasSize(1);
+        assertThat(resent.getHeader("Resent-From", ",")).isEqualTo("sender@example.com");
+        assertThat(resent.getContent()).isEqualTo("Hello");
+        assertThat(logged).hasSize(2);
+        assertThat(logged.get(1).getMessageId()).isEqualTo(messageId);
+        assertThat(logged.get(1).isSuccess()).isTrue();
+        assertThatThrownBy(() -> service.resend("<unknown@example.com>")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void assertDeferredBy(long delayMillis, ThrowableAssert.ThrowingCallable send) {
+        assertThatThrownBy(send)
+                .isInstanceOf(FenixEmailDeferredException.class)
+                .satisfies(e -> assertThat(((FenixEmailDeferredException) e).getDelayMillis()).isEqualTo(delayMillis));
+    }
+
+    private static FenixEmailRequest request() {
+        FenixEmailRequest request = new FenixEmailRequest();
+        request.setTo(List.of("recipient@example.com"));
+        request.setSubject("Retried");
+        request.setContent("Hello");
+        return request;
+    }
+}
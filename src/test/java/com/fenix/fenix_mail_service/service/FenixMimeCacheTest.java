@@ -0,0 +1,90 @@
+package com.fenix.fenix_mail_service.service;
+
+import com.fenix.fenix_mail_service.model.FenixEmailRequest;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the serialization, the size bound and the retention of {@link FenixMimeCache}.
+ */
+class FenixMimeCacheTest {
+
+    @Test
+    void keepsTheMessageIdAndSendsTheStoredBytes() throws Exception {
+        FenixMimeCache cache = new FenixMimeCache(1 << 20, 60_000);
+        MimeMessage message = message("Stored");
+        message.setHeader("Message-ID", "<stored@example.com>");
+
+        FenixCachedMimeMessage sent = cache.store(message, request("Stored"));
+        FenixMimeCache.Entry entry = cache.get("<stored@example.com>");
+
+        assertThat(sent.getMessageID()).isEqualTo("<stored@example.com>");
+        assertThat(entry.recipients()).containsExactly("recipient@example.com");
+        assertThat(entry.subject()).isEqualTo("Stored");
+        // the message is finalized once, so sending it does not change it
+        sent.saveChanges();
+        assertThat(bytesOf(sent)).isEqualTo(entry.data());
+        assertThat(bytesOf(entry.toMessage())).isEqualTo(entry.data());
+    }
+
+    @Test
+    void evictsTheOldestMessagesOnceFull() throws Exception {
+        FenixMimeCache sizing = new FenixMimeCache(1 << 20, 60_000);
+        int size = sizing.get(sizing.store(message("0"), request("0")).getMessageID()).data().length;
+        FenixMimeCache cache = new FenixMimeCache(size * 5L / 2, 60_000);
+
+        String first = cache.store(message("1"), request("1")).getMessageID();
+        String second = cache.store(message("2"), request("2")).getMessageID();
+        String third = cache.store(message("3"), request("3")).getMessageID();
+
+        assertThat(cache.get(first)).isNull();
+        assertThat(cache.get(second)).isNotNull();
+        assertThat(cache.get(third)).isNotNull();
+    }
+
+    @Test
+    void dropsMessagesAfterTheRetentionAndSkipsOversizedOnes() throws Exception {
+        FenixMimeCache cache = new FenixMimeCache(1 << 20, 50);
+        String expiring = cache.store(message("Expiring"), request("Expiring")).getMessageID();
+        FenixMimeCache tiny = new FenixMimeCache(16, 60_000);
+
+        FenixCachedMimeMessage oversized = tiny.store(message("Oversized"), request("Oversized"));
+        assertThat(cache.get(expiring)).isNotNull();
+        Thread.sleep(80);
+
+        assertThat(cache.get(expiring)).isNull();
+        // still sent from its bytes, just not kept
+        assertThat(oversized.getSubject()).isEqualTo("Oversized");
+        assertThat(tiny.get(oversized.getMessageID())).isNull();
+    }
+
+    private static MimeMessage message(String subject) throws Exception {
+        MimeMessage message = new MimeMessage((Session) null);
+        message.setFrom(new InternetAddress("sender@example.com"));
+        message.setRecipients(MimeMessage.RecipientType.TO, "recipient@example.com");
+        message.setSubject(subject);
+        message.setText("Body of the message");
+        return message;
+    }
+
+    private static FenixEmailRequest request(String subject) {
+        FenixEmailRequest request = new FenixEmailRequest();
+        request.setTo(List.of("recipient@example.com"));
+        request.setSubject(subject);
+        request.setContent("Body of the message");
+        return request;
+    }
+
+    private static byte[] bytesOf(MimeMessage message) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        message.writeTo(out);
+        return out.toByteArray();
+    }
+}
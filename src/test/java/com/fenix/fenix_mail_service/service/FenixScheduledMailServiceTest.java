@@ -0,0 +1,141 @@
+package com.fenix.fenix_mail_service.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import com.fenix.fenix_mail_service.model.FenixEmailRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the release and journal records of {@link FenixScheduledMailService} with a stubbed {@link FenixMailScheduler}.
+ */
+class FenixScheduledMailServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final FenixMailScheduler fenixMailScheduler = mock(FenixMailScheduler.class);
+    private final FenixMailProperties fenixMailProperties = new FenixMailProperties();
+    private final List<FenixScheduledMailService> services = new ArrayList<>();
+    private Path journal;
+
+    @BeforeEach
+    void configure() {
+        journal = directory.resolve("schedule.ndjson");
+        fenixMailProperties.getSchedule().setJournalPath(journal.toString());
+        fenixMailProperties.getSchedule().setTickMillis(10);
+    }
+
+    @AfterEach
+    void stop() {
+        services.forEach(FenixScheduledMailService::stop);
+    }
+
+    @Test
+    void releasesDueEmailsAndRecoversPendingOnesFromTheJournal() throws Exception {
+        when(fenixMailScheduler.submit(any())).thenReturn(CompletableFuture.completedFuture(true));
+        FenixScheduledMailService service = start();
+        service.sendAfter(request("soon"), Duration.ofMillis(30));
+        service.sendAt(request("later"), Instant.now().plus(Duration.ofHours(1)));
+        long cancelled = service.sendAfter(request("cancelled"), Duration.ofHours(1));
+        assertThat(service.cancel(cancelled)).isTrue();
+        assertThat(service.cancel(cancelled)).isFalse();
+
+        verify(fenixMailScheduler, timeout(2_000)).submit(argThat(request -> "soon".equals(request.getSubject())));
+        awaitRecord("R");
+        assertThat(service.getPendingCount()).isOne();
+        service.stop();
+
+        // the restarted service compacts the journal to the one email that is still pending
+        FenixScheduledMailService restarted = start();
+        assertThat(restarted.getPendingCount()).isOne();
+        List<JsonNode> records = records();
+        assertThat(records).hasSize(1);
+        assertThat(records.get(0).get("op").asText()).isEqualTo("S");
+        assertThat(records.get(0).get("request").get("subject").asText()).isEqualTo("later");
+    }
+
+    @Test
+    void journalsDropWhenTheSchedulerRefusesTheEmail() throws Exception {
+        when(fenixMailScheduler.submit(any())).thenReturn(CompletableFuture.failedFuture(new RuntimeException("dropped")));
+        FenixScheduledMailService service = start();
+        long id = service.sendAfter(request("refused"), Duration.ofMillis(20));
+
+        JsonNode drop = awaitRecord("D");
+        assertThat(drop.get("id").asLong()).isEqualTo(id);
+        assertThat(records()).noneMatch(record -> "R".equals(record.get("op").asText()));
+        assertThat(service.getPendingCount()).isZero();
+    }
+
+    @Test
+    void releasesAgainWhenTheSchedulerCannotTakeTheEmail() throws Exception {
+        when(fenixMailScheduler.submit(any()))
+                .thenThrow(new IllegalStateException("Mail scheduler is not running."))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        FenixScheduledMailService service = start();
+        service.sendAfter(request("retried"), Duration.ofMillis(20));
+
+        verify(fenixMailScheduler, timeout(2_000).times(2)).submit(any());
+        awaitRecord("R");
+        assertThat(service.getPendingCount()).isZero();
+    }
+
+    private FenixScheduledMailService start() {
+        FenixScheduledMailService service = new FenixScheduledMailService(fenixMailScheduler, fenixMailProperties, objectMapper);
+        service.start();
+        services.add(service);
+        return service;
+    }
+
+    private JsonNode awaitRecord(String op) throws Exception {
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (System.currentTimeMillis() < deadline) {
+            for (JsonNode record : records()) {
+                if (op.equals(record.get("op").asText())) {
+                    return record;
+                }
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("No " + op + " record in " + records());
+    }
+
+    private List<JsonNode> records() throws IOException {
+        List<JsonNode> records = new ArrayList<>();
+        for (String line : Files.readAllLines(journal)) {
+            if (!line.isEmpty()) {
+                records.add(objectMapper.readTree(line));
+            }
+        }
+        return records;
+    }
+
+    private static FenixEmailRequest request(String subject) {
+        FenixEmailRequest request = new FenixEmailRequest();
+        request.setTo(List.of("recipient@example.com"));
+        request.setSubject(subject);
+        request.setContent("content");
+        return request;
+    }
+}
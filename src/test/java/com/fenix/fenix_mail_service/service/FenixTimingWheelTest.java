@@ -0,0 +1,93 @@
+package com.fenix.fenix_mail_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that {@link FenixTimingWheel} fires entries exactly at their deadline on every level.
+ */
+class FenixTimingWheelTest {
+
+    private static final long START = 1_000_003;
+
+    @Test
+    void cascadesEveryEntryDownToItsDeadline() {
+        FenixTimingWheel<Long> wheel = new FenixTimingWheel<>(START);
+        // deltas on both sides of every level boundary (64, 64^2, 64^3, 64^4 ticks)
+        long[] deltas = {1, 2, 63, 64, 65, 127, 128, 4_095, 4_096, 4_097, 5_000, 262_143, 262_144, 262_145,
+                300_000, 16_777_215, 16_777_216, 16_777_217};
+        for (long delta : deltas) {
+            assertThat(wheel.schedule(START + delta, START + delta)).isNotNull();
+        }
+
+        Map<Long, Long> firedAt = new HashMap<>();
+        wheel.advance(START + 16_777_217, deadline -> firedAt.put(deadline, wheel.getCurrentTick()));
+
+        assertThat(firedAt).hasSize(deltas.length);
+        firedAt.forEach((deadline, tick) -> assertThat(tick).as("deadline %d", deadline).isEqualTo(deadline));
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void firesEntriesOfOneTickInScheduleOrder() {
+        FenixTimingWheel<Integer> wheel = new FenixTimingWheel<>(START);
+        for (int i = 0; i < 10; i++) {
+            wheel.schedule(START + 5_000, i);
+        }
+        List<Integer> fired = new ArrayList<>();
+        wheel.advance(START + 4_999, fired::add);
+        assertThat(fired).isEmpty();
+        wheel.advance(START + 5_000, fired::add);
+        assertThat(fired).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test
+    void cancelledEntriesNeverFire() {
+        FenixTimingWheel<String> wheel = new FenixTimingWheel<>(START);
+        FenixTimingWheel.Node<String> near = wheel.schedule(START + 10, "near");
+        FenixTimingWheel.Node<String> far = wheel.schedule(START + 300_000, "far");
+        wheel.schedule(START + 300_001, "kept");
+
+        // the far entry has been cascaded to a lower level by now; cancelling must unlink it there
+        wheel.advance(START + 299_000, value -> { });
+        assertThat(wheel.cancel(near)).isFalse();
+        assertThat(wheel.cancel(far)).isTrue();
+        assertThat(wheel.cancel(far)).isFalse();
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(START + 400_000, fired::add);
+        assertThat(fired).containsExactly("kept");
+    }
+
+    @Test
+    void parksDeadlinesBeyondTheTopLevelInTheOverflowSlot() {
+        FenixTimingWheel<String> wheel = new FenixTimingWheel<>(START);
+        long beyond = (1L << 30) + 12_345;
+        wheel.schedule(START + beyond, "overflow");
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(START + beyond - 1, fired::add);
+        assertThat(fired).isEmpty();
+        assertThat(wheel.size()).isOne();
+
+        wheel.advance(START + beyond, value -> {
+            assertThat(wheel.getCurrentTick()).isEqualTo(START + beyond);
+            fired.add(value);
+        });
+        assertThat(fired).containsExactly("overflow");
+    }
+
+    @Test
+    void doesNotScheduleDeadlinesThatArePast() {
+        FenixTimingWheel<String> wheel = new FenixTimingWheel<>(START);
+        assertThat(wheel.schedule(START, "now")).isNull();
+        assertThat(wheel.schedule(START - 1, "past")).isNull();
+        assertThat(wheel.size()).isZero();
+    }
+}
@@ -0,0 +1,104 @@
+package com.fenix.fenix_mail_service.transport;
+
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests the SMTP dialogue of {@link FenixNioSmtpClient} against an embedded {@link FenixSmtpSink}.
+ */
+class FenixNioSmtpClientTest {
+
+    private static final byte[] MESSAGE = ("Subject: test\r\n\r\nHello\r\n.leading dot\r\n").getBytes(StandardCharsets.US_ASCII);
+
+    private FenixSmtpSink sink;
+    private FenixNioSmtpClient client;
+
+    @AfterEach
+    void stop() throws Exception {
+        if (client != null) {
+            client.close();
+        }
+        if (sink != null) {
+            sink.close();
+        }
+    }
+
+    @Test
+    void pipelinesTheTransactionAndReusesTheConnection() throws Exception {
+        sink = new FenixSmtpSink();
+        client = client(false, false, null, null);
+
+        for (int i = 0; i < 3; i++) {
+            client.send("from@example.com", List.of("a@example.com", "b@example.com", "c@example.com"), MESSAGE)
+                    .get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(sink.getAccepted()).isEqualTo(3);
+        assertThat(sink.getConnections()).isEqualTo(1);
+        // MAIL, RCPT and DATA leave in one write, so the sink finds the next command waiting behind each of them
+        assertThat(sink.getPipelinedCommands()).isGreaterThan(0);
+    }
+
+    @Test
+    void upgradesWithStartTlsAndAuthenticatesWithPlain() throws Exception {
+        sink = new FenixSmtpSink(secureSettings("PLAIN LOGIN"));
+        client = client(true, true, "user", "secret");
+
+        client.send("from@example.com", List.of("to@example.com"), MESSAGE).get(5, TimeUnit.SECONDS);
+
+        assertThat(sink.getTlsUpgrades()).isEqualTo(1);
+        assertThat(sink.getAuthentications()).isEqualTo(1);
+        assertThat(sink.getAccepted()).isEqualTo(1);
+    }
+
+    @Test
+    void authenticatesWithLoginWhenPlainIsNotOffered() throws Exception {
+        sink = new FenixSmtpSink(secureSettings("LOGIN"));
+        client = client(true, true, "user", "secret");
+
+        client.send("from@example.com", List.of("to@example.com"), MESSAGE).get(5, TimeUnit.SECONDS);
+
+        assertThat(sink.getAuthentications()).isEqualTo(1);
+        assertThat(sink.getAccepted()).isEqualTo(1);
+    }
+
+    @Test
+    void failsTheSendWhenCredentialsAreRejected() throws Exception {
+        sink = new FenixSmtpSink(secureSettings("PLAIN LOGIN"));
+        client = client(true, true, "user", "wrong");
+
+        assertThatThrownBy(() -> client.send("from@example.com", List.of("to@example.com"), MESSAGE).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOf(FenixSmtpException.class)
+                .satisfies(e -> assertThat(((FenixSmtpException) e).getReplyCode()).isEqualTo(535));
+        assertThat(sink.getAccepted()).isZero();
+    }
+
+    private FenixSmtpSink.Settings secureSettings(String mechanisms) {
+        FenixSmtpSink.Settings settings = new FenixSmtpSink.Settings();
+        settings.setSslContext(FenixSmtpSink.sslContext());
+        settings.setUsername("user");
+        settings.setPassword("secret");
+        settings.setAuthMechanisms(mechanisms);
+        return settings;
+    }
+
+    private FenixNioSmtpClient client(boolean auth, boolean starttls, String username, String password) {
+        FenixMailProperties.Transport settings = new FenixMailProperties.Transport();
+        settings.setNioThreads(1);
+        settings.setMaxConnections(1);
+        return new FenixNioSmtpClient("127.0.0.1", sink.getPort(), username, password, auth, starttls, settings,
+                FenixMailMetrics.noop(), FenixSmtpSink.sslContext()).start();
+    }
+}
@@ -0,0 +1,149 @@
+package com.fenix.fenix_mail_service.transport;
+
+import com.fenix.fenix_mail_service.component.FenixMailMetrics;
+import com.fenix.fenix_mail_service.component.FenixMailProperties;
+import jakarta.mail.Message;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.mail.MailSendException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests the per-domain delivery of {@link FenixRoutingMailSender} against embedded sinks and a stub {@link FenixMxResolver}.
+ */
+class FenixRoutingMailSenderTest {
+
+    private final Map<String, String> lookups = new ConcurrentHashMap<>();
+    private FenixSmtpSink accepting;
+    private FenixSmtpSink rejecting;
+    private FenixSmtpSink busy;
+    private FenixSmtpSink dropping;
+    private FenixRoutingMailSender sender;
+
+    @AfterEach
+    void stop() throws Exception {
+        if (sender != null) {
+            sender.destroy();
+        }
+        if (accepting != null) {
+            accepting.close();
+        }
+        for (FenixSmtpSink sink : new FenixSmtpSink[]{rejecting, busy, dropping}) {
+            if (sink != null) {
+                sink.close();
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(FenixTransportEngine.class)
+    void sendsOneTransactionPerDomain(FenixTransportEngine engine) throws Exception {
+        start(engine);
+
+        sender.send(message("one@a.test", "two@a.test", "three@mx.test"));
+
+        // a.test and mx.test both end at the accepting sink, each in its own transaction
+        assertThat(accepting.getAccepted()).isEqualTo(2);
+        assertThat(lookups).containsOnlyKeys("mx.test");
+        assertThat(lookups.get("mx.test")).startsWith("fenix-mail-route-");
+    }
+
+    @ParameterizedTest
+    @EnumSource(FenixTransportEngine.class)
+    void reportsPartialDeliveryPerDomain(FenixTransportEngine engine) throws Exception {
+        start(engine);
+
+        assertThatThrownBy(() -> sender.send(message("one@a.test", "two@b.test", "three@mx.test", "four@nomx.test")))
+                .isInstanceOf(MailSendException.class)
+                .satisfies(e -> {
+                    FenixPartialDeliveryException partial = FenixPartialDeliveryException.of(e);
+                    assertThat(partial).isNotNull();
+                    assertThat(partial.getMessage()).contains("2 of 4 domains").contains("b.test").contains("nomx.test");
+                    assertThat(partial.getAcceptedRecipients()).containsExactlyInAnyOrder("one@a.test", "three@mx.test");
+                    assertThat(partial.getFailedRecipients()).containsExactlyInAnyOrder("two@b.test", "four@nomx.test");
+                    assertThat(partial.getSuppressed()).extracting(FenixSmtpException::replyCodeOf).containsExactlyInAnyOrder(550, 556);
+                });
+        assertThat(accepting.getAccepted()).isEqualTo(2);
+        assertThat(rejecting.getPermanentFailures()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @EnumSource(FenixTransportEngine.class)
+    void failsWithoutPartialDeliveryWhenNoDomainAccepted(FenixTransportEngine engine) throws Exception {
+        start(engine);
+
+        assertThatThrownBy(() -> sender.send(message("two@b.test", "four@nomx.test")))
+                .isInstanceOf(MailSendException.class)
+                .satisfies(e -> assertThat(FenixPartialDeliveryException.of(e)).isNull());
+    }
+
+    @ParameterizedTest
+    @EnumSource(FenixTransportEngine.class)
+    void judgesEveryDomainBeforeAllowingARetry(FenixTransportEngine engine) throws Exception {
+        start(engine);
+
+        // c.test failed transiently and b.test rejected the message, so no domain has it yet
+        assertThatThrownBy(() -> sender.send(message("five@c.test", "two@b.test")))
+                .satisfies(e -> assertThat(FenixSmtpException.isRetryable(e)).isTrue());
+        assertThatThrownBy(() -> sender.send(message("two@b.test")))
+                .satisfies(e -> assertThat(FenixSmtpException.isRetryable(e)).isFalse());
+        // the connection to d.test broke after the message data, so d.test may have it despite the 451 of c.test
+        assertThatThrownBy(() -> sender.send(message("five@c.test", "six@d.test")))
+                .satisfies(e -> {
+                    assertThat(FenixSmtpException.replyCodeOf(e)).isEqualTo(451);
+                    assertThat(FenixSmtpException.isRetryable(e)).isFalse();
+                });
+        assertThat(busy.getTransientFailures()).isEqualTo(2);
+        assertThat(dropping.getDropped()).isEqualTo(1);
+    }
+
+    private void start(FenixTransportEngine engine) throws Exception {
+        accepting = new FenixSmtpSink();
+        FenixSmtpSink.Settings rejectAll = new FenixSmtpSink.Settings();
+        rejectAll.setPermanentFailureRate(1.0);
+        rejecting = new FenixSmtpSink(rejectAll);
+        FenixSmtpSink.Settings deferAll = new FenixSmtpSink.Settings();
+        deferAll.setTransientFailureRate(1.0);
+        busy = new FenixSmtpSink(deferAll);
+        FenixSmtpSink.Settings dropAll = new FenixSmtpSink.Settings();
+        dropAll.setDropRate(1.0);
+        dropping = new FenixSmtpSink(dropAll);
+
+        FenixMailProperties properties = new FenixMailProperties();
+        properties.getTransport().setEngine(engine);
+        properties.getRouting().setEnabled(true);
+        properties.getRouting().setDefaultRoute("mx");
+        properties.getRouting().setMxPort(accepting.getPort());
+        properties.getRouting().setRelays(Map.of(
+                "a.test", "127.0.0.1:" + accepting.getPort(),
+                "b.test", "127.0.0.1:" + rejecting.getPort(),
+                "c.test", "127.0.0.1:" + busy.getPort(),
+                "d.test", "127.0.0.1:" + dropping.getPort()));
+
+        FenixMxResolver resolver = domain -> {
+            lookups.put(domain, Thread.currentThread().getName());
+            return domain.equals("nomx.test") ? List.of() : List.of("127.0.0.1");
+        };
+        sender = new FenixRoutingMailSender(properties, resolver, FenixMailMetrics.noop());
+    }
+
+    private MimeMessage message(String... recipients) throws Exception {
+        MimeMessage message = sender.createMimeMessage();
+        message.setFrom(new InternetAddress("sender@example.com"));
+        for (String recipient : recipients) {
+            message.addRecipient(Message.RecipientType.TO, new InternetAddress(recipient));
+        }
+        message.setSubject("Routed");
+        message.setText("Hello");
+        return message;
+    }
+}
@@ -0,0 +1,490 @@
+package com.fenix.fenix_mail_service.transport;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded SMTP server for tests, benchmarks and load runs.
+ * <p>
+ * This class listens on a local port and accepts mail without storing it. Its behavior can be
+ * shaped with {@link Settings} to resemble a real relay under load: reply latency, throttling with
+ * {@code 4xx} replies, permanent {@code 5xx} rejections and dropped connections. Counters of every
+ * outcome are kept so that a run can be checked against what the client reported.
+ * </p>
+ *
+ * <p><b>Protocol Support:</b></p>
+ * <ul>
+ *     <li>{@code EHLO} (advertising {@code PIPELINING} and {@code 8BITMIME}), {@code HELO}, {@code MAIL},
+ *         {@code RCPT}, {@code DATA}, {@code RSET}, {@code NOOP} and {@code QUIT}.</li>
+ *     <li>{@code STARTTLS}, when an {@link SSLContext} is configured.</li>
+ *     <li>{@code AUTH PLAIN} and {@code AUTH LOGIN}, required before {@code MAIL} when a username is configured.</li>
+ *     <li>Pipelined commands are answered in order, one reply per command.</li>
+ *     <li>Each connection is served by its own thread, which is enough for a few hundred concurrent connections.</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * FenixSmtpSink.Settings settings = new FenixSmtpSink.Settings();
+ * settings.setReplyLatencyMillis(5);
+ * settings.setTransientFailureRate(0.01);
+ * try (FenixSmtpSink sink = new FenixSmtpSink(settings)) {
+ *     properties.setHost("127.0.0.1");
+ *     properties.setPort(sink.getPort());
+ *     // send mail ...
+ *     System.out.println(sink.getAccepted() + " messages accepted");
+ * }
+ * }</pre>
+ *
+ * <p><b>Author:</b> Fenix</p>
+ * <p><b>Version:</b> 1.X</p>
+ * <p><b>Since:</b> 2026-10-18</p>
+ */
+public class FenixSmtpSink implements Closeable {
+
+    private final Settings settings;
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "fenix-smtp-sink");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final Object rateLock = new Object();
+    private long rateWindowStart = System.nanoTime();
+    private int rateWindowCount;
+
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong refusedConnections = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong transientFailures = new AtomicLong();
+    private final AtomicLong permanentFailures = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong pipelinedCommands = new AtomicLong();
+    private final AtomicLong tlsUpgrades = new AtomicLong();
+    private final AtomicLong authentications = new AtomicLong();
+
+    /**
+     * Starts a sink with default settings: no latency, no failures.
+     *
+     * @throws IOException If the server socket cannot be opened.
+     */
+    public FenixSmtpSink() throws IOException {
+        this(new Settings());
+    }
+
+    /**
+     * Starts a sink with the given settings.
+     *
+     * @param settings The behavior of the sink.
+     * @throws IOException If the server socket cannot be opened.
+     */
+    public FenixSmtpSink(Settings settings) throws IOException {
+        this.settings = settings;
+        this.serverSocket = new ServerSocket(settings.getPort(), 1024, InetAddress.getLoopbackAddress());
+        executor.execute(this::acceptLoop);
+    }
+
+    /**
+     * Returns a TLS context holding the self-signed {@code localhost} certificate of {@code fenix-smtp-sink.p12}
+     * (also valid for {@code 127.0.0.1}) and trusting only that certificate. The same context serves as
+     * {@link Settings#setSslContext(SSLContext) the sink's context} and as the client's.
+     *
+     * @throws IllegalStateException If the key store cannot be loaded.
+     */
+    public static SSLContext sslContext() {
+        char[] password = "changeit".toCharArray();
+        try (InputStream in = FenixSmtpSink.class.getResourceAsStream("/fenix-smtp-sink.p12")) {
+            if (in == null) {
+                throw new IllegalStateException("fenix-smtp-sink.p12 is not on the classpath");
+            }
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, password);
+            KeyManagerFactory keys = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keys.init(keyStore, password);
+            TrustManagerFactory trust = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            trust.init(keyStore);
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(keys.getKeyManagers(), trust.getTrustManagers(), null);
+            return context;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot load fenix-smtp-sink.p12", e);
+        }
+    }
+
+    /**
+     * Returns the local port the sink listens on.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the number of accepted connections, including refused ones.
+     */
+    public long getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * Returns the number of connections refused with {@code 421} because {@code maxConnections} was reached.
+     */
+    public long getRefusedConnections() {
+        return refusedConnections.get();
+    }
+
+    /**
+     * Returns the number of messages accepted with {@code 250}.
+     */
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    /**
+     * Returns the number of messages rejected with {@code 451} because {@code maxMessagesPerSecond} was exceeded.
+     */
+    public long getThrottled() {
+        return throttled.get();
+    }
+
+    /**
+     * Returns the number of messages rejected with a random {@code 451}.
+     */
+    public long getTransientFailures() {
+        return transientFailures.get();
+    }
+
+    /**
+     * Returns the number of messages rejected with a random {@code 550}.
+     */
+    public long getPermanentFailures() {
+        return permanentFailures.get();
+    }
+
+    /**
+     * Returns the number of connections dropped after the message data was received, without a reply.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns the number of commands that arrived before the reply to the previous command was sent.
+     */
+    public long getPipelinedCommands() {
+        return pipelinedCommands.get();
+    }
+
+    /**
+     * Returns the number of connections upgraded with {@code STARTTLS}.
+     */
+    public long getTlsUpgrades() {
+        return tlsUpgrades.get();
+    }
+
+    /**
+     * Returns the number of successful {@code AUTH} exchanges.
+     */
+    public long getAuthentications() {
+        return authentications.get();
+    }
+
+    /**
+     * Stops accepting connections and closes the open ones.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        connections.incrementAndGet();
+        int open = openConnections.incrementAndGet();
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            if (settings.getMaxConnections() > 0 && open > settings.getMaxConnections()) {
+                refusedConnections.incrementAndGet();
+                reply(out, "421 4.7.0 Too many connections");
+                return;
+            }
+            reply(out, "220 localhost ESMTP Fenix sink");
+
+            boolean tls = false;
+            boolean authenticated = settings.getUsername() == null;
+            String line;
+            while ((line = readLine(in)) != null) {
+                if (in.available() > 0) {
+                    pipelinedCommands.incrementAndGet();
+                }
+                String[] parts = line.split(" ", 3);
+                switch (parts[0].toUpperCase(Locale.ROOT)) {
+                    case "EHLO" -> reply(out, ehlo(tls));
+                    case "HELO", "RCPT", "RSET", "NOOP" -> reply(out, "250 2.0.0 OK");
+                    case "MAIL" -> reply(out, authenticated ? "250 2.0.0 OK" : "530 5.7.0 Authentication required");
+                    case "STARTTLS" -> {
+                        if (settings.getSslContext() == null || tls) {
+                            reply(out, "502 5.5.1 Command not implemented");
+                            continue;
+                        }
+                        reply(out, "220 2.0.0 Ready to start TLS");
+                        SSLSocket secure = (SSLSocket) settings.getSslContext().getSocketFactory()
+                                .createSocket(socket, null, socket.getPort(), true);
+                        secure.setUseClientMode(false);
+                        secure.startHandshake();
+                        in = new BufferedInputStream(secure.getInputStream());
+                        out = secure.getOutputStream();
+                        tls = true;
+                        authenticated = settings.getUsername() == null;
+                        tlsUpgrades.incrementAndGet();
+                    }
+                    case "AUTH" -> {
+                        if (settings.getUsername() == null || parts.length < 2) {
+                            reply(out, "502 5.5.1 Command not implemented");
+                            continue;
+                        }
+                        authenticated = authenticate(parts[1].toUpperCase(Locale.ROOT), parts.length > 2 ? parts[2] : null, in, out);
+                        if (authenticated) {
+                            authentications.incrementAndGet();
+                            reply(out, "235 2.7.0 Authentication successful");
+                        } else {
+                            reply(out, "535 5.7.8 Authentication credentials invalid");
+                        }
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        if (!skipData(in)) {
+                            return;
+                        }
+                        if (!endOfData(out)) {
+                            return;
+                        }
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 2.0.0 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 5.5.1 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // client went away or the sink was closed
+        } finally {
+            openConnections.decrementAndGet();
+        }
+    }
+
+    private String ehlo(boolean tls) {
+        StringBuilder reply = new StringBuilder("250-localhost\r\n250-PIPELINING\r\n");
+        if (settings.getSslContext() != null && !tls) {
+            reply.append("250-STARTTLS\r\n");
+        }
+        if (settings.getUsername() != null) {
+            reply.append("250-AUTH ").append(settings.getAuthMechanisms()).append("\r\n");
+        }
+        return reply.append("250 8BITMIME").toString();
+    }
+
+    /**
+     * Runs an {@code AUTH PLAIN} or {@code AUTH LOGIN} exchange and checks the credentials.
+     *
+     * @return {@code true} if the credentials match the settings.
+     */
+    private boolean authenticate(String mechanism, String initial, InputStream in, OutputStream out) throws IOException {
+        String username;
+        String password;
+        if ("PLAIN".equals(mechanism) && settings.getAuthMechanisms().contains("PLAIN")) {
+            if (initial == null) {
+                reply(out, "334 ");
+                initial = readLine(in);
+            }
+            String[] credentials = decode(initial).split("\0", -1);
+            if (credentials.length != 3) {
+                return false;
+            }
+            username = credentials[1];
+            password = credentials[2];
+        } else if ("LOGIN".equals(mechanism) && settings.getAuthMechanisms().contains("LOGIN")) {
+            reply(out, "334 VXNlcm5hbWU6");
+            username = decode(readLine(in));
+            reply(out, "334 UGFzc3dvcmQ6");
+            password = decode(readLine(in));
+        } else {
+            return false;
+        }
+        return settings.getUsername().equals(username) && settings.getPassword().equals(password);
+    }
+
+    private static String decode(String base64) throws IOException {
+        if (base64 == null) {
+            throw new IOException("Connection closed during AUTH");
+        }
+        try {
+            return new String(Base64.getDecoder().decode(base64.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Answers the end of the message data according to the settings.
+     *
+     * @return {@code false} if the connection was dropped.
+     */
+    private boolean endOfData(OutputStream out) throws IOException {
+        sleep(settings.getDataLatencyMillis());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < settings.getDropRate()) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        if (!withinRate()) {
+            throttled.incrementAndGet();
+            reply(out, "451 4.7.1 Rate limit exceeded, try again later");
+        } else if (random.nextDouble() < settings.getTransientFailureRate()) {
+            transientFailures.incrementAndGet();
+            reply(out, "451 4.3.0 Temporary failure, try again later");
+        } else if (random.nextDouble() < settings.getPermanentFailureRate()) {
+            permanentFailures.incrementAndGet();
+            reply(out, "550 5.7.1 Message rejected");
+        } else {
+            accepted.incrementAndGet();
+            reply(out, "250 2.0.0 OK queued");
+        }
+        return true;
+    }
+
+    private boolean withinRate() {
+        int limit = settings.getMaxMessagesPerSecond();
+        if (limit <= 0) {
+            return true;
+        }
+        synchronized (rateLock) {
+            long now = System.nanoTime();
+            if (now - rateWindowStart >= TimeUnit.SECONDS.toNanos(1)) {
+                rateWindowStart = now;
+                rateWindowCount = 0;
+            }
+            return ++rateWindowCount <= limit;
+        }
+    }
+
+    private void reply(OutputStream out, String reply) throws IOException {
+        sleep(settings.getReplyLatencyMillis());
+        out.write((reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private static boolean skipData(InputStream in) throws IOException {
+        String line;
+        while ((line = readLine(in)) != null) {
+            if (line.equals(".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                byte[] bytes = line.toByteArray();
+                int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+                return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+            }
+            line.write(b);
+        }
+        return null;
+    }
+
+    private static void sleep(long millis) throws IOException {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+
+    /**
+     * Behavior of a {@link FenixSmtpSink}. Rates are probabilities between {@code 0.0} and {@code 1.0}
+     * applied to every message independently.
+     *
+     * <ul>
+     *     <li>{@code port}: The port to listen on ({@code 0} picks a free port).</li>
+     *     <li>{@code replyLatencyMillis}: Delay before every reply, simulating network round-trips.</li>
+     *     <li>{@code dataLatencyMillis}: Additional delay before the reply to the message data, simulating queueing and scanning.</li>
+     *     <li>{@code maxConnections}: Connections beyond this are refused with {@code 421} ({@code 0} means unlimited).</li>
+     *     <li>{@code maxMessagesPerSecond}: Messages beyond this rate are throttled with {@code 451} ({@code 0} means unlimited).</li>
+     *     <li>{@code transientFailureRate}: Share of messages rejected with {@code 451}.</li>
+     *     <li>{@code permanentFailureRate}: Share of messages rejected with {@code 550}.</li>
+     *     <li>{@code dropRate}: Share of messages after which the connection is closed without a reply.</li>
+     *     <li>{@code sslContext}: Server TLS context; when set, {@code STARTTLS} is offered.</li>
+     *     <li>{@code username}, {@code password}: Credentials; when a username is set, {@code AUTH} is offered and required.</li>
+     *     <li>{@code authMechanisms}: The {@code AUTH} mechanisms offered (default {@code PLAIN LOGIN}).</li>
+     * </ul>
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @ToString
+    public static class Settings {
+        private int port = 0;
+        private long replyLatencyMillis = 0;
+        private long dataLatencyMillis = 0;
+        private int maxConnections = 0;
+        private int maxMessagesPerSecond = 0;
+        private double transientFailureRate = 0.0;
+        private double permanentFailureRate = 0.0;
+        private double dropRate = 0.0;
+        private SSLContext sslContext;
+        private String username;
+        private String password;
+        private String authMechanisms = "PLAIN LOGIN";
+    }
+}